@@ -1,7 +1,16 @@
+import java.util.Properties
+
 plugins {
     alias(libs.plugins.android.application)
 }
 
+// Jeton d'accès GitHub des builds de développement : github.token dans local.properties (non versionné)
+val localProperties = Properties().apply {
+    val file = rootProject.file("local.properties")
+    if (file.exists()) file.inputStream().use { load(it) }
+}
+val githubToken: String = localProperties.getProperty("github.token", "")
+
 android {
     namespace = "com.openclassrooms.netapp"
     compileSdk = 34
@@ -18,10 +27,16 @@ android {
 
     buildFeatures {
         viewBinding = true
+        buildConfig = true
     }
 
     buildTypes {
+        debug {
+            buildConfigField("String", "GITHUB_TOKEN", "\"$githubToken\"")
+        }
         release {
+            // Un jeton personnel ne doit pas être embarqué dans un APK distribué
+            buildConfigField("String", "GITHUB_TOKEN", "\"\"")
             isMinifyEnabled = false
             proguardFiles(
                 getDefaultProguardFile("proguard-android-optimize.txt"),
@@ -43,6 +58,7 @@ dependencies {
     implementation (libs.androidx.constraintlayout)
     implementation(libs.androidx.coordinatorlayout)
     testImplementation(libs.junit)
+    testImplementation(libs.mockwebserver)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     implementation (libs.androidx.core)
@@ -55,6 +71,8 @@ dependencies {
     // Retrofit for Network Requests
     implementation(libs.retrofit)
     implementation(libs.logging.interceptor)
+    // Stockage chiffré du jeton d'accès GitHub
+    implementation(libs.security.crypto)
     implementation(libs.converter.moshi)
     implementation (libs.converter.gson)
     //implementation (libs.rxjava3.adapter)
@@ -64,6 +82,8 @@ dependencies {
     //implementation (libs.rxandroid)
     // Glide (si vous utilisez Glide pour le chargement des images)
     implementation (libs.glide)
+    // Préchargement des avatars pendant le défilement du RecyclerView
+    implementation (libs.glide.recyclerview)
     annotationProcessor (libs.compiler)
     // SwipeRefreshLayout
     implementation (libs.swiperefreshlayout)
@@ -0,0 +1,237 @@
+package com.openclassrooms.netapp;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+
+import com.bumptech.glide.Glide;
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Utils.FollowGraphCrawler;
+import com.openclassrooms.netapp.Utils.GithubStreams;
+import com.openclassrooms.netapp.Utils.ItemClickSupport;
+import com.openclassrooms.netapp.Views.GithubUserAdapter;
+import com.openclassrooms.netapp.databinding.FragmentCrawlBinding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.reactivex.disposables.Disposable;
+import io.reactivex.subjects.PublishSubject;
+import retrofit2.HttpException;
+
+/**
+ * Fragment affichant l'exploration du réseau d'un utilisateur GitHub : les comptes qu'il suit, ceux que ces comptes
+ * suivent, et ainsi de suite sur quelques niveaux.
+ *
+ * - Utilisation de `FollowGraphCrawler` (via `GithubStreams.streamCrawlFollowGraph`) : les utilisateurs découverts
+ *   s'ajoutent à la liste au fil du parcours.
+ * - Le parcours peut être mis en pause et repris. Il est porté par un `CrawlState` (ViewModel) : une rotation ou le
+ *   retour depuis la pile recrée la vue sans relancer le parcours ni perdre les utilisateurs déjà découverts.
+ * - Le nombre de requêtes et de comptes dont la lecture a échoué est affiché pendant le parcours, et les échecs sont
+ *   signalés à l'utilisateur à la fin.
+ */
+public class CrawlFragment extends Fragment implements GithubUserAdapter.Listener {
+
+    private static final String ARG_USERNAME = "username";
+    // Profondeur, concurrence et budget de requêtes du parcours
+    private static final int CRAWL_DEPTH = 2;
+    private static final int CRAWL_CONCURRENCY = 4;
+    private static final int CRAWL_REQUEST_BUDGET = 100;
+
+    private FragmentCrawlBinding binding;
+    private CrawlState state;
+    private Disposable disposable;
+    private GithubUserAdapter adapter;
+
+    /** - `newInstance(String username)`:
+     *   Méthode statique permettant de créer une nouvelle instance du fragment avec le compte racine du parcours.
+     */
+    public static CrawlFragment newInstance(String username) {
+        CrawlFragment fragment = new CrawlFragment();
+        Bundle args = new Bundle();
+        args.putString(ARG_USERNAME, username);
+        fragment.setArguments(args);
+        return fragment;
+    }
+
+    /**`onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState)`:
+     *   Méthode appelée pour créer la vue du fragment. Elle configure la liste, le bouton de pause et les clics sur les lignes.
+     */
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        binding = FragmentCrawlBinding.inflate(inflater, container, false);
+        configureRecyclerView();
+        configureOnClickRecyclerView();
+        binding.fragmentCrawlPause.setOnClickListener(v -> togglePause());
+        return binding.getRoot();
+    }
+
+    /**`onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState)`:
+     *   Méthode appelée une fois la vue créée. Elle lance le parcours depuis le compte passé en argument, ou affiche
+     *   celui déjà en cours si la vue est recréée.
+     */
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        state = new ViewModelProvider(this).get(CrawlState.class);
+        state.start(requireArguments().getString(ARG_USERNAME));
+        showCrawl();
+    }
+
+    /**`onDestroyView()`:
+     *   Méthode appelée lorsque la vue du fragment est détruite. Elle cesse de suivre le parcours, qui continue dans le
+     *   `CrawlState`, et libère la liaison.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (disposable != null) disposable.dispose();
+        binding = null;
+    }
+
+    /** - `onClickDeleteButton(int position)`: Retire l'utilisateur des résultats affichés.
+     */
+    @Override
+    public void onClickDeleteButton(int position) {
+        state.users.remove(adapter.getUser(position));
+        adapter.submitList(new ArrayList<>(state.users));
+    }
+
+    // -----------------
+    // CONFIGURATION
+    // -----------------
+
+    /** - `configureRecyclerView()`: Configure le RecyclerView avec l'adaptateur de la liste principale.
+     */
+    private void configureRecyclerView() {
+        int avatarSizePx = getResources().getDimensionPixelSize(R.dimen.avatar_list_size);
+        adapter = new GithubUserAdapter(Glide.with(this), avatarSizePx, this);
+        binding.fragmentCrawlRecyclerView.setAdapter(adapter);
+        binding.fragmentCrawlRecyclerView.setLayoutManager(new LinearLayoutManager(getActivity()));
+    }
+
+    /** - `configureOnClickRecyclerView()`: Ouvre `DetailActivity` pour l'utilisateur sélectionné.
+     */
+    private void configureOnClickRecyclerView() {
+        ItemClickSupport.addTo(binding.fragmentCrawlRecyclerView, R.layout.fragment_main_item)
+                .setOnItemClickListener((recyclerView, position, v) -> {
+                    Intent intent = new Intent(getContext(), DetailActivity.class);
+                    intent.putExtra("USERNAME", adapter.getUser(position).getLogin());
+                    startActivity(intent);
+                });
+    }
+
+    // -----------------
+    // CRAWL
+    // -----------------
+
+    /** - `showCrawl()`: Affiche les utilisateurs déjà découverts et l'état du parcours, puis suit ses lots suivants :
+     *   chacun met à jour la liste et le compteur ; à la fin, les comptes qui n'ont pas pu être lus sont signalés.
+     */
+    private void showCrawl() {
+        adapter.submitList(new ArrayList<>(state.users));
+        updateStatus();
+        if (state.finished) {
+            binding.fragmentCrawlPause.setVisibility(View.GONE);
+            return;
+        }
+        binding.fragmentCrawlPause.setText(state.crawler.isPaused() ? R.string.crawl_resume : R.string.crawl_pause);
+        disposable = state.updates.subscribe(users -> {
+            adapter.submitList(new ArrayList<>(users));
+            updateStatus();
+        }, this::onCrawlError, this::onCrawlComplete);
+    }
+
+    /** - `togglePause()`: Met le parcours en pause ou le reprend.
+     */
+    private void togglePause() {
+        FollowGraphCrawler crawler = state.crawler;
+        if (crawler.isPaused()) {
+            crawler.resume();
+            binding.fragmentCrawlPause.setText(R.string.crawl_pause);
+        } else {
+            crawler.pause();
+            binding.fragmentCrawlPause.setText(R.string.crawl_resume);
+        }
+    }
+
+    /** - `onCrawlComplete()`: Le parcours est terminé (profondeur ou budget atteint) : le bouton de pause est masqué
+     *   et les comptes dont la lecture a échoué sont signalés avec la dernière erreur.
+     */
+    private void onCrawlComplete() {
+        updateStatus();
+        binding.fragmentCrawlPause.setVisibility(View.GONE);
+        FollowGraphCrawler crawler = state.crawler;
+        if (crawler.getFailedCount() > 0) {
+            Toast.makeText(getContext(), getString(R.string.crawl_failed, crawler.getFailedCount(),
+                    describe(crawler.getLastError())), Toast.LENGTH_LONG).show();
+        }
+    }
+
+    /** - `onCrawlError(Throwable error)`: Informe l'utilisateur de l'arrêt inattendu du parcours.
+     */
+    private void onCrawlError(Throwable error) {
+        updateStatus();
+        binding.fragmentCrawlPause.setVisibility(View.GONE);
+        Toast.makeText(getContext(), describe(error), Toast.LENGTH_SHORT).show();
+    }
+
+    /** - `updateStatus()`: Affiche le nombre d'utilisateurs découverts, de requêtes faites et de comptes en échec.
+     */
+    private void updateStatus() {
+        binding.fragmentCrawlStatus.setText(getString(R.string.crawl_status,
+                state.users.size(), state.crawler.getRequestCount(), state.crawler.getFailedCount()));
+    }
+
+    private static String describe(Throwable error) {
+        if (error instanceof HttpException) return "Error: " + ((HttpException) error).message();
+        return "Network error: " + (error != null ? error.getMessage() : null);
+    }
+
+    /**
+     * État du parcours, conservé hors du cycle de vie de la vue : le crawler, les utilisateurs découverts et
+     * l'abonnement au parcours, libéré quand le fragment quitte définitivement l'écran.
+     */
+    public static class CrawlState extends ViewModel {
+        // Utilisateurs découverts, dans l'ordre du parcours
+        final List<GithubUser> users = new ArrayList<>();
+        // Liste complète après chaque lot, puis fin du parcours ; seule la vue affichée y est abonnée
+        final PublishSubject<List<GithubUser>> updates = PublishSubject.create();
+        FollowGraphCrawler crawler;
+        boolean finished;
+        private Disposable disposable;
+
+        // Lance le parcours au premier appel ; les appels des vues recréées ensuite sont ignorés
+        void start(String username) {
+            if (crawler != null) return;
+            crawler = new FollowGraphCrawler(CRAWL_DEPTH, CRAWL_CONCURRENCY, CRAWL_REQUEST_BUDGET);
+            disposable = GithubStreams.streamCrawlFollowGraph(crawler, username)
+                    .subscribe(batch -> {
+                        for (FollowGraphCrawler.Discovery discovery : batch) users.add(discovery.getUser());
+                        updates.onNext(users);
+                    }, error -> {
+                        finished = true;
+                        updates.onError(error);
+                    }, () -> {
+                        finished = true;
+                        updates.onComplete();
+                    });
+        }
+
+        @Override
+        protected void onCleared() {
+            if (disposable != null) disposable.dispose();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.openclassrooms.netapp.Database;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Différence entre la liste des abonnements stockée et la première page reçue du serveur.
+ * <p>
+ * La nouvelle liste est la page reçue suivie des utilisateurs stockés au-delà de la page (ceux des pages
+ * suivantes déjà chargées), sans doublon. Un utilisateur stocké dans la fenêtre de la première page qui
+ * n'y figure plus n'est plus suivi ; si la page est la dernière, tous les utilisateurs absents sont supprimés.
+ * Le calcul ne dépend pas de la base : il peut être fait avant d'ouvrir une transaction.
+ * </p>
+ */
+public class FollowingDelta {
+
+    private final List<GithubUser> following;
+    private final List<GithubUser> added;
+    private final List<GithubUser> updated;
+    private final List<GithubUser> removed;
+    private final boolean reordered;
+
+    private FollowingDelta(List<GithubUser> following, List<GithubUser> added, List<GithubUser> updated,
+                           List<GithubUser> removed, boolean reordered) {
+        this.following = following;
+        this.added = added;
+        this.updated = updated;
+        this.removed = removed;
+        this.reordered = reordered;
+    }
+
+    /**
+     * Calcule la différence entre la liste stockée et la première page reçue.
+     *
+     * @param stored Liste stockée, dans l'ordre de l'API.
+     * @param firstPage Première page reçue du serveur.
+     * @param complete Vrai si la page est la dernière (aucun lien {@code next}).
+     * @return La différence, vide si rien n'a changé.
+     */
+    public static FollowingDelta compute(List<GithubUser> stored, List<GithubUser> firstPage, boolean complete) {
+        Map<Integer, GithubUser> storedById = new HashMap<>();
+        for (GithubUser user : stored) {
+            if (user.getId() != null) storedById.put(user.getId(), user);
+        }
+
+        List<GithubUser> following = new ArrayList<>(Math.max(stored.size(), firstPage.size()));
+        List<GithubUser> added = new ArrayList<>();
+        List<GithubUser> updated = new ArrayList<>();
+        Set<Integer> kept = new HashSet<>();
+        for (GithubUser user : firstPage) {
+            if (user.getId() == null || user.getLogin() == null || !kept.add(user.getId())) continue;
+            following.add(user);
+            GithubUser previous = storedById.get(user.getId());
+            if (previous == null) {
+                added.add(user);
+            } else if (!sameContent(previous, user)) {
+                updated.add(user);
+            }
+        }
+
+        // Les nouveaux venus repoussent d'autant d'utilisateurs vers la page suivante : ceux-là sont conservés
+        int window = following.size() - added.size();
+        List<GithubUser> removed = new ArrayList<>();
+        for (int i = 0; i < stored.size(); i++) {
+            GithubUser user = stored.get(i);
+            if (kept.contains(user.getId())) continue;
+            if (complete || i < window) {
+                removed.add(user);
+            } else {
+                kept.add(user.getId());
+                following.add(user);
+            }
+        }
+
+        boolean reordered = following.size() != stored.size();
+        for (int i = 0; !reordered && i < following.size(); i++) {
+            reordered = !following.get(i).getId().equals(stored.get(i).getId());
+        }
+        return new FollowingDelta(Collections.unmodifiableList(following), added, updated, removed, reordered);
+    }
+
+    // Nouvelle liste complète, dans l'ordre de l'API
+    public List<GithubUser> getFollowing() {
+        return following;
+    }
+
+    // Utilisateurs qui n'étaient pas dans la liste stockée
+    public List<GithubUser> getAdded() {
+        return added;
+    }
+
+    // Utilisateurs déjà stockés dont le login, l'avatar ou le type a changé
+    public List<GithubUser> getUpdated() {
+        return updated;
+    }
+
+    // Utilisateurs stockés qui ne sont plus suivis
+    public List<GithubUser> getRemoved() {
+        return removed;
+    }
+
+    // Vrai si au moins une position de la liste a changé
+    public boolean isReordered() {
+        return reordered;
+    }
+
+    public boolean isEmpty() {
+        return !reordered && added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+    }
+
+    private static boolean sameContent(GithubUser a, GithubUser b) {
+        return equals(a.getLogin(), b.getLogin())
+                && equals(a.getAvatarUrl(), b.getAvatarUrl())
+                && equals(a.getType(), b.getType());
+    }
+
+    private static boolean equals(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    @Override
+    public String toString() {
+        return "FollowingDelta{added=" + added.size()
+                + ", updated=" + updated.size()
+                + ", removed=" + removed.size()
+                + ", reordered=" + reordered + "}";
+    }
+}
@@ -0,0 +1,241 @@
+package com.openclassrooms.netapp.Database;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.openclassrooms.netapp.Utils.Logins;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.openclassrooms.netapp.Database.NetAppDatabase.*;
+
+/**
+ * Accès aux utilisateurs GitHub stockés dans la base locale.
+ * <p>
+ * Toutes les méthodes sont bloquantes et doivent être appelées hors du thread principal
+ * (par exemple depuis {@code Schedulers.io()}). Les écritures multiples sont faites dans une transaction.
+ * </p>
+ */
+public class GithubUserDao {
+
+    private static volatile GithubUserDao instance;
+
+    private final NetAppDatabase database;
+
+    /**
+     * Initialise le DAO partagé. Doit être appelée au démarrage de l'application.
+     *
+     * @param context Contexte de l'application.
+     */
+    public static void init(Context context) {
+        synchronized (GithubUserDao.class) {
+            if (instance == null) {
+                instance = new GithubUserDao(NetAppDatabase.getInstance(context));
+            }
+        }
+    }
+
+    /**
+     * Retourne le DAO partagé.
+     *
+     * @return Le DAO, ou null si {@link #init(Context)} n'a pas été appelée (par exemple dans les tests JVM).
+     */
+    public static GithubUserDao getInstance() {
+        return instance;
+    }
+
+    GithubUserDao(NetAppDatabase database) {
+        this.database = database;
+    }
+
+    // -------------------
+    // FOLLOWING
+    // -------------------
+
+    /**
+     * Lit la liste des utilisateurs suivis par un compte, dans l'ordre de l'API.
+     *
+     * @param owner Login du compte.
+     * @return Les utilisateurs suivis, ou une liste vide si rien n'est encore stocké.
+     */
+    public List<GithubUser> getFollowing(String owner) {
+        SQLiteDatabase db = database.getReadableDatabase();
+        List<GithubUser> users = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT u." + USERS_ID + ", u." + USERS_LOGIN + ", u." + USERS_AVATAR_URL
+                        + ", u." + USERS_TYPE
+                        + " FROM " + TABLE_FOLLOWING + " f JOIN " + TABLE_USERS + " u ON f." + FOLLOWING_USER_ID + " = u." + USERS_ID
+                        + " WHERE f." + FOLLOWING_OWNER + " = ? ORDER BY f." + FOLLOWING_POSITION,
+                new String[]{Logins.key(owner)})) {
+            while (cursor.moveToNext()) {
+                GithubUser user = new GithubUser();
+                user.setId(cursor.getInt(0));
+                user.setLogin(cursor.getString(1));
+                user.setAvatarUrl(cursor.getString(2));
+                user.setType(cursor.getString(3));
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Indique si une liste d'utilisateurs suivis est stockée pour un compte, sans la lire.
+     *
+     * @param owner Login du compte.
+     * @return {@code true} si au moins un utilisateur suivi est stocké.
+     */
+    public boolean hasFollowing(String owner) {
+        SQLiteDatabase db = database.getReadableDatabase();
+        return DatabaseUtils.queryNumEntries(db, TABLE_FOLLOWING, FOLLOWING_OWNER + " = ?", new String[]{Logins.key(owner)}) > 0;
+    }
+
+    /**
+     * Ajoute des utilisateurs à la fin de la liste des utilisateurs suivis (réception d'une page suivante).
+     * <p>
+     * Les utilisateurs déjà présents dans la liste sont ignorés : recharger une page, ou recevoir une page
+     * décalée par une synchronisation, ne crée pas de doublon.
+     * </p>
+     *
+     * @param owner Login du compte.
+     * @param users Utilisateurs de la page.
+     */
+    public void appendFollowing(String owner, List<GithubUser> users) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            int position = 0;
+            Set<Integer> stored = new HashSet<>();
+            try (Cursor cursor = db.rawQuery("SELECT " + FOLLOWING_USER_ID + ", " + FOLLOWING_POSITION + " FROM "
+                    + TABLE_FOLLOWING + " WHERE " + FOLLOWING_OWNER + " = ?", new String[]{Logins.key(owner)})) {
+                while (cursor.moveToNext()) {
+                    stored.add(cursor.getInt(0));
+                    position = Math.max(position, cursor.getInt(1) + 1);
+                }
+            }
+            for (GithubUser user : users) {
+                if (user.getId() == null || user.getLogin() == null || !stored.add(user.getId())) continue;
+                insertUser(db, user);
+                insertLink(db, owner, position++, user.getId());
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Fusionne la première page reçue dans la liste stockée en n'écrivant que les différences : utilisateurs
+     * nouveaux ou modifiés, positions qui ont changé et positions devenues inutiles.
+     *
+     * @param owner Login du compte.
+     * @param firstPage Première page reçue du serveur.
+     * @param complete Vrai si la page est la dernière.
+     * @return La différence appliquée, vide si la base n'a pas été modifiée.
+     */
+    public FollowingDelta applyFollowingFirstPage(String owner, List<GithubUser> firstPage, boolean complete) {
+        SQLiteDatabase db = database.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            List<GithubUser> stored = getFollowing(owner);
+            FollowingDelta delta = FollowingDelta.compute(stored, firstPage, complete);
+            if (delta.isEmpty()) return delta;
+
+            for (GithubUser user : delta.getAdded()) {
+                insertUser(db, user);
+            }
+            for (GithubUser user : delta.getUpdated()) {
+                insertUser(db, user);
+            }
+            List<GithubUser> following = delta.getFollowing();
+            for (int position = 0; position < following.size(); position++) {
+                Integer userId = following.get(position).getId();
+                if (position < stored.size() && userId.equals(stored.get(position).getId())) continue;
+                insertLink(db, owner, position, userId);
+            }
+            if (following.size() < stored.size()) {
+                db.delete(TABLE_FOLLOWING, FOLLOWING_OWNER + " = ? AND " + FOLLOWING_POSITION + " >= ?",
+                        new String[]{Logins.key(owner), String.valueOf(following.size())});
+            }
+            db.setTransactionSuccessful();
+            return delta;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private void insertUser(SQLiteDatabase db, GithubUser user) {
+        ContentValues values = new ContentValues();
+        values.put(USERS_ID, user.getId());
+        values.put(USERS_LOGIN, user.getLogin());
+        values.put(USERS_AVATAR_URL, user.getAvatarUrl());
+        values.put(USERS_TYPE, user.getType());
+        db.insertWithOnConflict(TABLE_USERS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private void insertLink(SQLiteDatabase db, String owner, int position, int userId) {
+        ContentValues link = new ContentValues();
+        link.put(FOLLOWING_OWNER, Logins.key(owner));
+        link.put(FOLLOWING_POSITION, position);
+        link.put(FOLLOWING_USER_ID, userId);
+        db.insertWithOnConflict(TABLE_FOLLOWING, null, link, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    // -------------------
+    // USER INFOS
+    // -------------------
+
+    /**
+     * Lit les informations détaillées stockées d'un utilisateur.
+     *
+     * @param login Login de l'utilisateur (insensible à la casse).
+     * @return Les informations stockées, ou null.
+     */
+    public GithubUserInfo getUserInfo(String login) {
+        SQLiteDatabase db = database.getReadableDatabase();
+        try (Cursor cursor = db.query(TABLE_USER_INFOS,
+                new String[]{INFOS_ID, INFOS_LOGIN, INFOS_NAME, INFOS_COMPANY, INFOS_LOCATION, INFOS_AVATAR_URL,
+                        INFOS_FOLLOWERS, INFOS_FOLLOWING, INFOS_PUBLIC_REPOS},
+                INFOS_LOGIN + " = ? COLLATE NOCASE", new String[]{login}, null, null, null)) {
+            if (!cursor.moveToFirst()) return null;
+            GithubUserInfo info = new GithubUserInfo();
+            info.setId(cursor.getInt(0));
+            info.setLogin(cursor.getString(1));
+            info.setName(cursor.getString(2));
+            info.setCompany(cursor.getString(3));
+            info.setLocation(cursor.getString(4));
+            info.setAvatarUrl(cursor.getString(5));
+            info.setFollowers(cursor.isNull(6) ? null : cursor.getInt(6));
+            info.setFollowing(cursor.isNull(7) ? null : cursor.getInt(7));
+            info.setPublicRepos(cursor.isNull(8) ? null : cursor.getInt(8));
+            return info;
+        }
+    }
+
+    /**
+     * Enregistre ou remplace les informations détaillées d'un utilisateur.
+     *
+     * @param info Informations à enregistrer.
+     */
+    public void saveUserInfo(GithubUserInfo info) {
+        if (info.getId() == null || info.getLogin() == null) return;
+        ContentValues values = new ContentValues();
+        values.put(INFOS_ID, info.getId());
+        values.put(INFOS_LOGIN, info.getLogin());
+        values.put(INFOS_NAME, info.getName());
+        values.put(INFOS_COMPANY, info.getCompany());
+        values.put(INFOS_LOCATION, info.getLocation());
+        values.put(INFOS_AVATAR_URL, info.getAvatarUrl());
+        values.put(INFOS_FOLLOWERS, info.getFollowers());
+        values.put(INFOS_FOLLOWING, info.getFollowing());
+        values.put(INFOS_PUBLIC_REPOS, info.getPublicRepos());
+        database.getWritableDatabase().insertWithOnConflict(TABLE_USER_INFOS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+}
@@ -0,0 +1,116 @@
+package com.openclassrooms.netapp.Database;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+/**
+ * Base de données SQLite locale de l'application.
+ * <p>
+ * Elle conserve les utilisateurs GitHub, l'ordre de la liste des abonnements de chaque compte et les
+ * informations détaillées des utilisateurs, afin d'afficher les données sans attendre le réseau et de
+ * fonctionner hors ligne. Les colonnes {@code id} et {@code login} sont indexées.
+ * </p>
+ */
+public class NetAppDatabase extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "netapp.db";
+    // Version 2 : suppression des colonnes html_url, dérivées du login ; version 3 : suppression de fetched_at
+    private static final int DATABASE_VERSION = 3;
+
+    // Table des utilisateurs (modèle GithubUser)
+    static final String TABLE_USERS = "users";
+    static final String USERS_ID = "id";
+    static final String USERS_LOGIN = "login";
+    static final String USERS_AVATAR_URL = "avatar_url";
+    static final String USERS_TYPE = "type";
+
+    // Table de la liste des abonnements : quel compte suit quel utilisateur, et à quelle position
+    static final String TABLE_FOLLOWING = "following";
+    static final String FOLLOWING_OWNER = "owner";
+    static final String FOLLOWING_POSITION = "position";
+    static final String FOLLOWING_USER_ID = "user_id";
+
+    // Table des informations détaillées (modèle GithubUserInfo)
+    static final String TABLE_USER_INFOS = "user_infos";
+    static final String INFOS_ID = "id";
+    static final String INFOS_LOGIN = "login";
+    static final String INFOS_NAME = "name";
+    static final String INFOS_COMPANY = "company";
+    static final String INFOS_LOCATION = "location";
+    static final String INFOS_AVATAR_URL = "avatar_url";
+    static final String INFOS_FOLLOWERS = "followers";
+    static final String INFOS_FOLLOWING = "following";
+    static final String INFOS_PUBLIC_REPOS = "public_repos";
+
+    private static volatile NetAppDatabase instance;
+
+    /**
+     * Retourne l'instance unique de la base, créée au premier appel.
+     *
+     * @param context Contexte utilisé pour ouvrir la base (le contexte de l'application est conservé).
+     * @return La base de données de l'application.
+     */
+    public static NetAppDatabase getInstance(Context context) {
+        NetAppDatabase result = instance;
+        if (result == null) {
+            synchronized (NetAppDatabase.class) {
+                result = instance;
+                if (result == null) {
+                    result = new NetAppDatabase(context.getApplicationContext());
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private NetAppDatabase(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        // Lectures concurrentes pendant les écritures des threads de fond
+        db.enableWriteAheadLogging();
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_USERS + " ("
+                + USERS_ID + " INTEGER PRIMARY KEY, "
+                + USERS_LOGIN + " TEXT NOT NULL, "
+                + USERS_AVATAR_URL + " TEXT, "
+                + USERS_TYPE + " TEXT)");
+        db.execSQL("CREATE INDEX idx_users_login ON " + TABLE_USERS + " (" + USERS_LOGIN + " COLLATE NOCASE)");
+
+        db.execSQL("CREATE TABLE " + TABLE_FOLLOWING + " ("
+                + FOLLOWING_OWNER + " TEXT NOT NULL, "
+                + FOLLOWING_POSITION + " INTEGER NOT NULL, "
+                + FOLLOWING_USER_ID + " INTEGER NOT NULL, "
+                + "PRIMARY KEY (" + FOLLOWING_OWNER + ", " + FOLLOWING_POSITION + "))");
+        db.execSQL("CREATE INDEX idx_following_user_id ON " + TABLE_FOLLOWING + " (" + FOLLOWING_USER_ID + ")");
+
+        db.execSQL("CREATE TABLE " + TABLE_USER_INFOS + " ("
+                + INFOS_ID + " INTEGER PRIMARY KEY, "
+                + INFOS_LOGIN + " TEXT NOT NULL, "
+                + INFOS_NAME + " TEXT, "
+                + INFOS_COMPANY + " TEXT, "
+                + INFOS_LOCATION + " TEXT, "
+                + INFOS_AVATAR_URL + " TEXT, "
+                + INFOS_FOLLOWERS + " INTEGER, "
+                + INFOS_FOLLOWING + " INTEGER, "
+                + INFOS_PUBLIC_REPOS + " INTEGER)");
+        db.execSQL("CREATE UNIQUE INDEX idx_user_infos_login ON " + TABLE_USER_INFOS + " (" + INFOS_LOGIN + " COLLATE NOCASE)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Les données ne sont qu'un cache du réseau : elles peuvent être recréées
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_FOLLOWING);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USER_INFOS);
+        onCreate(db);
+    }
+}
@@ -11,17 +11,15 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.bumptech.glide.Glide;
-import com.bumptech.glide.load.resource.bitmap.CenterCrop;
-import com.bumptech.glide.load.resource.bitmap.RoundedCorners;
 import com.openclassrooms.netapp.Models.GithubUserInfo;
-import com.openclassrooms.netapp.Utils.GithubService;
+import com.openclassrooms.netapp.Utils.GithubStreams;
+import com.openclassrooms.netapp.Utils.RawHttpEngine;
+import com.openclassrooms.netapp.Views.AvatarLoader;
 import com.openclassrooms.netapp.databinding.FragmentDetailBinding;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.observers.DisposableObserver;
+import retrofit2.HttpException;
 
 /**
  * Fragment affichant les détails d'un utilisateur GitHub.
@@ -31,14 +29,19 @@ import retrofit2.converter.gson.GsonConverterFactory;
  * le nombre de suivis, de followers et de dépôts publics.
  *
  * - Utilisation de View Binding pour accéder aux éléments de l'interface et les mettre à jour.
- * - Utilisation de Retrofit pour effectuer des requêtes réseau pour obtenir les informations de l'utilisateur GitHub.
+ * - Utilisation de `GithubStreams` (Retrofit, RxJava et cache mémoire) pour obtenir les informations de l'utilisateur GitHub.
+ * - Utilisation de `RawHttpEngine` pour télécharger le README de profil de l'utilisateur, annulé avec la vue.
+ * - Accès à l'exploration du réseau de l'utilisateur (`CrawlFragment`).
  * - Gestion des erreurs de réseau et de réponse pour informer l'utilisateur en cas de problème.
  */
 public class DetailFragment extends Fragment {
 
     private static final String ARG_USERNAME = "username";
+    // README de profil : dépôt homonyme de l'utilisateur, servi en texte brut
+    private static final String PROFILE_README_URL = "https://raw.githubusercontent.com/%1$s/%1$s/HEAD/README.md";
 
     private FragmentDetailBinding binding;
+    private Disposable disposable;
 
     /** - `newInstance(String username)`:
      *   Méthode statique permettant de créer une nouvelle instance du fragment avec le nom d'utilisateur passé en argument.
@@ -86,52 +89,85 @@ public class DetailFragment extends Fragment {
         if (getArguments() != null) {
             String username = getArguments().getString(ARG_USERNAME);
             fetchUserDetails(username);
+            fetchProfileReadme(username);
+            binding.exploreButton.setOnClickListener(v -> openCrawl(username));
         }
     }
 
+    /**`openCrawl(String username)`:
+     *   Méthode pour afficher l'exploration du réseau de l'utilisateur (`CrawlFragment`) à la place du détail ;
+     *   le bouton retour revient au détail.
+     */
+    private void openCrawl(String username) {
+        getParentFragmentManager().beginTransaction()
+                .replace(R.id.fragment_container, CrawlFragment.newInstance(username))
+                .addToBackStack(null)
+                .commit();
+    }
+
+    /**`onDestroyView()`:
+     *   Méthode appelée lorsque la vue du fragment est détruite, y compris quand l'exploration la remplace et que le
+     *   fragment reste dans la pile de retour. Elle libère l'abonnement RxJava en cours, qui met à jour la vue, et
+     *   la liaison : une nouvelle vue relance la requête dans `onViewCreated`.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (disposable != null && !disposable.isDisposed()) disposable.dispose();
+        binding = null;
+    }
+
     /**`fetchUserDetails(String username)`:
-     *   Méthode pour effectuer une requête réseau à l'aide de Retrofit pour obtenir les informations de l'utilisateur GitHub.
-     *   Elle crée une instance de Retrofit, configure le service API, et envoie la requête pour récupérer les informations
-     *   de l'utilisateur. Les résultats sont traités dans les méthodes `onResponse` et `onFailure`.
+     *   Méthode pour obtenir les informations de l'utilisateur GitHub via `GithubStreams.streamFetchUserInfos`.
+     *   Un utilisateur consulté récemment est affiché immédiatement depuis le cache mémoire ; si la valeur
+     *   a expiré, l'écran est mis à jour une seconde fois à l'arrivée de la version rafraîchie.
      */
     private void fetchUserDetails(String username) {
-        // Utiliser votre propre instance de Retrofit
-        Retrofit retrofit = new Retrofit.Builder()
-                .baseUrl("https://api.github.com/")
-                .addConverterFactory(GsonConverterFactory.create())
-                .build();
-
-        GithubService service = retrofit.create(GithubService.class);
-        Call<GithubUserInfo> call = service.getUserInfos(username);
+        this.disposable = GithubStreams.streamFetchUserInfos(username).subscribeWith(new DisposableObserver<GithubUserInfo>() {
+            @Override
+            public void onNext(GithubUserInfo user) {
+                updateUI(user);  // Met à jour l'UI avec les informations de l'utilisateur
+            }
 
-        call.enqueue(new Callback<GithubUserInfo>() {
             @Override
-            public void onResponse(Call<GithubUserInfo> call, Response<GithubUserInfo> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    GithubUserInfo user = response.body();
-                    updateUI(user);  // Met à jour l'UI avec les informations de l'utilisateur
-                } else {
+            public void onError(Throwable e) {
+                if (e instanceof HttpException) {
                     // Gérez les erreurs de réponse ici
-                    Toast.makeText(getContext(), "Error: " + response.message(), Toast.LENGTH_SHORT).show();
+                    Toast.makeText(getContext(), "Error: " + ((HttpException) e).message(), Toast.LENGTH_SHORT).show();
+                } else {
+                    // Gérez les erreurs de réseau ici
+                    Toast.makeText(getContext(), "Network error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                 }
             }
 
             @Override
-            public void onFailure(Call<GithubUserInfo> call, Throwable t) {
-                // Gérez les erreurs de réseau ici
-                Toast.makeText(getContext(), "Network error: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-            }
+            public void onComplete() { }
         });
     }
 
+    /**`fetchProfileReadme(String username)`:
+     *   Méthode pour télécharger le README de profil de l'utilisateur via `RawHttpEngine`. La requête est annulée
+     *   avec la vue du fragment, le rappel ne touche donc jamais une vue détruite ; le texte n'est affiché que si le README existe, toute autre issue le laisse masqué.
+     */
+    private void fetchProfileReadme(String username) {
+        RawHttpEngine.getInstance()
+                .fetch(String.format(PROFILE_README_URL, username), result -> {
+                    if (!result.isSuccess()) return;
+                    binding.readmeTextView.setText(result.getBodyAsString());
+                    binding.readmeTextView.setVisibility(View.VISIBLE);
+                })
+                .cancelOnDestroy(getViewLifecycleOwner().getLifecycle());
+    }
+
     /**`updateUI(GithubUserInfo user)`:
      *   Méthode pour mettre à jour l'interface utilisateur avec les informations récupérées de l'utilisateur GitHub. Elle utilise
-     *   Glide pour charger l'image de l'utilisateur et mettre à jour les TextViews avec les détails de l'utilisateur.
+     *   l'`AvatarLoader` pour charger l'image de l'utilisateur : la vignette de la liste, déjà en cache, s'affiche immédiatement
+     *   puis est remplacée par la version grand format. Elle met ensuite à jour les TextViews avec les détails de l'utilisateur.
      */
     private void updateUI(GithubUserInfo user) {
-        Glide.with(this)
-                .load(user.getAvatarUrl())
-                .circleCrop()
+        AvatarLoader.loadWithThumbnail(Glide.with(this), user.getAvatarUrl(),
+                        getResources().getDimensionPixelSize(R.dimen.avatar_list_size),
+                        getResources().getDimensionPixelSize(R.dimen.avatar_detail_size))
                 .into(binding.avatarImageView);
         binding.usernameTextView.setText(user.getLogin()
         );
@@ -2,6 +2,8 @@ package com.openclassrooms.netapp;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.MenuItem;
 import android.view.View;
@@ -14,16 +16,31 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.util.FixedPreloadSizeProvider;
 import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Utils.FollowingPager;
+import com.openclassrooms.netapp.Utils.FollowingSyncEngine;
 import com.openclassrooms.netapp.Utils.GithubStreams;
 import com.openclassrooms.netapp.Utils.ItemClickSupport;
+import com.openclassrooms.netapp.Utils.RateLimitScheduler;
+import com.openclassrooms.netapp.Utils.UserSearchIndex;
+import com.openclassrooms.netapp.Views.EndlessScrollListener;
 import com.openclassrooms.netapp.Views.GithubUserAdapter;
 import com.openclassrooms.netapp.databinding.FragmentMainBinding;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+import io.reactivex.Observable;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
-import io.reactivex.observers.DisposableObserver;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
+import retrofit2.HttpException;
 
 /**
  * Fragment principal de l'application qui affiche une liste d'utilisateurs GitHub dans un RecyclerView.
@@ -32,12 +49,30 @@ import io.reactivex.observers.DisposableObserver;
  * `fragment_main.xml`. Il gère la configuration du RecyclerView, les actions de clic sur les éléments,
  * et la mise à jour de l'interface utilisateur après avoir récupéré les données via une requête HTTP.
  */
-public class MainFragment extends Fragment implements GithubUserAdapter.Listener {
+public class MainFragment extends Fragment implements GithubUserAdapter.Listener, FollowingPager.Listener {
     /** `GithubUserAdapter.Listener`: Interface permettant de gérer les clics sur les boutons de suppression des
      *   utilisateurs.
      */
+    // Nombre d'éléments restants sous l'écran à partir duquel la page suivante est préchargée
+    private static final int PREFETCH_THRESHOLD = 20;
+    // Nombre de lignes à venir dont l'avatar est préchargé
+    private static final int AVATAR_PRELOAD_COUNT = 10;
+    // Intervalle de regroupement des informations détaillées reçues avant de refiltrer la recherche en cours
+    private static final long SEARCH_REFRESH_MILLIS = 250;
+    // Compte GitHub dont on affiche les abonnements
+    private static final String USERNAME = "JakeWharton";
+
     private FragmentMainBinding binding;
-    private Disposable disposable;
+    private FollowingPager pager;
+    private FollowingSyncEngine syncEngine;
+    private Disposable syncDisposable;
+    private Disposable followersDisposable;
+    private Disposable searchDisposable;
+    private final UserSearchIndex searchIndex = new UserSearchIndex();
+    private final PublishSubject<String> searchQueries = PublishSubject.create();
+    private String searchQuery = "";
+    private boolean remoteSearch;
+    private final CompositeDisposable disposables = new CompositeDisposable();
     private List<GithubUser> githubUsers;
     private GithubUserAdapter adapter;
 
@@ -45,8 +80,8 @@ public class MainFragment extends Fragment implements GithubUserAdapter.Listener
 
     /**`onCreateView(LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState)`:
      *   Méthode appelée pour créer la vue du fragment. Elle configure le RecyclerView, le SwipeRefreshLayout,
-     *   et les actions de clic sur les éléments du RecyclerView. Elle lance également une requête HTTP pour
-     *   récupérer les utilisateurs GitHub.
+     *   et les actions de clic sur les éléments du RecyclerView. Elle affiche la liste stockée localement puis
+     *   lance une requête HTTP pour récupérer les utilisateurs GitHub à jour.
      */
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
@@ -56,11 +91,46 @@ public class MainFragment extends Fragment implements GithubUserAdapter.Listener
         configureRecyclerView();
         configureSwipeRefreshLayout();
         configureOnClickRecyclerView();
+        configureSearch();
+        loadStoredUsers();
         executeHttpRequestWithRetrofit();
+        loadFollowerIds();
+        syncEngine = new FollowingSyncEngine(USERNAME);
 
         return view;
     }
 
+    /**`onStart()`: Méthode appelée lorsque le fragment devient visible. Elle démarre la synchronisation périodique
+     *   de la liste et s'abonne à ses changements.
+     */
+    @Override
+    public void onStart() {
+        super.onStart();
+        syncDisposable = syncEngine.observeChanges()
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(this::onFollowingChanged, error -> { });
+        syncEngine.start();
+    }
+
+    /**`onStop()`: Méthode appelée lorsque le fragment n'est plus visible. Elle arrête la synchronisation pour ne
+     *   pas consommer de batterie ni de quota en arrière-plan.
+     */
+    @Override
+    public void onStop() {
+        super.onStop();
+        syncEngine.stop();
+        syncDisposable.dispose();
+    }
+
+    /**`onDestroyView()`: Méthode appelée lorsque la vue du fragment est détruite (par exemple quand il passe dans la
+     *   pile de retour). Les abonnements qui mettent à jour la vue sont libérés : ils sont recréés avec la prochaine vue.
+     */
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        disposeWhenDestroyView();
+    }
+
     /**`onDestroy()`: Méthode appelée lorsque le fragment est détruit. Elle se charge de libérer les ressources
      *   associées aux requêtes en cours (RxJava).
      */
@@ -104,13 +174,24 @@ public class MainFragment extends Fragment implements GithubUserAdapter.Listener
     // -----------------
 
     /**  - `configureRecyclerView()`: Configure le RecyclerView avec un adaptateur personnalisé (`GithubUserAdapter`)
-     *   et définit le `LayoutManager` pour l'affichage en liste verticale.
+     *   et définit le `LayoutManager` pour l'affichage en liste verticale. Les avatars des lignes à venir sont
+     *   préchargés pendant le défilement, à la taille exacte de la vue.
      */
     private void configureRecyclerView() {
         githubUsers = new ArrayList<>();
-        this.adapter = new GithubUserAdapter(this.githubUsers, Glide.with(this), this);
+        int avatarSizePx = getResources().getDimensionPixelSize(R.dimen.avatar_list_size);
+        this.adapter = new GithubUserAdapter(Glide.with(this), avatarSizePx, this);
         binding.fragmentMainRecyclerView.setAdapter(adapter);
         binding.fragmentMainRecyclerView.setLayoutManager(new LinearLayoutManager(getActivity()));
+        binding.fragmentMainRecyclerView.addOnScrollListener(new RecyclerViewPreloader<>(Glide.with(this), adapter,
+                new FixedPreloadSizeProvider<GithubUser>(avatarSizePx, avatarSizePx), AVATAR_PRELOAD_COUNT));
+        binding.fragmentMainRecyclerView.addOnScrollListener(new EndlessScrollListener(PREFETCH_THRESHOLD) {
+            @Override
+            public void onLoadMore() {
+                // Pendant un filtrage, la liste affichée est courte : les pages ne sont pas chargées en rafale
+                if (pager != null && searchQuery.isEmpty()) pager.loadNextPage();
+            }
+        });
     }
 
      /** - `configureSwipeRefreshLayout()`: Configure le SwipeRefreshLayout pour rafraîchir les données lorsqu'un
@@ -120,33 +201,168 @@ public class MainFragment extends Fragment implements GithubUserAdapter.Listener
         binding.fragmentMainSwipeContainer.setOnRefreshListener(() -> executeHttpRequestWithRetrofit());
     }
 
+    /** - `configureSearch()`: Filtre la liste chargée à chaque frappe dans le champ de recherche. Le filtrage utilise
+     *   l'index local sur un thread de fond ; une frappe plus récente annule le résultat d'une recherche précédente.
+     *   Lorsque la case « GitHub » est cochée, la recherche porte sur tous les comptes GitHub : la requête part après une
+     *   pause dans la saisie et ses résultats sont mis en cache.
+     */
+    private void configureSearch() {
+        binding.fragmentMainSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) { }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) { }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                searchQuery = s.toString().trim();
+                searchQueries.onNext(searchQuery);
+            }
+        });
+        binding.fragmentMainSearchRemote.setOnCheckedChangeListener((button, isChecked) -> {
+            remoteSearch = isChecked;
+            searchQueries.onNext(searchQuery);
+        });
+        searchDisposable = searchQueries
+                .switchMap(query -> {
+                    if (remoteSearch && !query.isEmpty()) {
+                        return GithubStreams.streamSearchUsers(query)
+                                .onErrorResumeNext(error -> {
+                                    onSearchError(error);
+                                    return Observable.empty();
+                                });
+                    }
+                    List<GithubUser> users = githubUsers;
+                    return Observable.fromCallable(() -> searchIndex.filter(users, query))
+                            .subscribeOn(Schedulers.computation());
+                })
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(users -> adapter.submitList(users), error -> { });
+    }
+
     // -------------------
     // HTTP (RxJAVA)
     // -------------------
 
-    /** - `executeHttpRequestWithRetrofit()`: Effectue une requête HTTP pour récupérer la liste des utilisateurs
-     *   GitHub suivis par un utilisateur spécifique en utilisant Retrofit et RxJava.
+    /** - `executeHttpRequestWithRetrofit()`: Effectue une requête HTTP pour récupérer la première page des
+     *   utilisateurs GitHub suivis par un utilisateur spécifique en utilisant Retrofit et RxJava. Les pages
+     *   suivantes sont chargées par le `FollowingPager` au fil du défilement.
      */
     private void executeHttpRequestWithRetrofit() {
-        this.disposable = GithubStreams.streamFetchUserFollowing("JakeWharton").subscribeWith(new DisposableObserver<List<GithubUser>>() {
-            @Override
-            public void onNext(List<GithubUser> users) {
-                updateUI(users);
-            }
+        if (pager == null) pager = new FollowingPager(USERNAME, this);
+        pager.refresh();
+    }
 
-            @Override
-            public void onError(Throwable e) { }
+    /** - `loadStoredUsers()`: Affiche immédiatement la dernière liste enregistrée dans la base locale, lue sur un
+     *   thread de fond. Elle est ignorée si le réseau a déjà répondu.
+     */
+    private void loadStoredUsers() {
+        disposables.add(GithubStreams.streamLoadStoredFollowing(USERNAME)
+                .subscribe(users -> {
+                    if (githubUsers.isEmpty() && !users.isEmpty()) {
+                        submitUsers(new ArrayList<>(users));
+                        enrichUsers(users);
+                    }
+                }, error -> { }));
+    }
 
-            @Override
-            public void onComplete() { }
-        });
+    /** - `loadFollowerIds()`: Récupère les identifiants des abonnés du compte affiché pour signaler, sur chaque ligne,
+     *   les utilisateurs qui le suivent en retour. Un échec laisse simplement les badges masqués, de même qu'une liste
+     *   d'abonnés trop longue pour être lue entièrement (un ensemble tronqué afficherait de faux « ne suit pas »).
+     */
+    private void loadFollowerIds() {
+        followersDisposable = GithubStreams.streamFetchFollowerIds(USERNAME)
+                .subscribe(ids -> adapter.setFollowerIds(ids), error -> { });
+    }
+
+    /** - `onPageLoaded(List<GithubUser> users, boolean firstPage)`: Appelée à la réception d'une page. La première
+     *   page remplace la liste affichée, les suivantes y sont ajoutées. Au premier lancement, la première page arrive
+     *   par lots pendant son téléchargement : les lots suivants sont ajoutés comme des pages.
+     */
+    @Override
+    public void onPageLoaded(List<GithubUser> users, boolean firstPage) {
+        if (firstPage) {
+            disposables.clear();
+            updateUI(users);
+        } else {
+            appendToUI(users);
+        }
+        enrichUsers(users);
+    }
+
+    /** - `onFollowingChanged(List<GithubUser> users)`: Appelée lorsque la synchronisation a modifié la liste stockée.
+     *   La nouvelle liste remplace celle affichée (seules les lignes modifiées sont rafraîchies).
+     */
+    private void onFollowingChanged(List<GithubUser> users) {
+        submitUsers(new ArrayList<>(users));
+        enrichUsers(users);
+    }
+
+    /** - `enrichUsers(List<GithubUser> users)`: Récupère en parallèle (concurrence bornée) les informations détaillées
+     *   des utilisateurs reçus et rafraîchit chaque ligne dès que ses compteurs arrivent. Le nom, l'entreprise et la
+     *   localisation reçus sont ajoutés à l'index de recherche ; la recherche locale en cours n'est refiltrée qu'une fois
+     *   par lot de `SEARCH_REFRESH_MILLIS` ms, et non à chaque utilisateur. Les échecs individuels sont ignorés.
+     */
+    private void enrichUsers(List<GithubUser> users) {
+        disposables.add(GithubStreams.streamFetchUsersInfos(users)
+                .doOnNext(info -> {
+                    searchIndex.update(info);
+                    adapter.notifyUserInfoChanged(info);
+                })
+                .buffer(SEARCH_REFRESH_MILLIS, TimeUnit.MILLISECONDS)
+                .filter(batch -> !batch.isEmpty())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(batch -> {
+                    if (!searchQuery.isEmpty() && !remoteSearch) searchQueries.onNext(searchQuery);
+                }, error -> { }));
+    }
+
+    /** - `onPageError(Throwable error)`: Appelée en cas d'échec du chargement d'une page, une fois les nouvelles
+     *   tentatives épuisées et sans liste stockée à afficher. Arrête l'animation de rafraîchissement et informe
+     *   l'utilisateur.
+     */
+    @Override
+    public void onPageError(Throwable error) {
+        if (binding != null) binding.fragmentMainSwipeContainer.setRefreshing(false);
+        if (error instanceof HttpException) {
+            Toast.makeText(getContext(), "Error: " + ((HttpException) error).message(), Toast.LENGTH_SHORT).show();
+        } else {
+            Toast.makeText(getContext(), "Network error: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    /** - `onSearchError(Throwable error)`: Informe l'utilisateur de l'échec d'une recherche distante, par exemple
+     *   lorsque le quota de l'API de recherche est épuisé (le délai avant sa réinitialisation est alors indiqué). La liste
+     *   affichée reste inchangée.
+     */
+    private void onSearchError(Throwable error) {
+        if (error instanceof RateLimitScheduler.RateLimitedException) {
+            long seconds = Math.max(1, (((RateLimitScheduler.RateLimitedException) error).getResetEpochMillis()
+                    - System.currentTimeMillis()) / 1000);
+            Toast.makeText(getContext(), "Search limit reached, retry in " + seconds + " s", Toast.LENGTH_SHORT).show();
+        } else if (error instanceof HttpException) {
+            Toast.makeText(getContext(), "Search error: " + ((HttpException) error).message(), Toast.LENGTH_SHORT).show();
+        } else {
+            Toast.makeText(getContext(), "Network error: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    /** - `disposeWhenDestroyView()`: Libère les abonnements liés à la vue : recherche, abonnés, pages et
+     *   informations détaillées en cours de chargement.
+     */
+    private void disposeWhenDestroyView() {
+        if (pager != null) pager.dispose();
+        if (followersDisposable != null) followersDisposable.dispose();
+        if (searchDisposable != null) searchDisposable.dispose();
+        disposables.clear();
     }
 
     /** - `disposeWhenDestroy()`: Libère les ressources associées aux abonnements RxJava lorsque le fragment
      *   est détruit.
      */
     private void disposeWhenDestroy() {
-        if (disposable != null && !disposable.isDisposed()) disposable.dispose();
+        disposables.dispose();
     }
 
     // -------------------
@@ -154,12 +370,42 @@ public class MainFragment extends Fragment implements GithubUserAdapter.Listener
     // -------------------
 
     /** - `updateUI(List<GithubUser> users)`: Met à jour l'interface utilisateur avec les utilisateurs GitHub
-     *   récupérés, met à jour l'adaptateur et arrête l'animation de rafraîchissement.
+     *   récupérés, transmet la nouvelle liste à l'adaptateur (seules les lignes modifiées sont rafraîchies) et
+     *   arrête l'animation de rafraîchissement.
      */
     private void updateUI(List<GithubUser> users) {
-        githubUsers.clear();
-        githubUsers.addAll(users);
-        adapter.notifyDataSetChanged();
+        submitUsers(new ArrayList<>(users));
         binding.fragmentMainSwipeContainer.setRefreshing(false);
     }
+
+    /** - `appendToUI(List<GithubUser> users)`: Ajoute une nouvelle page d'utilisateurs à la fin de la liste ;
+     *   le calcul de différence ne notifie que les éléments insérés. Les utilisateurs déjà affichés (décalés d'une
+     *   page à l'autre depuis une synchronisation) ne sont pas ajoutés une seconde fois.
+     */
+    private void appendToUI(List<GithubUser> users) {
+        List<GithubUser> updated = new ArrayList<>(githubUsers.size() + users.size());
+        Set<Integer> shown = new HashSet<>();
+        for (GithubUser user : githubUsers) {
+            updated.add(user);
+            shown.add(user.getId());
+        }
+        for (GithubUser user : users) {
+            if (shown.add(user.getId())) updated.add(user);
+        }
+        submitUsers(updated);
+    }
+
+    /** - `submitUsers(List<GithubUser> users)`: Remplace la liste de référence, indexe les nouveaux utilisateurs pour la
+     *   recherche locale et transmet la liste (filtrée si une recherche locale est en cours) à l'adaptateur. Une nouvelle instance
+     *   est créée à chaque changement, car une liste transmise à `submitList` ne doit plus être modifiée.
+     */
+    private void submitUsers(List<GithubUser> users) {
+        githubUsers = users;
+        searchIndex.addAll(users);
+        if (searchQuery.isEmpty()) {
+            adapter.submitList(users);
+        } else if (!remoteSearch) {
+            searchQueries.onNext(searchQuery);
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.openclassrooms.netapp.Models;
+
+/**
+ * Construit les URL d'un utilisateur GitHub à partir de son login.
+ * <p>
+ * L'API renvoie pour chaque utilisateur une quinzaine d'URL qui suivent toutes le même modèle
+ * ({@code https://api.github.com/users/{login}/...}). Les modèles ne les stockent pas et les
+ * recalculent avec cette classe lorsqu'elles sont lues.
+ * </p>
+ */
+final class GithubUrls {
+
+    private static final String HTML_BASE_URL = "https://github.com/";
+    private static final String API_USERS_URL = "https://api.github.com/users/";
+
+    private GithubUrls() { }
+
+    // Page de profil sur github.com
+    static String htmlUrl(String login) {
+        return login != null ? HTML_BASE_URL + login : null;
+    }
+
+    // Ressource utilisateur de l'API
+    static String apiUrl(String login) {
+        return login != null ? API_USERS_URL + login : null;
+    }
+
+    // Sous-ressource de l'utilisateur (followers, following, repos...)
+    static String apiUrl(String login, String resource) {
+        return login != null ? API_USERS_URL + login + "/" + resource : null;
+    }
+}
@@ -7,9 +7,10 @@ import com.google.gson.annotations.SerializedName;
  * Modèle représentant un utilisateur GitHub.
  *
  * Cette classe est utilisée pour la désérialisation des données JSON
- * reçues de l'API GitHub concernant les utilisateurs. Elle contient
- * les attributs nécessaires pour stocker les informations pertinentes
- * sur un utilisateur GitHub.
+ * reçues de l'API GitHub concernant les utilisateurs. Elle ne contient que
+ * les attributs affichés dans la liste : les autres champs de la réponse
+ * sont ignorés dès le parsing, et les URL dérivées du login sont calculées
+ * à la demande.
  */
 public class GithubUser {
 
@@ -22,48 +23,9 @@ public class GithubUser {
     @SerializedName("avatar_url")
     @Expose
     private String avatarUrl;
-    @SerializedName("gravatar_id")
-    @Expose
-    private String gravatarId;
-    @SerializedName("url")
-    @Expose
-    private String url;
-    @SerializedName("html_url")
-    @Expose
-    private String htmlUrl;
-    @SerializedName("followers_url")
-    @Expose
-    private String followersUrl;
-    @SerializedName("following_url")
-    @Expose
-    private String followingUrl;
-    @SerializedName("gists_url")
-    @Expose
-    private String gistsUrl;
-    @SerializedName("starred_url")
-    @Expose
-    private String starredUrl;
-    @SerializedName("subscriptions_url")
-    @Expose
-    private String subscriptionsUrl;
-    @SerializedName("organizations_url")
-    @Expose
-    private String organizationsUrl;
-    @SerializedName("repos_url")
-    @Expose
-    private String reposUrl;
-    @SerializedName("events_url")
-    @Expose
-    private String eventsUrl;
-    @SerializedName("received_events_url")
-    @Expose
-    private String receivedEventsUrl;
     @SerializedName("type")
     @Expose
     private String type;
-    @SerializedName("site_admin")
-    @Expose
-    private Boolean siteAdmin;
 
     public String getLogin() {
         return login;
@@ -89,116 +51,37 @@ public class GithubUser {
         this.avatarUrl = avatarUrl;
     }
 
-    public String getGravatarId() {
-        return gravatarId;
-    }
-
-    public void setGravatarId(String gravatarId) {
-        this.gravatarId = gravatarId;
+    public String getType() {
+        return type;
     }
 
-    public String getUrl() {
-        return url;
+    public void setType(String type) {
+        this.type = type;
     }
 
-    public void setUrl(String url) {
-        this.url = url;
-    }
+    // -------------------
+    // URL DÉRIVÉES
+    // -------------------
+    // Les URL de l'API sont toutes construites à partir du login : elles ne sont pas désérialisées
+    // mais calculées à la demande, pour ne pas garder une dizaine de chaînes par ligne en mémoire.
 
     public String getHtmlUrl() {
-        return htmlUrl;
+        return GithubUrls.htmlUrl(login);
     }
 
-    public void setHtmlUrl(String htmlUrl) {
-        this.htmlUrl = htmlUrl;
+    public String getUrl() {
+        return GithubUrls.apiUrl(login);
     }
 
     public String getFollowersUrl() {
-        return followersUrl;
-    }
-
-    public void setFollowersUrl(String followersUrl) {
-        this.followersUrl = followersUrl;
+        return GithubUrls.apiUrl(login, "followers");
     }
 
     public String getFollowingUrl() {
-        return followingUrl;
-    }
-
-    public void setFollowingUrl(String followingUrl) {
-        this.followingUrl = followingUrl;
-    }
-
-    public String getGistsUrl() {
-        return gistsUrl;
-    }
-
-    public void setGistsUrl(String gistsUrl) {
-        this.gistsUrl = gistsUrl;
-    }
-
-    public String getStarredUrl() {
-        return starredUrl;
-    }
-
-    public void setStarredUrl(String starredUrl) {
-        this.starredUrl = starredUrl;
-    }
-
-    public String getSubscriptionsUrl() {
-        return subscriptionsUrl;
-    }
-
-    public void setSubscriptionsUrl(String subscriptionsUrl) {
-        this.subscriptionsUrl = subscriptionsUrl;
-    }
-
-    public String getOrganizationsUrl() {
-        return organizationsUrl;
-    }
-
-    public void setOrganizationsUrl(String organizationsUrl) {
-        this.organizationsUrl = organizationsUrl;
+        return GithubUrls.apiUrl(login, "following");
     }
 
     public String getReposUrl() {
-        return reposUrl;
-    }
-
-    public void setReposUrl(String reposUrl) {
-        this.reposUrl = reposUrl;
-    }
-
-    public String getEventsUrl() {
-        return eventsUrl;
-    }
-
-    public void setEventsUrl(String eventsUrl) {
-        this.eventsUrl = eventsUrl;
-    }
-
-    public String getReceivedEventsUrl() {
-        return receivedEventsUrl;
-    }
-
-    public void setReceivedEventsUrl(String receivedEventsUrl) {
-        this.receivedEventsUrl = receivedEventsUrl;
-    }
-
-    public String getType() {
-        return type;
-    }
-
-    public void setType(String type) {
-        this.type = type;
-    }
-
-    public Boolean getSiteAdmin() {
-        return siteAdmin;
-    }
-
-    public void setSiteAdmin(Boolean siteAdmin) {
-        this.siteAdmin = siteAdmin;
+        return GithubUrls.apiUrl(login, "repos");
     }
-
-}
\ No newline at end of file
+}
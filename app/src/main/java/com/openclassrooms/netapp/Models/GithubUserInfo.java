@@ -7,10 +7,11 @@ import com.google.gson.annotations.SerializedName;
  * Représente les informations détaillées d'un utilisateur GitHub.
  *
  * Cette classe est utilisée pour la désérialisation des données JSON
- * reçues de l'API GitHub concernant les utilisateurs. Elle contient des
- * attributs qui fournissent des détails approfondis sur un utilisateur,
- * tels que les informations personnelles, les URL de leurs ressources
- * et leurs statistiques d'activité.
+ * reçues de l'API GitHub concernant les utilisateurs. Elle ne conserve que
+ * les attributs affichés par l'écran de détail et la liste (identité,
+ * informations personnelles et statistiques d'activité) ; les autres champs
+ * de la réponse sont ignorés dès le parsing, et les URL dérivées du login
+ * sont calculées à la demande.
  */
 public class GithubUserInfo {
 
@@ -23,87 +24,27 @@ public class GithubUserInfo {
     @SerializedName("avatar_url")
     @Expose
     private String avatarUrl;
-    @SerializedName("gravatar_id")
-    @Expose
-    private String gravatarId;
-    @SerializedName("url")
-    @Expose
-    private String url;
-    @SerializedName("html_url")
-    @Expose
-    private String htmlUrl;
-    @SerializedName("followers_url")
-    @Expose
-    private String followersUrl;
-    @SerializedName("following_url")
-    @Expose
-    private String followingUrl;
-    @SerializedName("gists_url")
-    @Expose
-    private String gistsUrl;
-    @SerializedName("starred_url")
-    @Expose
-    private String starredUrl;
-    @SerializedName("subscriptions_url")
-    @Expose
-    private String subscriptionsUrl;
-    @SerializedName("organizations_url")
-    @Expose
-    private String organizationsUrl;
-    @SerializedName("repos_url")
-    @Expose
-    private String reposUrl;
-    @SerializedName("events_url")
-    @Expose
-    private String eventsUrl;
-    @SerializedName("received_events_url")
-    @Expose
-    private String receivedEventsUrl;
     @SerializedName("type")
     @Expose
     private String type;
-    @SerializedName("site_admin")
-    @Expose
-    private Boolean siteAdmin;
     @SerializedName("name")
     @Expose
     private String name;
     @SerializedName("company")
     @Expose
     private String company;
-    @SerializedName("blog")
-    @Expose
-    private String blog;
     @SerializedName("location")
     @Expose
     private String location;
-    @SerializedName("email")
-    @Expose
-    private String email;
-    @SerializedName("hireable")
-    @Expose
-    private Boolean hireable;
-    @SerializedName("bio")
-    @Expose
-    private String bio;
     @SerializedName("public_repos")
     @Expose
     private Integer publicRepos;
-    @SerializedName("public_gists")
-    @Expose
-    private Integer publicGists;
     @SerializedName("followers")
     @Expose
     private Integer followers;
     @SerializedName("following")
     @Expose
     private Integer following;
-    @SerializedName("created_at")
-    @Expose
-    private String createdAt;
-    @SerializedName("updated_at")
-    @Expose
-    private String updatedAt;
 
     public String getLogin() {
         return login;
@@ -129,102 +70,6 @@ public class GithubUserInfo {
         this.avatarUrl = avatarUrl;
     }
 
-    public String getGravatarId() {
-        return gravatarId;
-    }
-
-    public void setGravatarId(String gravatarId) {
-        this.gravatarId = gravatarId;
-    }
-
-    public String getUrl() {
-        return url;
-    }
-
-    public void setUrl(String url) {
-        this.url = url;
-    }
-
-    public String getHtmlUrl() {
-        return htmlUrl;
-    }
-
-    public void setHtmlUrl(String htmlUrl) {
-        this.htmlUrl = htmlUrl;
-    }
-
-    public String getFollowersUrl() {
-        return followersUrl;
-    }
-
-    public void setFollowersUrl(String followersUrl) {
-        this.followersUrl = followersUrl;
-    }
-
-    public String getFollowingUrl() {
-        return followingUrl;
-    }
-
-    public void setFollowingUrl(String followingUrl) {
-        this.followingUrl = followingUrl;
-    }
-
-    public String getGistsUrl() {
-        return gistsUrl;
-    }
-
-    public void setGistsUrl(String gistsUrl) {
-        this.gistsUrl = gistsUrl;
-    }
-
-    public String getStarredUrl() {
-        return starredUrl;
-    }
-
-    public void setStarredUrl(String starredUrl) {
-        this.starredUrl = starredUrl;
-    }
-
-    public String getSubscriptionsUrl() {
-        return subscriptionsUrl;
-    }
-
-    public void setSubscriptionsUrl(String subscriptionsUrl) {
-        this.subscriptionsUrl = subscriptionsUrl;
-    }
-
-    public String getOrganizationsUrl() {
-        return organizationsUrl;
-    }
-
-    public void setOrganizationsUrl(String organizationsUrl) {
-        this.organizationsUrl = organizationsUrl;
-    }
-
-    public String getReposUrl() {
-        return reposUrl;
-    }
-
-    public void setReposUrl(String reposUrl) {
-        this.reposUrl = reposUrl;
-    }
-
-    public String getEventsUrl() {
-        return eventsUrl;
-    }
-
-    public void setEventsUrl(String eventsUrl) {
-        this.eventsUrl = eventsUrl;
-    }
-
-    public String getReceivedEventsUrl() {
-        return receivedEventsUrl;
-    }
-
-    public void setReceivedEventsUrl(String receivedEventsUrl) {
-        this.receivedEventsUrl = receivedEventsUrl;
-    }
-
     public String getType() {
         return type;
     }
@@ -233,14 +78,6 @@ public class GithubUserInfo {
         this.type = type;
     }
 
-    public Boolean getSiteAdmin() {
-        return siteAdmin;
-    }
-
-    public void setSiteAdmin(Boolean siteAdmin) {
-        this.siteAdmin = siteAdmin;
-    }
-
     public String getName() {
         return name;
     }
@@ -257,14 +94,6 @@ public class GithubUserInfo {
         this.company = company;
     }
 
-    public String getBlog() {
-        return blog;
-    }
-
-    public void setBlog(String blog) {
-        this.blog = blog;
-    }
-
     public String getLocation() {
         return location;
     }
@@ -273,30 +102,6 @@ public class GithubUserInfo {
         this.location = location;
     }
 
-    public String getEmail() {
-        return email;
-    }
-
-    public void setEmail(String email) {
-        this.email = email;
-    }
-
-    public Boolean getHireable() {
-        return hireable;
-    }
-
-    public void setHireable(Boolean hireable) {
-        this.hireable = hireable;
-    }
-
-    public String getBio() {
-        return bio;
-    }
-
-    public void setBio(String bio) {
-        this.bio = bio;
-    }
-
     public Integer getPublicRepos() {
         return publicRepos;
     }
@@ -305,14 +110,6 @@ public class GithubUserInfo {
         this.publicRepos = publicRepos;
     }
 
-    public Integer getPublicGists() {
-        return publicGists;
-    }
-
-    public void setPublicGists(Integer publicGists) {
-        this.publicGists = publicGists;
-    }
-
     public Integer getFollowers() {
         return followers;
     }
@@ -329,20 +126,29 @@ public class GithubUserInfo {
         this.following = following;
     }
 
-    public String getCreatedAt() {
-        return createdAt;
+    // -------------------
+    // URL DÉRIVÉES
+    // -------------------
+    // Les URL de l'API sont toutes construites à partir du login : elles ne sont pas désérialisées
+    // mais calculées à la demande, pour ne pas garder une dizaine de chaînes par ligne en mémoire.
+
+    public String getHtmlUrl() {
+        return GithubUrls.htmlUrl(login);
     }
 
-    public void setCreatedAt(String createdAt) {
-        this.createdAt = createdAt;
+    public String getUrl() {
+        return GithubUrls.apiUrl(login);
     }
 
-    public String getUpdatedAt() {
-        return updatedAt;
+    public String getFollowersUrl() {
+        return GithubUrls.apiUrl(login, "followers");
     }
 
-    public void setUpdatedAt(String updatedAt) {
-        this.updatedAt = updatedAt;
+    public String getFollowingUrl() {
+        return GithubUrls.apiUrl(login, "following");
     }
 
+    public String getReposUrl() {
+        return GithubUrls.apiUrl(login, "repos");
+    }
 }
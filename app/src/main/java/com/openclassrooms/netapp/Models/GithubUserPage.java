@@ -0,0 +1,32 @@
+package com.openclassrooms.netapp.Models;
+
+import java.util.List;
+
+/**
+ * Page d'utilisateurs GitHub renvoyée par un endpoint paginé.
+ *
+ * Cette classe regroupe les utilisateurs d'une page et l'URL de la page suivante,
+ * extraite de l'en-tête {@code Link}. Une URL nulle signifie que la liste est terminée.
+ */
+public class GithubUserPage {
+
+    private final List<GithubUser> users;
+    private final String nextUrl;
+
+    public GithubUserPage(List<GithubUser> users, String nextUrl) {
+        this.users = users;
+        this.nextUrl = nextUrl;
+    }
+
+    public List<GithubUser> getUsers() {
+        return users;
+    }
+
+    public String getNextUrl() {
+        return nextUrl;
+    }
+
+    public boolean hasNext() {
+        return nextUrl != null;
+    }
+}
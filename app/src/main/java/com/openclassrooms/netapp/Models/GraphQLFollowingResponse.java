@@ -0,0 +1,182 @@
+package com.openclassrooms.netapp.Models;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Réponse de l'API GraphQL de GitHub à la requête des utilisateurs suivis.
+ *
+ * La structure reprend celle de la requête : {@code data.user.following} contient une page
+ * d'utilisateurs avec, pour chacun, les champs affichés par l'application (compteurs compris).
+ * En cas d'échec, GitHub répond en 200 avec une liste d'erreurs et des données absentes.
+ */
+public class GraphQLFollowingResponse {
+
+    @SerializedName("data")
+    @Expose
+    private Data data;
+    @SerializedName("errors")
+    @Expose
+    private List<Error> errors;
+
+    public Data getData() {
+        return data;
+    }
+
+    public List<Error> getErrors() {
+        return errors;
+    }
+
+    public static class Data {
+        @SerializedName("user")
+        @Expose
+        private User user;
+
+        public User getUser() {
+            return user;
+        }
+    }
+
+    public static class User {
+        @SerializedName("following")
+        @Expose
+        private Following following;
+
+        public Following getFollowing() {
+            return following;
+        }
+    }
+
+    public static class Following {
+        @SerializedName("pageInfo")
+        @Expose
+        private PageInfo pageInfo;
+        @SerializedName("nodes")
+        @Expose
+        private List<Node> nodes;
+
+        public PageInfo getPageInfo() {
+            return pageInfo;
+        }
+
+        public List<Node> getNodes() {
+            return nodes;
+        }
+    }
+
+    public static class PageInfo {
+        @SerializedName("hasNextPage")
+        @Expose
+        private boolean hasNextPage;
+        @SerializedName("endCursor")
+        @Expose
+        private String endCursor;
+
+        public boolean hasNextPage() {
+            return hasNextPage;
+        }
+
+        public String getEndCursor() {
+            return endCursor;
+        }
+    }
+
+    /**
+     * Utilisateur suivi, avec les champs de {@link GithubUserInfo} sous leurs noms GraphQL.
+     */
+    public static class Node {
+        @SerializedName("__typename")
+        @Expose
+        private String typename;
+        @SerializedName("login")
+        @Expose
+        private String login;
+        @SerializedName("databaseId")
+        @Expose
+        private Integer databaseId;
+        @SerializedName("avatarUrl")
+        @Expose
+        private String avatarUrl;
+        @SerializedName("name")
+        @Expose
+        private String name;
+        @SerializedName("company")
+        @Expose
+        private String company;
+        @SerializedName("location")
+        @Expose
+        private String location;
+        @SerializedName("followers")
+        @Expose
+        private Count followers;
+        @SerializedName("following")
+        @Expose
+        private Count following;
+        @SerializedName("repositories")
+        @Expose
+        private Count repositories;
+
+        public String getTypename() {
+            return typename;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        // Identifiant numérique, le même que le champ id de l'API REST
+        public Integer getDatabaseId() {
+            return databaseId;
+        }
+
+        public String getAvatarUrl() {
+            return avatarUrl;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCompany() {
+            return company;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public Count getFollowers() {
+            return followers;
+        }
+
+        public Count getFollowing() {
+            return following;
+        }
+
+        public Count getRepositories() {
+            return repositories;
+        }
+    }
+
+    public static class Count {
+        @SerializedName("totalCount")
+        @Expose
+        private Integer totalCount;
+
+        public Integer getTotalCount() {
+            return totalCount;
+        }
+    }
+
+    public static class Error {
+        @SerializedName("message")
+        @Expose
+        private String message;
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.openclassrooms.netapp.Models;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Map;
+
+/**
+ * Corps d'une requête envoyée à l'API GraphQL de GitHub.
+ *
+ * La requête est un texte constant ; les valeurs qui changent d'un appel à l'autre
+ * (login, curseur de pagination...) sont passées dans les variables.
+ */
+public class GraphQLRequest {
+
+    @SerializedName("query")
+    @Expose
+    private final String query;
+    @SerializedName("variables")
+    @Expose
+    private final Map<String, Object> variables;
+
+    public GraphQLRequest(String query, Map<String, Object> variables) {
+        this.query = query;
+        this.variables = variables;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public Map<String, Object> getVariables() {
+        return variables;
+    }
+}
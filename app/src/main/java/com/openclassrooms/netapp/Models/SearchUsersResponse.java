@@ -0,0 +1,49 @@
+package com.openclassrooms.netapp.Models;
+
+import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Représente la réponse de l'endpoint de recherche d'utilisateurs de l'API GitHub.
+ *
+ * Les utilisateurs trouvés sont désérialisés dans le même modèle que les listes
+ * d'abonnements, ce qui permet de les afficher avec le même adaptateur.
+ */
+public class SearchUsersResponse {
+
+    @SerializedName("total_count")
+    @Expose
+    private Integer totalCount;
+    @SerializedName("incomplete_results")
+    @Expose
+    private Boolean incompleteResults;
+    @SerializedName("items")
+    @Expose
+    private List<GithubUser> items;
+
+    public Integer getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(Integer totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public Boolean getIncompleteResults() {
+        return incompleteResults;
+    }
+
+    public void setIncompleteResults(Boolean incompleteResults) {
+        this.incompleteResults = incompleteResults;
+    }
+
+    public List<GithubUser> getItems() {
+        return items;
+    }
+
+    public void setItems(List<GithubUser> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,38 @@
+package com.openclassrooms.netapp;
+
+import android.app.Application;
+
+import com.openclassrooms.netapp.Database.GithubUserDao;
+import com.openclassrooms.netapp.Utils.GithubClient;
+import com.openclassrooms.netapp.Utils.SecureTokenStore;
+
+/**
+ * Classe Application de NetApp.
+ *
+ * Elle initialise, au démarrage du processus, les composants partagés par tous les écrans,
+ * comme le client HTTP GitHub et son cache disque, ou la base de données locale.
+ */
+public class NetApp extends Application {
+
+    /**`onCreate()`: Méthode appelée à la création du processus, avant toute activité. Elle initialise
+     *   le client `GithubClient` avec le répertoire de cache de l'application, ainsi que l'accès à la base locale.
+     *   Le jeton d'accès fourni au build (`github.token` dans `local.properties`) est enregistré dans le stockage
+     *   chiffré : les appels sont alors authentifiés, avec le quota et la source GraphQL associés.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        GithubClient.init(this);
+        GithubUserDao.init(this);
+        saveBuildToken();
+    }
+
+    // Enregistre le jeton du build s'il est défini et diffère du jeton stocké
+    private static void saveBuildToken() {
+        SecureTokenStore tokenStore = GithubClient.getInstance().getTokenStore();
+        String token = BuildConfig.GITHUB_TOKEN;
+        if (tokenStore != null && !token.isEmpty() && !token.equals(tokenStore.getToken())) {
+            tokenStore.saveToken(token);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Intercepteur qui ajoute le jeton d'authentification GitHub à chaque requête vers l'API.
+ * <p>
+ * Un appel authentifié (jeton d'accès personnel ou OAuth) dispose d'un quota de 5000 requêtes par
+ * heure au lieu de 60. Le jeton n'est envoyé qu'à l'hôte de l'API, jamais à un autre domaine, et
+ * une requête qui porte déjà un en-tête {@code Authorization} n'est pas modifiée.
+ * </p>
+ */
+public class AuthInterceptor implements Interceptor {
+
+    /**
+     * Source du jeton, lue à chaque requête pour prendre en compte une connexion ou une déconnexion.
+     */
+    public interface TokenProvider {
+        /**
+         * @return Le jeton courant, ou null pour un appel anonyme.
+         */
+        String getToken();
+    }
+
+    private final String apiHost;
+    private final TokenProvider tokenProvider;
+
+    /**
+     * @param apiHost Hôte de l'API auquel le jeton peut être envoyé.
+     * @param tokenProvider Source du jeton.
+     */
+    public AuthInterceptor(String apiHost, TokenProvider tokenProvider) {
+        this.apiHost = apiHost;
+        this.tokenProvider = tokenProvider;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String token = tokenProvider.getToken();
+        if (token == null || token.isEmpty()
+                || request.header("Authorization") != null
+                || !request.url().host().equalsIgnoreCase(apiHost)) {
+            return chain.proceed(request);
+        }
+        return chain.proceed(request.newBuilder()
+                .header("Authorization", "Bearer " + token)
+                .build());
+    }
+}
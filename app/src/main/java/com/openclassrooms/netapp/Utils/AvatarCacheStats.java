@@ -0,0 +1,78 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compte l'origine de chaque avatar affiché : cache mémoire, cache disque ou réseau.
+ * <p>
+ * Les compteurs sont alimentés par l'{@code AvatarLoader} à chaque image chargée et permettent de
+ * suivre les taux de succès des caches d'images, par exemple après un changement de taille ou
+ * d'options qui modifierait les clés de cache.
+ * </p>
+ */
+public class AvatarCacheStats {
+
+    private final AtomicLong memoryHitCount = new AtomicLong();
+    private final AtomicLong diskHitCount = new AtomicLong();
+    private final AtomicLong networkCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    public void recordMemoryHit() {
+        memoryHitCount.incrementAndGet();
+    }
+
+    public void recordDiskHit() {
+        diskHitCount.incrementAndGet();
+    }
+
+    public void recordNetworkLoad() {
+        networkCount.incrementAndGet();
+    }
+
+    public void recordFailure() {
+        failureCount.incrementAndGet();
+    }
+
+    // Nombre d'avatars servis par le cache mémoire, sans décodage
+    public long getMemoryHitCount() {
+        return memoryHitCount.get();
+    }
+
+    // Nombre d'avatars lus depuis le cache disque
+    public long getDiskHitCount() {
+        return diskHitCount.get();
+    }
+
+    // Nombre d'avatars téléchargés
+    public long getNetworkCount() {
+        return networkCount.get();
+    }
+
+    // Nombre de chargements en échec
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    // Part des avatars chargés servie par le cache mémoire, entre 0 et 1
+    public double getMemoryHitRate() {
+        return rate(getMemoryHitCount());
+    }
+
+    // Part des avatars chargés servie par le cache disque, entre 0 et 1
+    public double getDiskHitRate() {
+        return rate(getDiskHitCount());
+    }
+
+    private double rate(long count) {
+        long total = getMemoryHitCount() + getDiskHitCount() + getNetworkCount();
+        return total == 0 ? 0 : (double) count / total;
+    }
+
+    @Override
+    public String toString() {
+        return "AvatarCacheStats{memory=" + getMemoryHitCount()
+                + ", disk=" + getDiskHitCount()
+                + ", network=" + getNetworkCount()
+                + ", failed=" + getFailureCount() + "}";
+    }
+}
@@ -0,0 +1,45 @@
+package com.openclassrooms.netapp.Utils;
+
+/**
+ * Construit les URL d'avatars GitHub redimensionnés par le serveur.
+ * <p>
+ * Le serveur d'avatars de GitHub accepte un paramètre {@code s} donnant la taille du côté en
+ * pixels : demander directement une vignette à la taille de la vue évite de télécharger puis de
+ * décoder l'image en pleine résolution (460 px) pour l'afficher en 50 dp.
+ * </p>
+ */
+public class AvatarUrls {
+
+    // Taille maximale servie par GitHub
+    private static final int MAX_SIZE_PX = 460;
+
+    private AvatarUrls() { }
+
+    /**
+     * Ajoute ou remplace le paramètre de taille d'une URL d'avatar.
+     *
+     * @param avatarUrl URL renvoyée par l'API (champ {@code avatar_url}), éventuellement null.
+     * @param sizePx Taille souhaitée en pixels.
+     * @return L'URL de la vignette, ou {@code avatarUrl} inchangée si elle est null ou la taille invalide.
+     */
+    public static String sized(String avatarUrl, int sizePx) {
+        if (avatarUrl == null || sizePx <= 0) return avatarUrl;
+        int size = Math.min(sizePx, MAX_SIZE_PX);
+
+        int fragment = avatarUrl.indexOf('#');
+        String url = fragment >= 0 ? avatarUrl.substring(0, fragment) : avatarUrl;
+        int query = url.indexOf('?');
+        if (query < 0) return url + "?s=" + size;
+
+        StringBuilder result = new StringBuilder(url.length() + 8).append(url, 0, query + 1);
+        boolean first = true;
+        for (String parameter : url.substring(query + 1).split("&")) {
+            if (parameter.isEmpty() || parameter.equals("s") || parameter.startsWith("s=")) continue;
+            if (!first) result.append('&');
+            result.append(parameter);
+            first = false;
+        }
+        if (!first) result.append('&');
+        return result.append("s=").append(size).toString();
+    }
+}
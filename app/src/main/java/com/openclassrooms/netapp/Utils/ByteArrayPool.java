@@ -0,0 +1,50 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.ArrayDeque;
+
+/**
+ * Réserve bornée de tampons d'octets de taille fixe, réutilisés d'une lecture à l'autre.
+ * <p>
+ * Lire chaque réponse dans un tampon neuf génère autant de déchets que d'octets reçus ; en
+ * rendant les tampons à la réserve après usage, le moteur réseau n'alloue plus qu'au démarrage.
+ * Les tampons rendus au-delà de la capacité sont abandonnés au ramasse-miettes.
+ * </p>
+ */
+public class ByteArrayPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<byte[]> buffers = new ArrayDeque<>();
+
+    /**
+     * @param bufferSize Taille de chaque tampon, en octets.
+     * @param maxPooled Nombre maximal de tampons conservés.
+     */
+    public ByteArrayPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * @return Un tampon de {@code bufferSize} octets, réutilisé si possible.
+     */
+    public synchronized byte[] acquire() {
+        byte[] buffer = buffers.pollFirst();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    /**
+     * Rend un tampon obtenu par {@link #acquire()}.
+     *
+     * @param buffer Tampon qui ne doit plus être utilisé par l'appelant.
+     */
+    public synchronized void release(byte[] buffer) {
+        if (buffer.length == bufferSize && buffers.size() < maxPooled) {
+            buffers.offerFirst(buffer);
+        }
+    }
+
+    public synchronized int size() {
+        return buffers.size();
+    }
+}
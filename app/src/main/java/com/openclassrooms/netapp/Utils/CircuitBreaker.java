@@ -0,0 +1,111 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.io.IOException;
+
+/**
+ * Disjoncteur protégeant un endpoint de l'API GitHub lorsqu'il est dégradé.
+ * <p>
+ * Fermé, il laisse passer les requêtes et compte les échecs consécutifs. Au-delà du seuil, il
+ * s'ouvre : les requêtes échouent immédiatement (ou sont servies depuis le cache par l'appelant)
+ * sans solliciter le réseau. Après le délai d'ouverture, il passe à demi-ouvert et laisse passer
+ * une seule requête d'essai : un succès le referme, un échec le rouvre.
+ * </p>
+ */
+public class CircuitBreaker {
+
+    /**
+     * État du disjoncteur.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Horloge monotone, remplaçable dans les tests.
+     */
+    public interface Clock {
+        long nowMillis();
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtMillis;
+    private boolean trialInFlight;
+
+    /**
+     * @param failureThreshold Nombre d'échecs consécutifs qui ouvre le disjoncteur.
+     * @param openDurationMillis Durée d'ouverture avant la requête d'essai.
+     * @param clock Horloge.
+     */
+    public CircuitBreaker(int failureThreshold, long openDurationMillis, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Indique si une requête peut partir. Lorsque le délai d'ouverture est écoulé, la requête
+     * autorisée est la requête d'essai de l'état demi-ouvert.
+     *
+     * @return true si la requête peut être envoyée.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.nowMillis() - openedAtMillis < openDurationMillis) return false;
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) return false;
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    // Le serveur a répondu normalement : le disjoncteur se referme
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    // La requête a échoué sans réponse exploitable : pas de réponse, erreur 5xx/429 ou corps illisible
+    public synchronized void recordFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtMillis = clock.nowMillis();
+        }
+    }
+
+    /**
+     * Libère la place de la requête d'essai lorsqu'elle est abandonnée (désabonnement) avant d'avoir
+     * obtenu un résultat : la requête suivante devient la nouvelle requête d'essai.
+     */
+    public synchronized void releaseTrial() {
+        if (state == State.HALF_OPEN) trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Erreur émise à la place d'une requête bloquée par un disjoncteur ouvert.
+     */
+    public static class OpenException extends IOException {
+        public OpenException(String endpoint) {
+            super("Circuit open for " + endpoint);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mesures réseau agrégées d'un endpoint de l'API GitHub.
+ * <p>
+ * Les durées sont en microsecondes et les tailles en octets. Les phases de connexion (DNS, TCP, TLS)
+ * ne sont enregistrées que pour les appels qui ouvrent une nouvelle connexion ; un appel servi par le
+ * cache n'enregistre que sa durée totale.
+ * </p>
+ */
+public class EndpointMetrics {
+
+    private final String endpoint;
+    private final LatencyHistogram dns = new LatencyHistogram();
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram tls = new LatencyHistogram();
+    private final LatencyHistogram timeToFirstByte = new LatencyHistogram();
+    private final LatencyHistogram bodyRead = new LatencyHistogram();
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram responseBytes = new LatencyHistogram();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong cacheHitCount = new AtomicLong();
+    private final AtomicLong conditionalHitCount = new AtomicLong();
+    private final AtomicLong networkCount = new AtomicLong();
+
+    public EndpointMetrics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    // Résolution DNS
+    public LatencyHistogram getDns() {
+        return dns;
+    }
+
+    // Établissement de la connexion TCP, TLS compris
+    public LatencyHistogram getConnect() {
+        return connect;
+    }
+
+    // Négociation TLS
+    public LatencyHistogram getTls() {
+        return tls;
+    }
+
+    // Entre la fin de l'envoi de la requête et la réception des en-têtes de la réponse
+    public LatencyHistogram getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    // Lecture du corps de la réponse
+    public LatencyHistogram getBodyRead() {
+        return bodyRead;
+    }
+
+    // Durée totale de l'appel
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    // Taille des corps reçus du réseau
+    public LatencyHistogram getResponseBytes() {
+        return responseBytes;
+    }
+
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    // Réponses servies par le cache sans aller sur le réseau
+    public long getCacheHitCount() {
+        return cacheHitCount.get();
+    }
+
+    // Réponses revalidées par un 304
+    public long getConditionalHitCount() {
+        return conditionalHitCount.get();
+    }
+
+    // Réponses téléchargées
+    public long getNetworkCount() {
+        return networkCount.get();
+    }
+
+    void recordFailure() {
+        failureCount.incrementAndGet();
+    }
+
+    void recordCacheHit() {
+        cacheHitCount.incrementAndGet();
+    }
+
+    void recordConditionalHit() {
+        conditionalHitCount.incrementAndGet();
+    }
+
+    void recordNetwork() {
+        networkCount.incrementAndGet();
+    }
+
+    public void reset() {
+        dns.reset();
+        connect.reset();
+        tls.reset();
+        timeToFirstByte.reset();
+        bodyRead.reset();
+        total.reset();
+        responseBytes.reset();
+        failureCount.set(0);
+        cacheHitCount.set(0);
+        conditionalHitCount.set(0);
+        networkCount.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return endpoint
+                + "\n  total(us)  " + total
+                + "\n  dns(us)    " + dns
+                + "\n  connect(us) " + connect
+                + "\n  tls(us)    " + tls
+                + "\n  ttfb(us)   " + timeToFirstByte
+                + "\n  body(us)   " + bodyRead
+                + "\n  bytes      " + responseBytes
+                + "\n  cache hit=" + getCacheHitCount()
+                + " conditional=" + getConditionalHitCount()
+                + " network=" + getNetworkCount()
+                + " failed=" + getFailureCount();
+    }
+}
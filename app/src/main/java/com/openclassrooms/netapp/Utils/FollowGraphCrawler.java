@@ -0,0 +1,336 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserPage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.BehaviorSubject;
+import io.reactivex.subjects.Subject;
+import io.reactivex.subjects.UnicastSubject;
+import retrofit2.Response;
+
+/**
+ * Parcours en largeur du graphe des abonnements GitHub, sur plusieurs niveaux.
+ * <p>
+ * Depuis un compte racine, le crawler lit la liste des utilisateurs suivis (toutes ses pages), puis celle
+ * de chacun d'eux, et ainsi de suite jusqu'à la profondeur demandée. Les comptes à explorer sont traités
+ * dans l'ordre de leur découverte avec au plus {@code maxConcurrency} comptes en cours à la fois, et chaque
+ * utilisateur est émis dès sa première découverte : les identifiants déjà vus sont gardés dans un
+ * {@link LongHashSet}.
+ * </p>
+ * <p>
+ * Chaque page demandée consomme une unité d'un budget global ; une fois le budget épuisé, le parcours
+ * se termine et les comptes restants sont conservés dans le {@link Checkpoint}. Le parcours peut être mis
+ * en pause ({@link #pause()}) : les requêtes en cours se terminent, les suivantes attendent
+ * {@link #resume()}. Une instance ne sert qu'à un seul parcours.
+ * </p>
+ * <p>
+ * L'échec de la lecture d'un compte (erreur réseau, réponse en erreur) n'interrompt pas le parcours : il est compté
+ * ({@link #getFailedCount()}, {@link #getLastError()}) et le compte reste parmi les comptes à explorer, relus à la reprise.
+ * </p>
+ */
+public class FollowGraphCrawler {
+
+    private final GithubClient client;
+    private final int maxDepth;
+    private final int maxConcurrency;
+    private final int requestBudget;
+
+    private final LongHashSet visited = new LongHashSet();
+    // Comptes découverts mais pas encore entièrement explorés, dans l'ordre du parcours
+    private final Set<Node> pending = new LinkedHashSet<>();
+    private final BehaviorSubject<Boolean> running = BehaviorSubject.createDefault(true);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private volatile Throwable lastError;
+    private String rootKey;
+
+    /**
+     * @param maxDepth Nombre de niveaux à explorer ; 1 ne lit que les abonnements du compte racine.
+     * @param maxConcurrency Nombre maximal de comptes explorés en même temps.
+     * @param requestBudget Nombre maximal de requêtes pour tout le parcours.
+     */
+    public FollowGraphCrawler(int maxDepth, int maxConcurrency, int requestBudget) {
+        this(GithubClient.getInstance(), maxDepth, maxConcurrency, requestBudget);
+    }
+
+    FollowGraphCrawler(GithubClient client, int maxDepth, int maxConcurrency, int requestBudget) {
+        this.client = client;
+        this.maxDepth = maxDepth;
+        this.maxConcurrency = maxConcurrency;
+        this.requestBudget = requestBudget;
+    }
+
+    /**
+     * Parcourt le graphe depuis un compte racine.
+     *
+     * @param rootLogin Login du compte racine.
+     * @return Un observable émettant chaque utilisateur découvert, sur un thread de fond, puis se terminant
+     * quand la profondeur maximale ou le budget est atteint.
+     */
+    public Observable<Discovery> crawl(String rootLogin) {
+        return crawl(new Checkpoint(rootLogin, new long[0], Collections.singletonList(new Node(rootLogin, 0)), 0, 0));
+    }
+
+    /**
+     * Reprend un parcours interrompu là où le point de reprise l'a laissé. Les utilisateurs déjà émis ne
+     * le sont pas une seconde fois ; les requêtes déjà faites sont déduites du budget et les échecs déjà
+     * comptés le restent.
+     *
+     * @param checkpoint Point de reprise obtenu avec {@link #checkpoint()}.
+     * @return Un observable émettant les utilisateurs découverts à partir de ce point.
+     */
+    public Observable<Discovery> crawl(Checkpoint checkpoint) {
+        return Observable.defer(() -> {
+            rootKey = Logins.key(checkpoint.getRootLogin());
+            synchronized (this) {
+                for (long id : checkpoint.getVisitedIds()) visited.add(id);
+            }
+            requestCount.set(checkpoint.getRequestCount());
+            failedCount.set(checkpoint.getFailedCount());
+
+            // File des comptes à explorer : flatMap les traite dans l'ordre d'arrivée, maxConcurrency à la fois
+            Subject<Node> queue = UnicastSubject.<Node>create().toSerialized();
+            AtomicInteger outstanding = new AtomicInteger(checkpoint.getPending().size());
+            for (Node node : checkpoint.getPending()) {
+                enqueue(queue, node);
+            }
+            if (checkpoint.getPending().isEmpty()) queue.onComplete();
+
+            return queue.flatMap(node -> expand(node)
+                    .doOnNext(discovery -> {
+                        if (discovery.getDepth() < maxDepth) {
+                            outstanding.incrementAndGet();
+                            enqueue(queue, new Node(discovery.getUser().getLogin(), discovery.getDepth()));
+                        }
+                    })
+                    .doFinally(() -> {
+                        if (outstanding.decrementAndGet() == 0) queue.onComplete();
+                    }), maxConcurrency);
+        });
+    }
+
+    public void pause() {
+        running.onNext(false);
+    }
+
+    public void resume() {
+        running.onNext(true);
+    }
+
+    public boolean isPaused() {
+        return !running.getValue();
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public synchronized int getVisitedCount() {
+        return visited.size();
+    }
+
+    // Nombre de comptes dont la lecture a échoué pendant ce parcours (le budget épuisé n'est pas un échec)
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    // Dernière erreur de lecture d'un compte, ou null
+    public Throwable getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Capture l'état du parcours pour le reprendre plus tard, par exemple après une pause. Les comptes dont
+     * l'exploration est en cours font partie des comptes restants : ils seront relus à la reprise.
+     *
+     * @return Le point de reprise.
+     */
+    public Checkpoint checkpoint() {
+        long[] ids;
+        synchronized (this) {
+            ids = visited.toSortedArray();
+        }
+        List<Node> remaining;
+        synchronized (pending) {
+            remaining = new ArrayList<>(pending);
+        }
+        return new Checkpoint(rootKey, ids, remaining, requestCount.get(), failedCount.get());
+    }
+
+    private void enqueue(Subject<Node> queue, Node node) {
+        synchronized (pending) {
+            pending.add(node);
+        }
+        queue.onNext(node);
+    }
+
+    // Lit toutes les pages d'abonnements d'un compte et émet les utilisateurs encore inconnus ; un compte dont la
+    // lecture échoue (erreur réseau, budget épuisé) reste dans les comptes à explorer du point de reprise, et
+    // l'échec est compté sauf s'il ne vient que du budget
+    private Observable<Discovery> expand(Node node) {
+        return fetchPage(node.login, () -> client.getGithubService().getFollowingPage(node.login, GithubStreams.FOLLOWING_PAGE_SIZE))
+                .concatMapIterable(GithubUserPage::getUsers)
+                .filter(this::markVisited)
+                .map(user -> new Discovery(user, node.depth + 1, node.login))
+                .doOnComplete(() -> {
+                    synchronized (pending) {
+                        pending.remove(node);
+                    }
+                })
+                .onErrorResumeNext(error -> {
+                    if (!(error instanceof BudgetExhaustedException)) {
+                        lastError = error;
+                        failedCount.incrementAndGet();
+                    }
+                    return Observable.empty();
+                });
+    }
+
+    // Attend que le parcours ne soit pas en pause, consomme une unité du budget puis lance la requête en priorité
+    // de fond ; enchaîne ensuite sur la page suivante éventuelle
+    private Observable<GithubUserPage> fetchPage(String key, Callable<Observable<Response<List<GithubUser>>>> request) {
+        return running.filter(open -> open).take(1)
+                .concatMap(open -> {
+                    if (requestCount.incrementAndGet() > requestBudget) {
+                        requestCount.decrementAndGet();
+                        return Observable.error(new BudgetExhaustedException());
+                    }
+                    return client.getRateLimitScheduler()
+                            .schedule("crawl/" + key, RateLimitScheduler.Priority.BACKGROUND, request.call())
+                            .subscribeOn(Schedulers.io());
+                })
+                .map(GithubStreams::toPage)
+                .concatMap(page -> page.hasNext()
+                        ? Observable.just(page).concatWith(fetchPage(page.getNextUrl(),
+                                () -> client.getGithubService().getFollowingPageAt(page.getNextUrl())))
+                        : Observable.just(page));
+    }
+
+    private synchronized boolean markVisited(GithubUser user) {
+        return user.getId() != null && user.getLogin() != null
+                && !Logins.key(user.getLogin()).equals(rootKey)
+                && visited.add(user.getId());
+    }
+
+    private static final class BudgetExhaustedException extends Exception { }
+
+    /**
+     * Utilisateur découvert pendant le parcours.
+     */
+    public static class Discovery {
+        private final GithubUser user;
+        private final int depth;
+        private final String followedBy;
+
+        Discovery(GithubUser user, int depth, String followedBy) {
+            this.user = user;
+            this.depth = depth;
+            this.followedBy = followedBy;
+        }
+
+        public GithubUser getUser() {
+            return user;
+        }
+
+        // Distance au compte racine : 1 pour les comptes qu'il suit directement
+        public int getDepth() {
+            return depth;
+        }
+
+        // Login du compte par lequel l'utilisateur a été découvert
+        public String getFollowedBy() {
+            return followedBy;
+        }
+    }
+
+    /**
+     * Compte à explorer, avec sa distance au compte racine.
+     */
+    public static final class Node {
+        private final String login;
+        private final int depth;
+
+        public Node(String login, int depth) {
+            this.login = login;
+            this.depth = depth;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Node)) return false;
+            Node other = (Node) o;
+            return depth == other.depth && Logins.key(login).equals(Logins.key(other.login));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Logins.key(login).hashCode() + depth;
+        }
+    }
+
+    /**
+     * État d'un parcours : identifiants déjà découverts, comptes restant à explorer, requêtes consommées et
+     * comptes dont la lecture a échoué.
+     */
+    public static final class Checkpoint {
+        private final String rootLogin;
+        private final long[] visitedIds;
+        private final List<Node> pending;
+        private final int requestCount;
+        private final int failedCount;
+
+        public Checkpoint(String rootLogin, long[] visitedIds, List<Node> pending, int requestCount, int failedCount) {
+            this.rootLogin = rootLogin;
+            this.visitedIds = visitedIds;
+            this.pending = Collections.unmodifiableList(new ArrayList<>(pending));
+            this.requestCount = requestCount;
+            this.failedCount = failedCount;
+        }
+
+        public String getRootLogin() {
+            return rootLogin;
+        }
+
+        // Identifiants triés des utilisateurs déjà émis
+        public long[] getVisitedIds() {
+            return visitedIds;
+        }
+
+        // Comptes restant à explorer, dans l'ordre du parcours
+        public List<Node> getPending() {
+            return pending;
+        }
+
+        public int getRequestCount() {
+            return requestCount;
+        }
+
+        // Comptes dont la lecture a échoué ; ils font partie des comptes restants et sont relus à la reprise
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        // Vrai si le parcours est allé jusqu'au bout
+        public boolean isComplete() {
+            return pending.isEmpty();
+        }
+    }
+}
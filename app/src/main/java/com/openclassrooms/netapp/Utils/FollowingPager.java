@@ -0,0 +1,163 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserPage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.observers.DisposableObserver;
+
+/**
+ * Charge progressivement la liste des utilisateurs suivis, une page à la fois.
+ * <p>
+ * Le pager mémorise l'URL de la page suivante et ne lance qu'un seul chargement à la fois.
+ * Il est destiné à être piloté depuis le thread principal : {@link #refresh()} recommence
+ * depuis la première page, {@link #loadNextPage()} demande la page suivante (par exemple
+ * lorsque l'utilisateur approche de la fin du RecyclerView).
+ * </p>
+ */
+public class FollowingPager {
+
+    /**
+     * Interface de rappel notifiant l'arrivée d'une page ou une erreur de chargement.
+     */
+    public interface Listener {
+        /**
+         * Appelée à la réception d'utilisateurs.
+         * <p>
+         * La première page peut arriver en plusieurs fois, de plus en plus complète : seul le premier envoi a
+         * {@code firstPage} à {@code true}, les suivants ne contiennent que les utilisateurs ajoutés depuis.
+         * </p>
+         *
+         * @param users Utilisateurs reçus.
+         * @param firstPage {@code true} si ces utilisateurs remplacent la liste affichée.
+         */
+        void onPageLoaded(List<GithubUser> users, boolean firstPage);
+        void onPageError(Throwable error);
+    }
+
+    /**
+     * Source des pages, remplaçable dans les tests.
+     */
+    interface PageSource {
+        Observable<GithubUserPage> firstPage(String username);
+        Observable<GithubUserPage> pageAt(String username, String pageUrl);
+    }
+
+    // Pages chargées par GithubStreams, observées sur le thread principal
+    private static final PageSource GITHUB_PAGES = new PageSource() {
+        @Override
+        public Observable<GithubUserPage> firstPage(String username) {
+            return GithubStreams.streamFetchUserFollowingFirstPage(username);
+        }
+
+        @Override
+        public Observable<GithubUserPage> pageAt(String username, String pageUrl) {
+            return GithubStreams.streamFetchUserFollowingNextPage(username, pageUrl);
+        }
+    };
+
+    private final String username;
+    private final Listener listener;
+    private final PageSource source;
+
+    private Disposable disposable;
+    private String nextUrl;
+    private boolean loading;
+    private boolean exhausted;
+
+    public FollowingPager(String username, Listener listener) {
+        this(username, listener, GITHUB_PAGES);
+    }
+
+    FollowingPager(String username, Listener listener, PageSource source) {
+        this.username = username;
+        this.listener = listener;
+        this.source = source;
+    }
+
+    /**
+     * Recharge la première page et libère le chargement précédent.
+     * <p>
+     * La nouvelle souscription est faite avant de libérer l'ancienne : si la première page est déjà en
+     * cours de chargement (rafraîchissements rapprochés), elle rejoint cet appel au lieu de l'annuler
+     * pour en relancer un identique.
+     * </p>
+     */
+    public void refresh() {
+        Disposable previous = disposable;
+        nextUrl = null;
+        exhausted = false;
+        load(source.firstPage(username), true);
+        if (previous != null) previous.dispose();
+    }
+
+    /**
+     * Charge la page suivante si aucune requête n'est en cours et si la liste n'est pas terminée.
+     */
+    public void loadNextPage() {
+        if (loading || exhausted || nextUrl == null) return;
+        load(source.pageAt(username, nextUrl), false);
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean hasMore() {
+        return !exhausted;
+    }
+
+    /**
+     * Libère l'abonnement en cours, par exemple à la destruction du fragment.
+     */
+    public void dispose() {
+        if (disposable != null && !disposable.isDisposed()) disposable.dispose();
+        loading = false;
+    }
+
+    private void load(Observable<GithubUserPage> page, boolean firstPage) {
+        loading = true;
+        disposable = page.subscribeWith(new DisposableObserver<GithubUserPage>() {
+            // Utilisateurs déjà transmis par ce chargement
+            private List<GithubUser> delivered = Collections.emptyList();
+
+            @Override
+            public void onNext(GithubUserPage result) {
+                nextUrl = result.getNextUrl();
+                exhausted = !result.hasNext();
+                List<GithubUser> users = result.getUsers();
+                // Une page plus complète que la précédente n'en transmet que la suite
+                boolean continued = !delivered.isEmpty() && startsWith(users, delivered);
+                List<GithubUser> added = continued ? new ArrayList<>(users.subList(delivered.size(), users.size())) : users;
+                delivered = users;
+                if (continued && added.isEmpty()) return;
+                listener.onPageLoaded(added, firstPage && !continued);
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                loading = false;
+                listener.onPageError(e);
+            }
+
+            @Override
+            public void onComplete() {
+                loading = false;
+            }
+        });
+    }
+
+    // Vrai si la liste commence par les mêmes instances (canoniques) que le préfixe donné
+    private static boolean startsWith(List<GithubUser> users, List<GithubUser> prefix) {
+        if (users.size() < prefix.size()) return false;
+        for (int i = 0; i < prefix.size(); i++) {
+            if (users.get(i) != prefix.get(i)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,154 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Database.FollowingDelta;
+import com.openclassrooms.netapp.Database.GithubUserDao;
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * Synchronisation périodique de la liste des utilisateurs suivis avec la base locale.
+ * <p>
+ * Tant qu'il est démarré, le moteur revalide la première page auprès de GitHub avec une requête
+ * conditionnelle : une liste inchangée ne coûte qu'une réponse 304, sans lecture de la base ni travail
+ * d'interface. Une liste modifiée est fusionnée dans la base en n'écrivant que les différences, puis la
+ * nouvelle liste est émise par {@link #observeChanges()}.
+ * </p>
+ * <p>
+ * L'intervalle entre deux synchronisations s'adapte : il double à chaque réponse inchangée ou en erreur,
+ * de {@link #MIN_INTERVAL_MILLIS} jusqu'à {@link #MAX_INTERVAL_MILLIS}, et revient au minimum dès qu'un
+ * changement est reçu. Les requêtes sont planifiées en priorité de fond auprès du {@link RateLimitScheduler}.
+ * </p>
+ */
+public class FollowingSyncEngine {
+
+    /**
+     * Stockage local de la liste des abonnements.
+     */
+    interface Store {
+        FollowingDelta applyFirstPage(String owner, List<GithubUser> firstPage, boolean complete);
+    }
+
+    // Bornes de l'intervalle entre deux synchronisations
+    public static final long MIN_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    public static final long MAX_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private final String username;
+    private final GithubClient client;
+    private final Store store;
+    private final Scheduler scheduler;
+    private final GithubUserRegistry registry = GithubUserRegistry.getInstance();
+    private final Subject<List<GithubUser>> changes = PublishSubject.<List<GithubUser>>create().toSerialized();
+
+    private Disposable disposable;
+    private volatile long intervalMillis = MIN_INTERVAL_MILLIS;
+    private volatile long lastSyncMillis;
+
+    /**
+     * @param username Compte GitHub dont la liste des abonnements est synchronisée.
+     * @throws IllegalStateException Si la base locale n'a pas été initialisée ({@link GithubUserDao#init}).
+     */
+    public FollowingSyncEngine(String username) {
+        this(username, GithubClient.getInstance(), defaultStore(), Schedulers.io());
+    }
+
+    FollowingSyncEngine(String username, GithubClient client, Store store, Scheduler scheduler) {
+        this.username = username;
+        this.client = client;
+        this.store = store;
+        this.scheduler = scheduler;
+        // La liste vient d'être chargée par l'écran qui crée le moteur
+        this.lastSyncMillis = scheduler.now(TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Démarre la synchronisation périodique ; sans effet si elle est déjà démarrée. Si la dernière
+     * synchronisation date de plus d'un intervalle (retour au premier plan), la suivante part aussitôt.
+     */
+    public synchronized void start() {
+        if (disposable != null && !disposable.isDisposed()) return;
+        disposable = Observable.defer(() -> Observable.timer(nextDelayMillis(), TimeUnit.MILLISECONDS, scheduler))
+                .concatMap(tick -> sync())
+                .repeat()
+                .subscribe(this::onSynced);
+    }
+
+    /**
+     * Arrête la synchronisation périodique et annule la requête en cours.
+     */
+    public synchronized void stop() {
+        if (disposable != null) disposable.dispose();
+        disposable = null;
+    }
+
+    public synchronized boolean isStarted() {
+        return disposable != null && !disposable.isDisposed();
+    }
+
+    /**
+     * Observe les changements de la liste stockée.
+     *
+     * @return Un observable émettant la nouvelle liste complète après chaque changement, sur le thread de
+     * synchronisation.
+     */
+    public Observable<List<GithubUser>> observeChanges() {
+        return changes.hide();
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    // Revalide la première page ; émet vrai si la liste stockée a changé, faux sinon (304, aucune différence, erreur)
+    Observable<Boolean> sync() {
+        Observable<Response<List<GithubUser>>> request = client.getGithubService()
+                .revalidateFollowingPage(username, GithubStreams.FOLLOWING_PAGE_SIZE);
+        return client.getRateLimitScheduler()
+                .schedule("sync/following/" + Logins.key(username), RateLimitScheduler.Priority.BACKGROUND, request)
+                .map(this::apply)
+                .onErrorReturnItem(false);
+    }
+
+    private boolean apply(Response<List<GithubUser>> response) {
+        if (!response.isSuccessful() || response.body() == null) {
+            throw new HttpException(response);
+        }
+        okhttp3.Response networkResponse = response.raw().networkResponse();
+        if (networkResponse != null && networkResponse.code() == 304) return false;
+
+        boolean complete = LinkHeaderParser.parseNextUrl(response.headers().get("Link")) == null;
+        FollowingDelta delta = store.applyFirstPage(username, registry.canonicalizeAll(response.body()), complete);
+        if (delta.isEmpty()) return false;
+        changes.onNext(registry.canonicalizeAll(delta.getFollowing()));
+        return true;
+    }
+
+    private void onSynced(boolean changed) {
+        lastSyncMillis = scheduler.now(TimeUnit.MILLISECONDS);
+        intervalMillis = changed ? MIN_INTERVAL_MILLIS : Math.min(intervalMillis * 2, MAX_INTERVAL_MILLIS);
+    }
+
+    private long nextDelayMillis() {
+        return Math.max(0, lastSyncMillis + intervalMillis - scheduler.now(TimeUnit.MILLISECONDS));
+    }
+
+    // Base locale : sans elle, la première synchronisation comparerait avec une liste vide et signalerait toute
+    // la liste comme modifiée
+    private static Store defaultStore() {
+        GithubUserDao dao = GithubUserDao.getInstance();
+        if (dao == null) {
+            throw new IllegalStateException("GithubUserDao.init() must be called before creating a FollowingSyncEngine");
+        }
+        return dao::applyFollowingFirstPage;
+    }
+}
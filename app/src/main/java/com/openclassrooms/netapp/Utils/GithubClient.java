@@ -0,0 +1,201 @@
+package com.openclassrooms.netapp.Utils;
+
+import android.content.Context;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+/**
+ * Client HTTP partagé par toute l'application pour dialoguer avec l'API GitHub.
+ * <p>
+ * Cette classe possède l'unique {@link OkHttpClient} du processus (pool de connexions,
+ * dispatcher et multiplexage HTTP/2), l'instance de {@link Retrofit} construite dessus
+ * ainsi que le proxy {@link GithubService} généré une seule fois. Tous les appels réseau
+ * réutilisent donc les mêmes connexions TLS au lieu d'en ouvrir de nouvelles à chaque écran.
+ * </p>
+ * <p>
+ * Lorsqu'il est initialisé avec {@link #init(Context)}, le client dispose aussi d'un cache
+ * disque borné : OkHttp y conserve les réponses avec leurs en-têtes ETag / Last-Modified et
+ * envoie des requêtes conditionnelles, de sorte qu'une donnée inchangée revient en 304.
+ * Le jeton d'accès éventuellement enregistré dans le {@link SecureTokenStore} est ajouté à
+ * toutes les requêtes vers l'API pour bénéficier du quota authentifié.
+ * </p>
+ * <p>
+ * Chaque appel est instrumenté par {@link NetworkMetrics} : durées des phases réseau, tailles des
+ * réponses et issues du cache, agrégées par endpoint.
+ * </p>
+ */
+public class GithubClient {
+
+    // URL de base de l'API GitHub
+    public static final String BASE_URL = "https://api.github.com/";
+
+    // Limites du dispatcher partagé
+    private static final int MAX_REQUESTS = 64;
+    private static final int MAX_REQUESTS_PER_HOST = 10;
+    // Connexions inactives conservées : autant que de requêtes simultanées vers api.github.com, pour qu'une rafale
+    // (enrichissement, pages en HTTP/1.1) retrouve ses connexions TLS au lieu d'en rouvrir la moitié comme avec les
+    // 5 du pool par défaut. Elles restent ouvertes 5 minutes, comme par défaut
+    private static final int MAX_IDLE_CONNECTIONS = MAX_REQUESTS_PER_HOST;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    // Délais réseau par défaut
+    private static final long CONNECT_TIMEOUT_SECONDS = 10;
+    private static final long READ_TIMEOUT_SECONDS = 15;
+    // Cache disque des réponses HTTP
+    private static final String CACHE_DIRECTORY = "http_cache";
+    private static final long CACHE_SIZE_BYTES = 10 * 1024 * 1024;
+
+    private static volatile GithubClient instance;
+
+    private final OkHttpClient okHttpClient;
+    private final Retrofit retrofit;
+    private final GithubService githubService;
+    private final NetworkMetrics networkMetrics = new NetworkMetrics();
+    private final HttpCacheStatsInterceptor cacheStats = new HttpCacheStatsInterceptor(networkMetrics);
+    private final RateLimitScheduler rateLimitScheduler = new RateLimitScheduler();
+    private final Resilience resilience = Resilience.createDefault();
+    private final AuthInterceptor.TokenProvider tokenProvider;
+
+    /**
+     * Initialise le client partagé avec un cache disque situé dans le répertoire de cache de
+     * l'application. Doit être appelée au démarrage, avant le premier appel réseau ; sans cela
+     * {@link #getInstance()} crée un client sans cache.
+     *
+     * @param context Contexte de l'application.
+     */
+    public static void init(Context context) {
+        synchronized (GithubClient.class) {
+            if (instance == null) {
+                File cacheDirectory = new File(context.getApplicationContext().getCacheDir(), CACHE_DIRECTORY);
+                instance = new GithubClient(BASE_URL, cacheDirectory, SecureTokenStore.openOrNull(context));
+            }
+        }
+    }
+
+    /**
+     * Retourne l'instance unique du client, créée au premier appel.
+     *
+     * @return Le client GitHub partagé.
+     */
+    public static GithubClient getInstance() {
+        GithubClient result = instance;
+        if (result == null) {
+            synchronized (GithubClient.class) {
+                result = instance;
+                if (result == null) {
+                    result = new GithubClient(BASE_URL, null, null);
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Construit un client pointant vers l'URL de base donnée. Visible dans le package pour
+     * permettre de viser un serveur local dans les tests.
+     *
+     * @param baseUrl URL de base de l'API.
+     * @param cacheDirectory Répertoire du cache HTTP, ou null pour désactiver le cache.
+     */
+    GithubClient(String baseUrl, File cacheDirectory) {
+        this(baseUrl, cacheDirectory, null);
+    }
+
+    /**
+     * Construit un client dont le jeton d'authentification est fourni par {@code tokenProvider}.
+     *
+     * @param baseUrl URL de base de l'API.
+     * @param cacheDirectory Répertoire du cache HTTP, ou null pour désactiver le cache.
+     * @param tokenProvider Source du jeton d'accès, ou null pour un client anonyme.
+     */
+    GithubClient(String baseUrl, File cacheDirectory, AuthInterceptor.TokenProvider tokenProvider) {
+        this.tokenProvider = tokenProvider;
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .retryOnConnectionFailure(true)
+                .eventListenerFactory(networkMetrics.getEventListenerFactory())
+                .addInterceptor(cacheStats)
+                .addNetworkInterceptor(rateLimitScheduler.getInterceptor());
+        if (cacheDirectory != null) {
+            builder.cache(new Cache(cacheDirectory, CACHE_SIZE_BYTES));
+        }
+        if (tokenProvider != null) {
+            builder.addInterceptor(new AuthInterceptor(HttpUrl.get(baseUrl).host(), tokenProvider));
+        }
+        this.okHttpClient = builder.build();
+
+        this.retrofit = new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(okHttpClient)
+                .addConverterFactory(GsonConverterFactory.create())
+                .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+                .build();
+
+        this.githubService = retrofit.create(GithubService.class);
+    }
+
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    public Retrofit getRetrofit() {
+        return retrofit;
+    }
+
+    public GithubService getGithubService() {
+        return githubService;
+    }
+
+    public HttpCacheStatsInterceptor getCacheStats() {
+        return cacheStats;
+    }
+
+    public RateLimitScheduler getRateLimitScheduler() {
+        return rateLimitScheduler;
+    }
+
+    public Resilience getResilience() {
+        return resilience;
+    }
+
+    public NetworkMetrics getNetworkMetrics() {
+        return networkMetrics;
+    }
+
+    /**
+     * @return Vrai si un jeton d'accès est actuellement enregistré.
+     */
+    public boolean isAuthenticated() {
+        if (tokenProvider == null) return false;
+        String token = tokenProvider.getToken();
+        return token != null && !token.isEmpty();
+    }
+
+    /**
+     * @return Le stockage chiffré du jeton d'accès, ou null si le client est anonyme.
+     */
+    public SecureTokenStore getTokenStore() {
+        return tokenProvider instanceof SecureTokenStore ? (SecureTokenStore) tokenProvider : null;
+    }
+}
@@ -2,16 +2,24 @@ package com.openclassrooms.netapp.Utils;
 
 import com.openclassrooms.netapp.Models.GithubUser;
 import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.openclassrooms.netapp.Models.GraphQLFollowingResponse;
+import com.openclassrooms.netapp.Models.GraphQLRequest;
+import com.openclassrooms.netapp.Models.SearchUsersResponse;
 
 import java.util.List;
 
 import io.reactivex.Observable;
-import retrofit2.Retrofit;
-import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
-import retrofit2.converter.gson.GsonConverterFactory;
+import okhttp3.ResponseBody;
+import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.Headers;
+import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
+import retrofit2.http.Url;
 import retrofit2.Call;
+import retrofit2.Response;
 
 /**
  * Interface pour la communication avec l'API GitHub.
@@ -19,7 +27,8 @@ import retrofit2.Call;
  * Cette interface définit les méthodes pour accéder aux différentes ressources
  * de l'API GitHub concernant les utilisateurs. Elle utilise Retrofit pour la
  * sérialisation et désérialisation des données JSON, ainsi que RxJava pour
- * la gestion des appels asynchrones.
+ * la gestion des appels asynchrones. L'implémentation partagée est fournie par
+ * {@link GithubClient#getGithubService()}.
  * </p>
  */
 
@@ -34,6 +43,115 @@ public interface GithubService {
     @GET("users/{username}/following")
     Observable<List<GithubUser>> getFollowing(@Path("username") String username);
 
+    /**
+     * Récupère la première page des utilisateurs suivis, avec une taille de page choisie.
+     * <p>
+     * La réponse complète est renvoyée afin de pouvoir lire l'en-tête {@code Link}
+     * qui contient l'URL de la page suivante.
+     * </p>
+     *
+     * @param username Nom d'utilisateur GitHub pour lequel obtenir la liste des abonnements.
+     * @param perPage Nombre d'utilisateurs par page (100 au maximum).
+     * @return Un observable contenant la réponse HTTP de la première page.
+     */
+    @GET("users/{username}/following")
+    Observable<Response<List<GithubUser>>> getFollowingPage(@Path("username") String username,
+                                                            @Query("per_page") int perPage);
+
+    /**
+     * Récupère la première page des abonnés, avec une taille de page choisie.
+     * <p>
+     * Les pages suivantes se lisent avec {@link #getFollowersPageAt(String)}, à partir de l'en-tête {@code Link}.
+     * </p>
+     *
+     * @param username Nom d'utilisateur GitHub pour lequel obtenir la liste des abonnés.
+     * @param perPage Nombre d'utilisateurs par page (100 au maximum).
+     * @return Un observable contenant la réponse HTTP de la première page.
+     */
+    @GET("users/{username}/followers")
+    Observable<Response<List<GithubUser>>> getFollowersPage(@Path("username") String username,
+                                                            @Query("per_page") int perPage);
+
+    /**
+     * Revalide la première page des utilisateurs suivis auprès du serveur.
+     * <p>
+     * L'en-tête {@code Cache-Control: max-age=0} fait considérer la réponse en cache comme périmée : OkHttp
+     * interroge le serveur avec l'ETag de cette réponse et une liste inchangée revient en 304, visible dans
+     * {@code raw().networkResponse()}, avec le corps du cache. ({@code no-cache} ignorerait le cache et
+     * retéléchargerait toute la page.)
+     * </p>
+     *
+     * @param username Nom d'utilisateur GitHub pour lequel obtenir la liste des abonnements.
+     * @param perPage Nombre d'utilisateurs par page (100 au maximum).
+     * @return Un observable contenant la réponse HTTP de la première page.
+     */
+    @Headers("Cache-Control: max-age=0")
+    @GET("users/{username}/following")
+    Observable<Response<List<GithubUser>>> revalidateFollowingPage(@Path("username") String username,
+                                                                   @Query("per_page") int perPage);
+
+    /**
+     * Récupère une page d'utilisateurs suivis sans la désérialiser.
+     * <p>
+     * Grâce à {@code @Streaming}, le corps n'est pas chargé en mémoire : il est lu au fil de l'eau
+     * par {@link GithubUserStreamDecoder}.
+     * </p>
+     *
+     * @param username Nom d'utilisateur GitHub pour lequel obtenir la liste des abonnements.
+     * @param perPage Nombre d'utilisateurs par page (100 au maximum).
+     * @return Un appel dont le corps est le tableau JSON brut.
+     */
+    @Streaming
+    @GET("users/{username}/following")
+    Call<ResponseBody> getFollowingStream(@Path("username") String username,
+                                          @Query("per_page") int perPage);
+
+    /**
+     * Récupère une page d'utilisateurs suivis à partir d'une URL absolue issue de l'en-tête {@code Link}.
+     *
+     * @param pageUrl URL de la page à charger.
+     * @return Un observable contenant la réponse HTTP de la page demandée.
+     */
+    @GET
+    Observable<Response<List<GithubUser>>> getFollowingPageAt(@Url String pageUrl);
+
+    /**
+     * Récupère une page d'abonnés à partir d'une URL absolue issue de l'en-tête {@code Link}. Elle ne diffère
+     * de {@link #getFollowingPageAt(String)} que par son nom, sous lequel {@link NetworkMetrics} compte l'appel.
+     *
+     * @param pageUrl URL de la page à charger.
+     * @return Un observable contenant la réponse HTTP de la page demandée.
+     */
+    @GET
+    Observable<Response<List<GithubUser>>> getFollowersPageAt(@Url String pageUrl);
+
+    /**
+     * Recherche des utilisateurs GitHub par login, nom ou e-mail.
+     * <p>
+     * L'API de recherche a son propre quota, beaucoup plus strict (ressource {@code search}) : les appels
+     * passent par {@link GithubStreams#streamSearchUsers(Observable)}, qui les limite.
+     * </p>
+     *
+     * @param query Texte recherché.
+     * @param perPage Nombre de résultats par page (100 au maximum).
+     * @return Un observable contenant la première page de résultats.
+     */
+    @GET("search/users")
+    Observable<SearchUsersResponse> searchUsers(@Query("q") String query, @Query("per_page") int perPage);
+
+    /**
+     * Envoie la requête GraphQL des utilisateurs suivis (API v4, jeton obligatoire).
+     * <p>
+     * Une seule requête renvoie une page d'utilisateurs avec leurs informations détaillées ; elle est
+     * construite par {@link GraphQLFollowingSource}. Les erreurs GraphQL arrivent dans une réponse 200.
+     * </p>
+     *
+     * @param request Requête et variables (login, taille de page, curseur).
+     * @return Un observable contenant la réponse GraphQL.
+     */
+    @POST("graphql")
+    Observable<GraphQLFollowingResponse> queryFollowing(@Body GraphQLRequest request);
+
     /**
      * Récupère les informations détaillées sur l'utilisateur spécifié.
      *
@@ -43,17 +161,4 @@ public interface GithubService {
     @GET("/users/{username}")
     Call<GithubUserInfo> getUserInfos(@Path("username") String username);
 
-    /**
-     * Instance de Retrofit configurée pour interagir avec l'API GitHub.
-     * <p>
-     * Utilise l'URL de base de l'API GitHub, ainsi qu'un convertisseur Gson
-     * pour la sérialisation et désérialisation des objets JSON, et un adaptateur
-     * RxJava2 pour la gestion des appels asynchrones.
-     * </p>
-     */
-    public static final Retrofit retrofit = new Retrofit.Builder()
-            .baseUrl("https://api.github.com/")
-            .addConverterFactory(GsonConverterFactory.create())
-            .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
-            .build();
 }
@@ -1,16 +1,26 @@
 package com.openclassrooms.netapp.Utils;
 
+import com.openclassrooms.netapp.Database.GithubUserDao;
 import com.openclassrooms.netapp.Models.GithubUser;
 import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.openclassrooms.netapp.Models.GithubUserPage;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.functions.Function;
 import io.reactivex.schedulers.Schedulers;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.HttpException;
+import retrofit2.Response;
 
 /**
  * Classe utilitaire pour gérer les flux de données liés à l'API GitHub en utilisant RxJava.
@@ -22,43 +32,81 @@ import retrofit2.Call;
 
 public class GithubStreams {
 
+    // Taille de page maximale acceptée par l'API GitHub, pour limiter le nombre d'allers-retours
+    public static final int FOLLOWING_PAGE_SIZE = 100;
+    // Nombre maximal d'appels de détail lancés en parallèle lors de l'enrichissement d'une liste
+    public static final int DEFAULT_ENRICHMENT_CONCURRENCY = 4;
+    // Nombre maximal de pages lues pour un ensemble d'identifiants (les comptes très suivis ont des milliers de pages)
+    public static final int MAX_ID_SET_PAGES = 20;
+    // Durée de conservation en mémoire d'un ensemble d'identifiants
+    public static final int ID_SET_TTL_MINUTES = 30;
+    // Lots d'utilisateurs émis pendant le décodage de la première page : taille maximale et délai d'accumulation
+    private static final int STREAM_BATCH_SIZE = 20;
+    private static final long STREAM_BATCH_MILLIS = 100;
+    // Durée de regroupement des utilisateurs découverts par l'exploration du graphe
+    public static final long CRAWL_BATCH_MILLIS = 250;
+
+    // Noms des endpoints pour les mesures de latence et les disjoncteurs
+    private static final String ENDPOINT_FOLLOWING = "users/following";
+    private static final String ENDPOINT_USER = "users";
+    private static final String ENDPOINT_FOLLOWERS = "users/followers";
+
+    // Requêtes en cours, partagées par clé entre tous les abonnés
+    private static final RequestCoalescer coalescer = new RequestCoalescer();
+    // Instances canoniques des utilisateurs, partagées par tous les écrans
+    private static final GithubUserRegistry registry = GithubUserRegistry.getInstance();
+    // Cache mémoire des informations détaillées, partagé par tous les écrans
+    private static final UserInfoCache userInfoCache = new UserInfoCache(
+            GithubStreams::fetchUserInfosOfflineFirst, 200, 5, TimeUnit.MINUTES);
+    // Ensembles d'identifiants déjà lus, par clé ; une valeur absente de l'entrée signifie « liste trop longue »
+    private static final Map<String, CachedIds> idSets = new LinkedHashMap<String, CachedIds>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedIds> eldest) {
+            return size() > 16;
+        }
+    };
+    // Recherche distante d'utilisateurs, avec son cache de résultats
+    private static RemoteUserSearch userSearch;
+    // Source GraphQL des abonnements, utilisée à la place de l'API REST lorsqu'un jeton est enregistré
+    private static GraphQLFollowingSource graphQLSource;
+
     /**
      * Récupère la liste des utilisateurs que l'utilisateur spécifié suit.
      * <p>
      * Utilise RxJava pour exécuter l'appel réseau de manière asynchrone et sur le thread de fond,
-     * puis observe les résultats sur le thread principal. Le flux est configuré avec un timeout
-     * de 10 secondes.
+     * puis observe les résultats sur le thread principal. L'appel passe par la couche {@link Resilience}
+     * (délai adaptatif, nouvelles tentatives, disjoncteur). Un appel déjà en cours pour ce compte est
+     * partagé au lieu d'être relancé.
      * </p>
      *
      * @param username Nom d'utilisateur GitHub pour lequel obtenir la liste des abonnements.
      * @return Un observable contenant une liste d'objets GithubUser.
      */
     public static Observable<List<GithubUser>> streamFetchUserFollowing(String username) {
-        GithubService gitHubService = GithubService.retrofit.create(GithubService.class);
-        return gitHubService.getFollowing(username)
-                .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .timeout(10, TimeUnit.SECONDS);
+        GithubService gitHubService = GithubClient.getInstance().getGithubService();
+        return coalescer.coalesce("following/" + Logins.key(username), resilience().execute(ENDPOINT_FOLLOWING, gitHubService.getFollowing(username))
+                        .subscribeOn(Schedulers.io()))
+                .observeOn(AndroidSchedulers.mainThread());
     }
 
     /**
      * Récupère les informations détaillées sur l'utilisateur spécifié.
      * <p>
-     * Utilise RxJava pour convertir l'appel réseau en un observable, exécute l'appel sur le thread
-     * de fond et observe les résultats sur le thread principal. Le flux est configuré avec un timeout
-     * de 10 secondes.
+     * Les informations passent par le {@link UserInfoCache} : un utilisateur consulté récemment
+     * est servi immédiatement depuis la mémoire, une valeur expirée est servie puis rafraîchie, et
+     * les demandes simultanées pour un même login partagent un seul appel réseau. Les résultats
+     * sont observés sur le thread principal. L'appel réseau passe par la couche {@link Resilience} ; si
+     * GitHub est indisponible, la valeur stockée localement reste affichée.
      * </p>
      *
      * @param username Nom d'utilisateur GitHub pour lequel obtenir les informations détaillées.
-     * @return Un observable contenant un objet GithubUserInfo.
+     * @return Un observable contenant un objet GithubUserInfo (suivi de sa version rafraîchie si
+     * la valeur en cache avait expiré).
      */
     public static Observable<GithubUserInfo> streamFetchUserInfos(String username) {
-        GithubService gitHubService = GithubService.retrofit.create(GithubService.class);
-        Call<GithubUserInfo> call = gitHubService.getUserInfos(username);
-        return RxUtils.makeObservable(call)
+        return userInfoCache.get(username)
                 .subscribeOn(Schedulers.io())
-                .observeOn(AndroidSchedulers.mainThread())
-                .timeout(10, TimeUnit.SECONDS);
+                .observeOn(AndroidSchedulers.mainThread());
     }
     /**
      * Récupère la liste des utilisateurs que l'utilisateur spécifié suit et retourne les informations
@@ -66,7 +114,7 @@ public class GithubStreams {
      * <p>
      * Cette méthode enchaîne plusieurs opérations :
      * 1. Récupère tous les utilisateurs que l'utilisateur spécifié suit.
-     * 2. Sélectionne le premier utilisateur de la liste.
+     * 2. Sélectionne le premier utilisateur de la liste (le flux se termine sans valeur si la liste est vide).
      * 3. Récupère les informations détaillées pour cet utilisateur.
      * </p>
      *
@@ -75,7 +123,437 @@ public class GithubStreams {
      */
     public static Observable<GithubUserInfo> streamFetchUserFollowingAndFetchFirstUserInfos(String username) {
         return streamFetchUserFollowing(username) // 1 - Récupère tous les utilisateurs que l'utilisateur suit
+                .filter(users -> !users.isEmpty())
                 .map(users -> users.get(0)) // 2 - Sélectionne le premier utilisateur de la liste
                 .flatMap(user -> streamFetchUserInfos(user.getLogin())); // 3 - Récupère les informations détaillées pour cet utilisateur
     }
-}
\ No newline at end of file
+
+    /**
+     * Récupère la première page des utilisateurs que l'utilisateur spécifié suit.
+     * <p>
+     * La page contient jusqu'à {@link #FOLLOWING_PAGE_SIZE} utilisateurs et l'URL de la page
+     * suivante, à passer à {@link #streamFetchUserFollowingNextPage(String)}.
+     * </p>
+     *
+     * @param username Nom d'utilisateur GitHub pour lequel obtenir la liste des abonnements.
+     * @return Un observable contenant la première page d'utilisateurs.
+     */
+    public static Observable<GithubUserPage> streamFetchUserFollowingFirstPage(String username) {
+        return fetchFollowingFirstPage(username)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * Récupère la page d'utilisateurs suivis située à l'URL donnée.
+     * <p>
+     * Cette page étant préchargée pendant le défilement, la requête est planifiée en priorité de fond :
+     * elle est différée si le quota de l'API est presque épuisé.
+     * </p>
+     *
+     * @param username Nom d'utilisateur GitHub dont la liste est parcourue.
+     * @param pageUrl URL de la page, issue de {@link GithubUserPage#getNextUrl()}.
+     * @return Un observable contenant la page demandée.
+     */
+    public static Observable<GithubUserPage> streamFetchUserFollowingNextPage(String username, String pageUrl) {
+        return scheduleBackground(pageUrl, fetchFollowingPageAt(username, pageUrl))
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * Récupère les informations détaillées de tous les utilisateurs d'une liste.
+     * <p>
+     * Utilise {@link #DEFAULT_ENRICHMENT_CONCURRENCY} appels simultanés au maximum.
+     * </p>
+     *
+     * @param users Utilisateurs à enrichir.
+     * @return Un observable émettant un objet GithubUserInfo par utilisateur, dans l'ordre d'arrivée.
+     */
+    public static Observable<GithubUserInfo> streamFetchUsersInfos(List<GithubUser> users) {
+        return streamFetchUsersInfos(users, DEFAULT_ENRICHMENT_CONCURRENCY);
+    }
+
+    /**
+     * Récupère les informations détaillées de tous les utilisateurs d'une liste, avec une concurrence bornée.
+     * <p>
+     * Les appels passent par le {@link UserInfoCache} et au plus {@code maxConcurrency} d'entre eux sont en
+     * cours en même temps. Les utilisateurs absents du cache sont demandés en priorité de fond auprès du
+     * {@link RateLimitScheduler}, pour préserver le quota des écrans au premier plan : une requête différée
+     * jusqu'à la réinitialisation du quota attend sans limite de temps, le délai d'attente ne s'appliquant
+     * qu'aux tentatives réseau (voir {@link Resilience}). Chaque résultat est émis dès son arrivée. L'échec
+     * d'un utilisateur est ignoré et n'interrompt pas les autres. Les résultats sont observés sur le thread principal.
+     * </p>
+     *
+     * @param users Utilisateurs à enrichir.
+     * @param maxConcurrency Nombre maximal d'appels simultanés.
+     * @return Un observable émettant un objet GithubUserInfo par utilisateur, dans l'ordre d'arrivée.
+     */
+    public static Observable<GithubUserInfo> streamFetchUsersInfos(List<GithubUser> users, int maxConcurrency) {
+        return Observable.fromIterable(users)
+                .filter(user -> user.getLogin() != null)
+                .flatMap(user -> fetchUserInfosInBackground(user.getLogin())
+                        .onErrorResumeNext(Observable.<GithubUserInfo>empty()), maxConcurrency)
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * Récupère les identifiants des abonnés d'un compte.
+     * <p>
+     * Les pages sont lues les unes après les autres en priorité de fond, chacune à travers la couche
+     * {@link Resilience} ; les identifiants sont rangés dans un {@link LongHashSet} au fil de la lecture, sans
+     * conserver les utilisateurs. L'ensemble est gardé en mémoire pendant {@link #ID_SET_TTL_MINUTES} minutes
+     * et un chargement en cours est partagé.
+     * </p>
+     * <p>
+     * Au-delà de {@link #MAX_ID_SET_PAGES} pages, l'ensemble serait tronqué et donnerait de faux négatifs :
+     * le flux se termine alors sans valeur (abonnés inconnus). Le nombre de pages est lu dans l'en-tête
+     * {@code Link} de la première page, si bien qu'un compte très suivi ne coûte qu'une requête.
+     * </p>
+     *
+     * @param username Nom d'utilisateur GitHub dont on veut les abonnés.
+     * @return Un observable émettant l'ensemble trié et complet des identifiants (voir {@link IdSets}), ou
+     * aucune valeur si la liste est trop longue, observé sur le thread principal.
+     */
+    public static Observable<long[]> streamFetchFollowerIds(String username) {
+        GithubService gitHubService = GithubClient.getInstance().getGithubService();
+        return cachedIds("followers/" + Logins.key(username), ENDPOINT_FOLLOWERS,
+                        () -> gitHubService.getFollowersPage(username, FOLLOWING_PAGE_SIZE), gitHubService::getFollowersPageAt)
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * Récupère les identifiants des comptes suivis à la fois par deux utilisateurs.
+     * <p>
+     * Comme pour {@link #streamFetchFollowerIds(String)}, le flux se termine sans valeur si l'une des deux
+     * listes dépasse {@link #MAX_ID_SET_PAGES} pages.
+     * </p>
+     *
+     * @param username Premier utilisateur.
+     * @param otherUsername Second utilisateur.
+     * @return Un observable émettant l'ensemble trié des identifiants communs, observé sur le thread principal.
+     */
+    public static Observable<long[]> streamFetchMutualFollowingIds(String username, String otherUsername) {
+        return Observable.zip(followingIds(username).subscribeOn(Schedulers.io()),
+                        followingIds(otherUsername).subscribeOn(Schedulers.io()),
+                        IdSets::intersection)
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    private static Observable<long[]> followingIds(String username) {
+        GithubService gitHubService = GithubClient.getInstance().getGithubService();
+        return cachedIds("following/" + Logins.key(username) + "/ids", ENDPOINT_FOLLOWING,
+                () -> gitHubService.getFollowingPage(username, FOLLOWING_PAGE_SIZE), gitHubService::getFollowingPageAt);
+    }
+
+    /**
+     * Explore le graphe des abonnements sur plusieurs niveaux à partir d'un compte.
+     * <p>
+     * Chaque utilisateur découvert est émis une seule fois avec sa distance au compte racine. Les découvertes
+     * sont regroupées par lots de {@link #CRAWL_BATCH_MILLIS} ms pour ne pas rafraîchir l'écran à chaque
+     * utilisateur. Le parcours peut être mis en pause, repris ou sauvegardé à l'aide du {@code crawler}, qui
+     * compte aussi les comptes dont la lecture a échoué.
+     * </p>
+     *
+     * @param crawler Crawler portant la profondeur, la concurrence et le budget de requêtes du parcours.
+     * @param username Compte racine du parcours.
+     * @return Un observable émettant des lots non vides d'utilisateurs découverts, observés sur le thread principal.
+     */
+    public static Observable<List<FollowGraphCrawler.Discovery>> streamCrawlFollowGraph(FollowGraphCrawler crawler, String username) {
+        return crawler.crawl(username)
+                .buffer(CRAWL_BATCH_MILLIS, TimeUnit.MILLISECONDS)
+                .filter(batch -> !batch.isEmpty())
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * Recherche des utilisateurs GitHub pendant la saisie.
+     * <p>
+     * La requête n'est envoyée qu'après une courte pause dans la saisie ; enchaînés avec {@code switchMap},
+     * les appels successifs annulent la recherche précédente. Les résultats déjà obtenus sont servis sans
+     * délai depuis un cache partagé.
+     * </p>
+     *
+     * @param query Texte recherché.
+     * @return Un observable émettant les utilisateurs trouvés, observés sur le thread principal.
+     * @see RemoteUserSearch
+     */
+    public static Observable<List<GithubUser>> streamSearchUsers(String query) {
+        return userSearch().search(query)
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * Recherche des utilisateurs GitHub pour chaque texte saisi.
+     *
+     * @param queries Textes saisis.
+     * @return Un observable émettant les résultats de la dernière requête, observés sur le thread principal.
+     */
+    public static Observable<List<GithubUser>> streamSearchUsers(Observable<String> queries) {
+        return userSearch().search(queries)
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * Observe le budget de requêtes restant sur l'API GitHub.
+     *
+     * @return Un observable émettant le dernier budget connu puis chacune de ses mises à jour, sur le thread principal.
+     */
+    public static Observable<RateLimitScheduler.Budget> streamRateLimitBudget() {
+        return GithubClient.getInstance().getRateLimitScheduler().observeBudget()
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    /**
+     * Retourne le cache mémoire des informations utilisateur partagé par les flux.
+     *
+     * @return Le cache des informations utilisateur.
+     */
+    public static UserInfoCache getUserInfoCache() {
+        return userInfoCache;
+    }
+
+    // Les utilisateurs déjà en cache sont servis directement, les autres sont planifiés en priorité de fond
+    private static Observable<GithubUserInfo> fetchUserInfosInBackground(String login) {
+        Observable<GithubUserInfo> lookup = userInfoCache.get(login);
+        return userInfoCache.peek(login) != null ? lookup : scheduleBackground("users/" + login, lookup);
+    }
+
+    // Planifie une requête de préchargement ou d'enrichissement auprès du planificateur de quota
+    private static <T> Observable<T> scheduleBackground(String key, Observable<T> request) {
+        return GithubClient.getInstance().getRateLimitScheduler()
+                .schedule(key, RateLimitScheduler.Priority.BACKGROUND, request);
+    }
+
+    // -------------------
+    // LOCAL STORE
+    // -------------------
+
+    /**
+     * Lit depuis la base locale la dernière liste connue des utilisateurs suivis.
+     * <p>
+     * La lecture est faite sur un thread de fond et le résultat est observé sur le thread principal.
+     * Elle permet d'afficher la liste immédiatement au démarrage, avant la réponse du réseau.
+     * </p>
+     *
+     * @param username Nom d'utilisateur GitHub dont on veut la liste des abonnements.
+     * @return Un observable contenant la liste stockée (vide si rien n'est stocké).
+     */
+    public static Observable<List<GithubUser>> streamLoadStoredFollowing(String username) {
+        return Observable.fromCallable(() -> {
+                    GithubUserDao dao = GithubUserDao.getInstance();
+                    return dao != null ? registry.canonicalizeAll(dao.getFollowing(username)) : Collections.<GithubUser>emptyList();
+                })
+                .subscribeOn(Schedulers.io())
+                .observeOn(AndroidSchedulers.mainThread());
+    }
+
+    // Lit d'abord la base locale puis le réseau ; si une valeur locale existe, une erreur réseau est ignorée
+    static Observable<GithubUserInfo> fetchUserInfosOfflineFirst(String login) {
+        GithubUserDao dao = GithubUserDao.getInstance();
+        // Un Call ne s'exécute qu'une fois : il est recréé à chaque tentative
+        Observable<GithubUserInfo> network = resilience().execute(ENDPOINT_USER, Observable.defer(() ->
+                        RxUtils.makeObservable(GithubClient.getInstance().getGithubService().getUserInfos(login))))
+                .map(registry::canonicalize);
+        if (dao == null) return network;
+
+        network = network.doOnNext(dao::saveUserInfo);
+        GithubUserInfo stored = registry.canonicalize(dao.getUserInfo(login));
+        if (stored == null) return network;
+        return Observable.just(stored).concatWith(network.onErrorResumeNext(Observable.<GithubUserInfo>empty()));
+    }
+
+    // -------------------
+    // PAGINATION
+    // -------------------
+
+    // Première page des abonnements, sans changement de thread :
+    // 1. avec un jeton, elle est chargée en GraphQL avec les informations détaillées ; si cette requête échoue, ou
+    //    sans jeton, elle est lue par l'API REST ;
+    // 2. par l'API REST, elle est décodée au fil de la réception (voir fetchFollowingFirstPageStreaming). Si rien n'est
+    //    encore stocké, elle est émise plusieurs fois, de plus en plus complète, pour que la liste se remplisse pendant
+    //    le téléchargement ; sinon, seule la page entière est émise et la liste stockée reste affichée jusque-là ;
+    // 3. la page entière est fusionnée dans la liste stockée, dont les pages suivantes déjà chargées sont conservées
+    //    (voir FollowingDelta) ;
+    // 4. si GitHub est indisponible, la liste stockée est servie à la place.
+    // Un chargement déjà en cours pour ce compte est partagé.
+    static Observable<GithubUserPage> fetchFollowingFirstPage(String username) {
+        Observable<GithubUserPage> network = Observable.defer(() -> {
+            GithubUserDao stored = GithubUserDao.getInstance();
+            Observable<GithubUserPage> rest = fetchFollowingFirstPageStreaming(username);
+            if (stored != null && stored.hasFollowing(username)) rest = rest.takeLast(1);
+            GithubUserPage[] received = new GithubUserPage[1];
+            return (graphQL().isAvailable() ? graphQL().fetchFirstPage(username).onErrorResumeNext(rest) : rest)
+                    .doOnNext(page -> received[0] = page)
+                    .doOnComplete(() -> {
+                        GithubUserDao dao = GithubUserDao.getInstance();
+                        if (dao != null && received[0] != null) {
+                            dao.applyFollowingFirstPage(username, received[0].getUsers(), !received[0].hasNext());
+                        }
+                    });
+        });
+        return coalescer.coalesce("following/" + Logins.key(username) + "?page=1",
+                resilience().execute(ENDPOINT_FOLLOWING, network, loadStoredFollowingPage(username)));
+    }
+
+    // Première page REST décodée au fil de la réception (GithubUserStreamDecoder), pour afficher les premières lignes
+    // avant la fin du téléchargement. Les utilisateurs sont regroupés par lots (STREAM_BATCH_SIZE au plus, ou ce qui
+    // a été reçu en STREAM_BATCH_MILLIS ms) et chaque lot émet la page reçue jusque-là : une nouvelle tentative ou un
+    // abonné tardif du coalesceur repart donc d'une page cohérente. L'URL suivante est lue dans l'en-tête Link, avant
+    // le corps. Une liste vide émet une page vide
+    static Observable<GithubUserPage> fetchFollowingFirstPageStreaming(String username) {
+        GithubService gitHubService = GithubClient.getInstance().getGithubService();
+        return Observable.defer(() -> {
+            Call<ResponseBody> call = gitHubService.getFollowingStream(username, FOLLOWING_PAGE_SIZE);
+            String[] nextUrl = new String[1];
+            List<GithubUser> received = new ArrayList<>();
+            return GithubUserStreamDecoder.decode(() -> {
+                        Response<ResponseBody> response = call.execute();
+                        if (!response.isSuccessful() || response.body() == null) {
+                            throw new HttpException(response);
+                        }
+                        nextUrl[0] = LinkHeaderParser.parseNextUrl(response.headers().get("Link"));
+                        return response.body();
+                    })
+                    .doOnCancel(call::cancel)
+                    .map(registry::canonicalize)
+                    .buffer(STREAM_BATCH_MILLIS, TimeUnit.MILLISECONDS, STREAM_BATCH_SIZE)
+                    .filter(batch -> !batch.isEmpty())
+                    .map(batch -> {
+                        received.addAll(batch);
+                        return new GithubUserPage(new ArrayList<>(received), nextUrl[0]);
+                    })
+                    .toObservable()
+                    .concatWith(Observable.defer(() -> received.isEmpty()
+                            ? Observable.just(new GithubUserPage(Collections.<GithubUser>emptyList(), nextUrl[0]))
+                            : Observable.<GithubUserPage>empty()));
+        });
+    }
+
+    // Liste stockée présentée comme une page unique, ou aucune valeur si rien n'est stocké
+    private static Observable<GithubUserPage> loadStoredFollowingPage(String username) {
+        return Observable.defer(() -> {
+            GithubUserDao dao = GithubUserDao.getInstance();
+            List<GithubUser> stored = dao != null ? dao.getFollowing(username) : Collections.<GithubUser>emptyList();
+            return stored.isEmpty()
+                    ? Observable.<GithubUserPage>empty()
+                    : Observable.just(new GithubUserPage(registry.canonicalizeAll(stored), null));
+        });
+    }
+
+    // Page située à une URL donnée, sans changement de thread ; elle est ajoutée à la liste stockée.
+    // Une page annoncée par la source GraphQL est chargée par elle, et par l'API REST en cas d'échec.
+    // Un chargement déjà en cours pour cette URL est partagé
+    static Observable<GithubUserPage> fetchFollowingPageAt(String username, String pageUrl) {
+        GithubService gitHubService = GithubClient.getInstance().getGithubService();
+        Observable<GithubUserPage> rest = gitHubService.getFollowingPageAt(pageUrl)
+                .map(GithubStreams::toPage);
+        return coalescer.coalesce(pageUrl, resilience().execute(ENDPOINT_FOLLOWING, Observable.defer(() -> graphQL().canContinue(pageUrl)
+                        ? graphQL().fetchPageAt(username, pageUrl).onErrorResumeNext(rest)
+                        : rest)
+                .doOnNext(page -> {
+                    GithubUserDao dao = GithubUserDao.getInstance();
+                    if (dao != null) dao.appendFollowing(username, page.getUsers());
+                })));
+    }
+
+    // Créée au premier chargement, une fois le client initialisé
+    private static synchronized GraphQLFollowingSource graphQL() {
+        if (graphQLSource == null) graphQLSource = new GraphQLFollowingSource(GithubClient.getInstance(), userInfoCache);
+        return graphQLSource;
+    }
+
+    // Créée à la première recherche, une fois le client initialisé
+    private static synchronized RemoteUserSearch userSearch() {
+        if (userSearch == null) userSearch = new RemoteUserSearch();
+        return userSearch;
+    }
+
+    private static Resilience resilience() {
+        return GithubClient.getInstance().getResilience();
+    }
+
+    // Ensemble d'identifiants en cache s'il est encore valide, sinon lu (une seule fois pour tous les abonnés de la clé)
+    private static Observable<long[]> cachedIds(String key, String endpoint,
+                                                Callable<Observable<Response<List<GithubUser>>>> firstPage,
+                                                Function<String, Observable<Response<List<GithubUser>>>> pageAt) {
+        return Observable.defer(() -> {
+            CachedIds cached;
+            synchronized (idSets) {
+                cached = idSets.get(key);
+            }
+            if (cached != null && !cached.isExpired(System.nanoTime())) {
+                return cached.ids != null ? Observable.just(cached.ids) : Observable.<long[]>empty();
+            }
+            return coalescer.coalesce("ids/" + key, fetchIds(key, endpoint, firstPage, pageAt)
+                    .toList()
+                    .doOnSuccess(result -> {
+                        synchronized (idSets) {
+                            idSets.put(key, new CachedIds(result.isEmpty() ? null : result.get(0)));
+                        }
+                    })
+                    .flattenAsObservable(result -> result));
+        });
+    }
+
+    // Lit en priorité de fond toutes les pages d'une liste d'utilisateurs et en renvoie les identifiants triés ;
+    // se termine sans valeur si la liste dépasse MAX_ID_SET_PAGES pages, car l'ensemble serait tronqué
+    private static Observable<long[]> fetchIds(String key, String endpoint, Callable<Observable<Response<List<GithubUser>>>> firstPage,
+                                               Function<String, Observable<Response<List<GithubUser>>>> pageAt) {
+        return scheduleBackground(key + "?page=1", resilience().execute(endpoint, Observable.defer(firstPage)))
+                .concatMap(response -> {
+                    if (LinkHeaderParser.parseLastPage(response.headers().get("Link")) > MAX_ID_SET_PAGES) {
+                        return Observable.<long[]>empty();
+                    }
+                    LongHashSet ids = new LongHashSet();
+                    boolean[] truncated = {false};
+                    return fetchPages(endpoint, Observable.just(toPage(response)), pageAt, MAX_ID_SET_PAGES - 1)
+                            .doOnNext(page -> {
+                                for (GithubUser user : page.getUsers()) {
+                                    if (user.getId() != null) ids.add(user.getId());
+                                }
+                                truncated[0] = page.hasNext();
+                            })
+                            .ignoreElements()
+                            .andThen(Observable.defer(() -> truncated[0]
+                                    ? Observable.<long[]>empty()
+                                    : Observable.just(ids.toSortedArray())));
+                });
+    }
+
+    // Émet la page reçue puis au plus remaining pages suivantes, lues avec pageAt (méthode propre à la liste, pour que
+    // les mesures soient comptées sur son endpoint) et planifiées en priorité de fond, sans écrire dans la base locale
+    private static Observable<GithubUserPage> fetchPages(String endpoint, Observable<GithubUserPage> page,
+                                                         Function<String, Observable<Response<List<GithubUser>>>> pageAt,
+                                                         int remaining) {
+        return page.concatMap(current -> current.hasNext() && remaining > 0
+                ? Observable.just(current).concatWith(fetchPages(endpoint,
+                        scheduleBackground(current.getNextUrl(), resilience().execute(endpoint,
+                                pageAt.apply(current.getNextUrl()))).map(GithubStreams::toPage),
+                        pageAt, remaining - 1))
+                : Observable.just(current));
+    }
+
+    // Ensemble d'identifiants lu, ou null si la liste était trop longue, avec son échéance
+    private static final class CachedIds {
+        final long[] ids;
+        final long expiresAtNanos = System.nanoTime() + TimeUnit.MINUTES.toNanos(ID_SET_TTL_MINUTES);
+
+        CachedIds(long[] ids) {
+            this.ids = ids;
+        }
+
+        boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos > 0;
+        }
+    }
+
+    // Convertit une réponse HTTP en page d'instances canoniques, en lisant l'URL suivante dans l'en-tête Link
+    static GithubUserPage toPage(Response<List<GithubUser>> response) {
+        if (!response.isSuccessful() || response.body() == null) {
+            throw new HttpException(response);
+        }
+        return new GithubUserPage(registry.canonicalizeAll(response.body()), LinkHeaderParser.parseNextUrl(response.headers().get("Link")));
+    }
+}
@@ -0,0 +1,190 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table d'identité des utilisateurs GitHub, indexée par id, partagée par tous les écrans.
+ * <p>
+ * Chaque réponse réseau ou lecture locale crée de nouvelles instances pour des comptes déjà en
+ * mémoire. En passant par {@link #canonicalize(GithubUser)}, un utilisateur dont le contenu n'a
+ * pas changé est remplacé par l'instance déjà connue, et la copie reçue devient immédiatement
+ * collectable. Si le contenu a changé, la nouvelle instance devient la référence et reprend les
+ * chaînes identiques de l'ancienne (login, URL d'avatar...), de sorte qu'une même chaîne n'existe
+ * qu'une fois par compte ; le type de compte, commun à tous, est interné.
+ * </p>
+ * <p>
+ * Les instances ne sont jamais modifiées après leur enregistrement : une liste déjà transmise à
+ * {@code ListAdapter} garde ainsi ses anciennes valeurs et le calcul de différence détecte les
+ * lignes à rafraîchir. Les entrées sont des références faibles : un utilisateur qui n'est plus
+ * affiché ni en cache est libéré par le ramasse-miettes, et son entrée purgée au prochain appel.
+ * </p>
+ */
+public class GithubUserRegistry {
+
+    private static final GithubUserRegistry instance = new GithubUserRegistry();
+
+    private final Map<Integer, Entry<GithubUser>> users = new HashMap<>();
+    private final Map<Integer, Entry<GithubUserInfo>> infos = new HashMap<>();
+    private final ReferenceQueue<GithubUser> collectedUsers = new ReferenceQueue<>();
+    private final ReferenceQueue<GithubUserInfo> collectedInfos = new ReferenceQueue<>();
+
+    public static GithubUserRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Retourne l'instance canonique d'un utilisateur.
+     *
+     * @param user Utilisateur reçu.
+     * @return L'instance déjà connue si son contenu est identique, sinon {@code user}, qui devient la référence.
+     */
+    public synchronized GithubUser canonicalize(GithubUser user) {
+        if (user == null || user.getId() == null) return user;
+        expungeCollected();
+        user.setType(intern(user.getType()));
+        GithubUser known = get(users, user.getId());
+        if (known != null) {
+            if (sameContent(known, user)) return known;
+            user.setLogin(reuse(known.getLogin(), user.getLogin()));
+            user.setAvatarUrl(reuse(known.getAvatarUrl(), user.getAvatarUrl()));
+        } else {
+            GithubUserInfo info = get(infos, user.getId());
+            if (info != null) {
+                user.setLogin(reuse(info.getLogin(), user.getLogin()));
+                user.setAvatarUrl(reuse(info.getAvatarUrl(), user.getAvatarUrl()));
+            }
+        }
+        users.put(user.getId(), new Entry<>(user.getId(), user, collectedUsers));
+        return user;
+    }
+
+    /**
+     * Retourne les instances canoniques d'une liste d'utilisateurs, dans le même ordre.
+     *
+     * @param received Utilisateurs reçus.
+     * @return Une nouvelle liste d'instances canoniques.
+     */
+    public synchronized List<GithubUser> canonicalizeAll(List<GithubUser> received) {
+        List<GithubUser> result = new ArrayList<>(received.size());
+        for (GithubUser user : received) {
+            result.add(canonicalize(user));
+        }
+        return result;
+    }
+
+    /**
+     * Retourne l'instance canonique des informations détaillées d'un utilisateur.
+     *
+     * @param info Informations reçues.
+     * @return L'instance déjà connue si son contenu est identique, sinon {@code info}, qui devient la référence.
+     */
+    public synchronized GithubUserInfo canonicalize(GithubUserInfo info) {
+        if (info == null || info.getId() == null) return info;
+        expungeCollected();
+        info.setType(intern(info.getType()));
+        GithubUserInfo known = get(infos, info.getId());
+        if (known != null && sameContent(known, info)) return known;
+        GithubUser user = get(users, info.getId());
+        if (known != null) {
+            info.setLogin(reuse(known.getLogin(), info.getLogin()));
+            info.setAvatarUrl(reuse(known.getAvatarUrl(), info.getAvatarUrl()));
+            info.setName(reuse(known.getName(), info.getName()));
+            info.setCompany(reuse(known.getCompany(), info.getCompany()));
+            info.setLocation(reuse(known.getLocation(), info.getLocation()));
+        } else if (user != null) {
+            info.setLogin(reuse(user.getLogin(), info.getLogin()));
+            info.setAvatarUrl(reuse(user.getAvatarUrl(), info.getAvatarUrl()));
+        }
+        infos.put(info.getId(), new Entry<>(info.getId(), info, collectedInfos));
+        return info;
+    }
+
+    /**
+     * @param id Identifiant GitHub.
+     * @return L'utilisateur canonique encore en mémoire, ou null.
+     */
+    public synchronized GithubUser getUser(int id) {
+        return get(users, id);
+    }
+
+    /**
+     * @param id Identifiant GitHub.
+     * @return Les informations canoniques encore en mémoire, ou null.
+     */
+    public synchronized GithubUserInfo getUserInfo(int id) {
+        return get(infos, id);
+    }
+
+    // Nombre d'entrées encore référencées (utilisateurs et informations)
+    public synchronized int size() {
+        expungeCollected();
+        return users.size() + infos.size();
+    }
+
+    private static <T> T get(Map<Integer, Entry<T>> entries, int id) {
+        Entry<T> entry = entries.get(id);
+        return entry != null ? entry.get() : null;
+    }
+
+    // Retire les entrées dont l'instance a été collectée, sans toucher à celles remplacées depuis
+    private void expungeCollected() {
+        Object collected;
+        while ((collected = collectedUsers.poll()) != null) {
+            Entry<?> entry = (Entry<?>) collected;
+            if (users.get(entry.id) == entry) users.remove(entry.id);
+        }
+        while ((collected = collectedInfos.poll()) != null) {
+            Entry<?> entry = (Entry<?>) collected;
+            if (infos.get(entry.id) == entry) infos.remove(entry.id);
+        }
+    }
+
+    // Réutilise la chaîne déjà connue lorsqu'elle est égale à la chaîne reçue
+    private static String reuse(String known, String received) {
+        return known != null && known.equals(received) ? known : received;
+    }
+
+    // Le type ("User", "Organization"...) ne prend que quelques valeurs : une seule instance par valeur suffit
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+
+    private static boolean sameContent(GithubUser a, GithubUser b) {
+        return equal(a.getLogin(), b.getLogin())
+                && equal(a.getAvatarUrl(), b.getAvatarUrl())
+                && equal(a.getType(), b.getType());
+    }
+
+    private static boolean sameContent(GithubUserInfo a, GithubUserInfo b) {
+        return equal(a.getLogin(), b.getLogin())
+                && equal(a.getAvatarUrl(), b.getAvatarUrl())
+                && equal(a.getType(), b.getType())
+                && equal(a.getName(), b.getName())
+                && equal(a.getCompany(), b.getCompany())
+                && equal(a.getLocation(), b.getLocation())
+                && equal(a.getPublicRepos(), b.getPublicRepos())
+                && equal(a.getFollowers(), b.getFollowers())
+                && equal(a.getFollowing(), b.getFollowing());
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static final class Entry<T> extends WeakReference<T> {
+        final int id;
+
+        Entry(int id, T referent, ReferenceQueue<? super T> queue) {
+            super(referent, queue);
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import io.reactivex.Flowable;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * Décode un tableau JSON d'utilisateurs GitHub au fil de la lecture du corps de la réponse.
+ * <p>
+ * Au lieu de charger tout le corps puis de construire la liste complète, le décodeur lit un
+ * {@link JsonReader} posé directement sur le flux du corps et ne matérialise qu'un utilisateur à
+ * la fois. La mémoire utilisée reste donc constante quelle que soit la taille de la page, et le
+ * premier utilisateur est disponible avant que le dernier octet ne soit reçu.
+ * </p>
+ * <p>
+ * {@link #decode(Call)} expose ce décodage sous forme de {@link Flowable} : chaque utilisateur
+ * n'est lu qu'à la demande de l'abonné (backpressure), et le corps est fermé à la fin du flux,
+ * en cas d'erreur ou d'annulation.
+ * </p>
+ */
+public class GithubUserStreamDecoder implements Closeable {
+
+    // Adaptateur Gson par réflexion, identique à celui utilisé par le convertisseur de Retrofit
+    private static final TypeAdapter<GithubUser> USER_ADAPTER = new Gson().getAdapter(GithubUser.class);
+
+    private final ResponseBody body;
+    private final JsonReader reader;
+    private boolean started;
+
+    /**
+     * @param body Corps de la réponse, contenant un tableau JSON d'utilisateurs.
+     */
+    public GithubUserStreamDecoder(ResponseBody body) {
+        this.body = body;
+        this.reader = new JsonReader(body.charStream());
+    }
+
+    /**
+     * Indique s'il reste un utilisateur à lire dans le tableau.
+     *
+     * @return true si {@link #next()} peut être appelée.
+     * @throws IOException Si la lecture du flux échoue ou si le JSON n'est pas un tableau.
+     */
+    public boolean hasNext() throws IOException {
+        if (!started) {
+            reader.beginArray();
+            started = true;
+        }
+        if (reader.hasNext()) return true;
+        if (reader.peek() == JsonToken.END_ARRAY) reader.endArray();
+        return false;
+    }
+
+    /**
+     * Lit l'utilisateur suivant du tableau.
+     *
+     * @return L'utilisateur décodé.
+     * @throws IOException Si la lecture du flux échoue.
+     */
+    public GithubUser next() throws IOException {
+        return USER_ADAPTER.read(reader);
+    }
+
+    @Override
+    public void close() {
+        body.close();
+    }
+
+    /**
+     * Exécute l'appel et émet les utilisateurs un par un, au rythme demandé par l'abonné.
+     * <p>
+     * L'appel est exécuté de façon synchrone à l'abonnement : le flux doit donc être souscrit sur un
+     * thread de fond. Une réponse en erreur est signalée par une {@link HttpException}. L'annulation
+     * de l'abonnement annule l'appel et interrompt la lecture du corps.
+     * </p>
+     *
+     * @param call Appel dont le corps est un tableau JSON d'utilisateurs, déclaré avec {@code @Streaming}.
+     * @return Un flowable émettant chaque utilisateur dès son décodage.
+     */
+    public static Flowable<GithubUser> decode(Call<ResponseBody> call) {
+        return decode(() -> {
+            Response<ResponseBody> response = call.execute();
+            if (!response.isSuccessful() || response.body() == null) {
+                throw new HttpException(response);
+            }
+            return response.body();
+        }).doOnCancel(call::cancel);
+    }
+
+    /**
+     * Décode le corps fourni par {@code bodySource} à l'abonnement.
+     *
+     * @param bodySource Fournit le corps de la réponse à décoder.
+     * @return Un flowable émettant chaque utilisateur dès son décodage.
+     */
+    public static Flowable<GithubUser> decode(Callable<ResponseBody> bodySource) {
+        return Flowable.generate(
+                () -> new GithubUserStreamDecoder(bodySource.call()),
+                (decoder, emitter) -> {
+                    if (decoder.hasNext()) {
+                        emitter.onNext(decoder.next());
+                    } else {
+                        emitter.onComplete();
+                    }
+                },
+                GithubUserStreamDecoder::close);
+    }
+}
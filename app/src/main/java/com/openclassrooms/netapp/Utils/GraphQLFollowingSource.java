@@ -0,0 +1,209 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.openclassrooms.netapp.Models.GithubUserPage;
+import com.openclassrooms.netapp.Models.GraphQLFollowingResponse;
+import com.openclassrooms.netapp.Models.GraphQLRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Source des utilisateurs suivis fondée sur l'API GraphQL de GitHub.
+ * <p>
+ * Avec l'API REST, afficher une page de N utilisateurs et leurs compteurs coûte 1 + N requêtes : la page,
+ * puis le détail de chaque utilisateur. Ici, une seule requête GraphQL renvoie la page avec exactement les
+ * champs affichés ; les informations détaillées sont converties en {@link GithubUserInfo} et placées dans
+ * le {@link UserInfoCache}, si bien que l'enrichissement de la liste les trouve sans appel réseau.
+ * </p>
+ * <p>
+ * L'API GraphQL exige un jeton : sans jeton, {@link #isAvailable()} est faux et l'API REST reste utilisée.
+ * Les pages renvoyées portent l'URL REST de la page suivante, comme les pages REST ; le curseur GraphQL
+ * correspondant est retenu pour que {@link #fetchPageAt(String, String)} continue en GraphQL. Si une
+ * requête GraphQL échoue, l'appelant peut donc charger la même page par l'API REST.
+ * </p>
+ */
+public class GraphQLFollowingSource {
+
+    // Requête des utilisateurs suivis, limitée aux champs de GithubUser et GithubUserInfo
+    static final String FOLLOWING_QUERY = "query($login: String!, $first: Int!, $after: String) {"
+            + " user(login: $login) {"
+            + " following(first: $first, after: $after) {"
+            + " pageInfo { hasNextPage endCursor }"
+            + " nodes { __typename login databaseId avatarUrl name company location"
+            + " followers { totalCount } following { totalCount }"
+            + " repositories(privacy: PUBLIC, ownerAffiliations: OWNER) { totalCount } } } } }";
+    // Nombre de curseurs retenus, un par liste en cours de défilement
+    private static final int MAX_CONTINUATIONS = 32;
+
+    private final GithubClient client;
+    private final UserInfoCache userInfoCache;
+    private final GithubUserRegistry registry = GithubUserRegistry.getInstance();
+    // URL REST de la page suivante -> curseur GraphQL équivalent
+    private final Map<String, Continuation> continuations = new LinkedHashMap<String, Continuation>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Continuation> eldest) {
+            return size() > MAX_CONTINUATIONS;
+        }
+    };
+
+    /**
+     * @param client Client authentifié qui porte l'API GraphQL.
+     * @param userInfoCache Cache alimenté avec les informations détaillées reçues.
+     */
+    public GraphQLFollowingSource(GithubClient client, UserInfoCache userInfoCache) {
+        this.client = client;
+        this.userInfoCache = userInfoCache;
+    }
+
+    // Vrai si un jeton est enregistré : l'API GraphQL refuse les requêtes anonymes
+    public boolean isAvailable() {
+        return client.isAuthenticated();
+    }
+
+    /**
+     * Charge la première page des utilisateurs suivis avec leurs informations détaillées.
+     *
+     * @param username Nom d'utilisateur GitHub dont on veut la liste des abonnements.
+     * @return Un observable émettant la page, sur un thread de fond.
+     */
+    public Observable<GithubUserPage> fetchFirstPage(String username) {
+        return fetchPage(username, null, 1);
+    }
+
+    /**
+     * @param pageUrl URL de page suivante renvoyée par une page précédente.
+     * @return Vrai si cette page peut être chargée en GraphQL.
+     */
+    public synchronized boolean canContinue(String pageUrl) {
+        return isAvailable() && continuations.containsKey(pageUrl);
+    }
+
+    /**
+     * Charge la page désignée par une URL obtenue d'une page précédente de cette source.
+     *
+     * @param username Nom d'utilisateur GitHub dont on veut la liste des abonnements.
+     * @param pageUrl URL REST de la page, telle que renvoyée par {@link GithubUserPage#getNextUrl()}.
+     * @return Un observable émettant la page, ou une erreur si l'URL n'est pas connue de cette source.
+     */
+    public Observable<GithubUserPage> fetchPageAt(String username, String pageUrl) {
+        Continuation continuation;
+        synchronized (this) {
+            continuation = continuations.get(pageUrl);
+        }
+        if (continuation == null) {
+            return Observable.error(new GraphQLException("No GraphQL cursor for " + pageUrl));
+        }
+        return fetchPage(username, continuation.cursor, continuation.page);
+    }
+
+    private Observable<GithubUserPage> fetchPage(String username, String cursor, int page) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("login", username);
+        variables.put("first", GithubStreams.FOLLOWING_PAGE_SIZE);
+        variables.put("after", cursor);
+        GraphQLRequest request = new GraphQLRequest(FOLLOWING_QUERY, variables);
+        return client.getRateLimitScheduler()
+                .schedule(RateLimitScheduler.RESOURCE_GRAPHQL, "graphql/following/" + username,
+                        RateLimitScheduler.Priority.FOREGROUND,
+                        Observable.defer(() -> client.getGithubService().queryFollowing(request)))
+                .subscribeOn(Schedulers.io())
+                .map(response -> toPage(username, response, page));
+    }
+
+    // Convertit la réponse en page d'instances canoniques et place les informations détaillées en cache
+    private GithubUserPage toPage(String username, GraphQLFollowingResponse response, int page) throws GraphQLException {
+        if (response.getErrors() != null && !response.getErrors().isEmpty()) {
+            throw new GraphQLException(response.getErrors().get(0).getMessage());
+        }
+        GraphQLFollowingResponse.Following following = response.getData() != null && response.getData().getUser() != null
+                ? response.getData().getUser().getFollowing() : null;
+        if (following == null || following.getNodes() == null) {
+            throw new GraphQLException("Missing following for " + username);
+        }
+
+        List<GithubUser> users = new ArrayList<>(following.getNodes().size());
+        for (GraphQLFollowingResponse.Node node : following.getNodes()) {
+            if (node == null || node.getDatabaseId() == null) continue;
+            users.add(toUser(node));
+            userInfoCache.put(registry.canonicalize(toUserInfo(node)));
+        }
+
+        String nextUrl = null;
+        GraphQLFollowingResponse.PageInfo pageInfo = following.getPageInfo();
+        if (pageInfo != null && pageInfo.hasNextPage() && pageInfo.getEndCursor() != null) {
+            nextUrl = restPageUrl(username, page + 1);
+            synchronized (this) {
+                continuations.put(nextUrl, new Continuation(pageInfo.getEndCursor(), page + 1));
+            }
+        }
+        return new GithubUserPage(registry.canonicalizeAll(users), nextUrl);
+    }
+
+    // URL de la même page dans l'API REST, pour pouvoir la recharger par ce biais
+    private String restPageUrl(String username, int page) {
+        return client.getRetrofit().baseUrl().newBuilder()
+                .addPathSegment("users")
+                .addPathSegment(username)
+                .addPathSegment("following")
+                .addQueryParameter("per_page", String.valueOf(GithubStreams.FOLLOWING_PAGE_SIZE))
+                .addQueryParameter("page", String.valueOf(page))
+                .build()
+                .toString();
+    }
+
+    static GithubUser toUser(GraphQLFollowingResponse.Node node) {
+        GithubUser user = new GithubUser();
+        user.setLogin(node.getLogin());
+        user.setId(node.getDatabaseId());
+        user.setAvatarUrl(node.getAvatarUrl());
+        user.setType(node.getTypename());
+        return user;
+    }
+
+    static GithubUserInfo toUserInfo(GraphQLFollowingResponse.Node node) {
+        GithubUserInfo info = new GithubUserInfo();
+        info.setLogin(node.getLogin());
+        info.setId(node.getDatabaseId());
+        info.setAvatarUrl(node.getAvatarUrl());
+        info.setType(node.getTypename());
+        info.setName(node.getName());
+        info.setCompany(node.getCompany());
+        info.setLocation(node.getLocation());
+        info.setFollowers(totalOf(node.getFollowers()));
+        info.setFollowing(totalOf(node.getFollowing()));
+        info.setPublicRepos(totalOf(node.getRepositories()));
+        return info;
+    }
+
+    private static Integer totalOf(GraphQLFollowingResponse.Count count) {
+        return count != null ? count.getTotalCount() : null;
+    }
+
+    /**
+     * Erreur renvoyée par l'API GraphQL dans une réponse 200, ou réponse incomplète.
+     */
+    public static final class GraphQLException extends Exception {
+        GraphQLException(String message) {
+            super(message);
+        }
+    }
+
+    // Curseur GraphQL et numéro de la page qu'il désigne
+    private static final class Continuation {
+        final String cursor;
+        final int page;
+
+        Continuation(String cursor, int page) {
+            this.cursor = cursor;
+            this.page = page;
+        }
+    }
+}
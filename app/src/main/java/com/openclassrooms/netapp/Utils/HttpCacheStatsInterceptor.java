@@ -0,0 +1,83 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Intercepteur qui compte l'issue de chaque requête vis-à-vis du cache disque d'OkHttp.
+ * <p>
+ * Une réponse servie uniquement depuis le cache est un succès ("hit"), une réponse 304
+ * obtenue grâce à une requête conditionnelle (If-None-Match / If-Modified-Since) est une
+ * revalidation, et toute réponse dont le corps provient du réseau est un échec ("miss").
+ * Il doit être ajouté comme intercepteur applicatif pour voir la réponse finale.
+ * </p>
+ * <p>
+ * Construit avec un {@link NetworkMetrics}, il reporte aussi chaque issue dans les mesures de l'endpoint
+ * de la requête : la classification n'est faite qu'ici.
+ * </p>
+ */
+public class HttpCacheStatsInterceptor implements Interceptor {
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong revalidatedCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    // Mesures par endpoint à tenir à jour, ou null
+    private final NetworkMetrics networkMetrics;
+
+    public HttpCacheStatsInterceptor() {
+        this(null);
+    }
+
+    /**
+     * @param networkMetrics Mesures par endpoint qui reçoivent aussi les issues du cache, ou null.
+     */
+    public HttpCacheStatsInterceptor(NetworkMetrics networkMetrics) {
+        this.networkMetrics = networkMetrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Response response = chain.proceed(chain.request());
+        Response cacheResponse = response.cacheResponse();
+        Response networkResponse = response.networkResponse();
+        EndpointMetrics metrics = networkMetrics != null
+                ? networkMetrics.getMetrics(NetworkMetrics.endpointOf(chain.request())) : null;
+
+        if (cacheResponse != null && networkResponse == null) {
+            hitCount.incrementAndGet();
+            if (metrics != null) metrics.recordCacheHit();
+        } else if (cacheResponse != null && networkResponse.code() == 304) {
+            revalidatedCount.incrementAndGet();
+            if (metrics != null) metrics.recordConditionalHit();
+        } else if (networkResponse != null) {
+            missCount.incrementAndGet();
+            if (metrics != null) metrics.recordNetwork();
+        }
+        return response;
+    }
+
+    // Nombre de réponses servies directement depuis le cache, sans aller sur le réseau
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    // Nombre de réponses revalidées par un 304 Not Modified
+    public long getRevalidatedCount() {
+        return revalidatedCount.get();
+    }
+
+    // Nombre de réponses dont le corps a été téléchargé
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheStats{hit=" + getHitCount()
+                + ", revalidated=" + getRevalidatedCount()
+                + ", miss=" + getMissCount() + "}";
+    }
+}
@@ -0,0 +1,115 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Opérations ensemblistes sur des identifiants d'utilisateurs GitHub rangés dans des {@code long[]} triés.
+ * <p>
+ * Un ensemble est un tableau trié par ordre croissant et sans doublon, tel que renvoyé par
+ * {@link #of(List)} ou {@link LongHashSet#toSortedArray()}. Les intersections et différences sont des fusions
+ * linéaires (ou des recherches dichotomiques quand un ensemble est beaucoup plus petit que l'autre) : elles
+ * n'allouent que le tableau résultat, quelle que soit la taille des ensembles.
+ * </p>
+ */
+public final class IdSets {
+
+    // Au-delà de ce rapport de tailles, chercher chaque élément du petit ensemble dans le grand est plus rapide
+    private static final int BINARY_SEARCH_RATIO = 32;
+
+    private IdSets() { }
+
+    /**
+     * @param users Utilisateurs, dans un ordre quelconque.
+     * @return Les identifiants des utilisateurs, triés et sans doublon ; les identifiants nuls sont ignorés.
+     */
+    public static long[] of(List<GithubUser> users) {
+        long[] ids = new long[users.size()];
+        int count = 0;
+        for (GithubUser user : users) {
+            if (user.getId() != null) ids[count++] = user.getId();
+        }
+        Arrays.sort(ids, 0, count);
+        return Arrays.copyOf(ids, unique(ids, count));
+    }
+
+    public static boolean contains(long[] set, long id) {
+        return Arrays.binarySearch(set, id) >= 0;
+    }
+
+    /**
+     * @return Les identifiants présents dans les deux ensembles.
+     */
+    public static long[] intersection(long[] a, long[] b) {
+        if (a.length > b.length) return intersection(b, a);
+        long[] result = new long[a.length];
+        int count = 0;
+        if ((long) a.length * BINARY_SEARCH_RATIO < b.length) {
+            for (long id : a) {
+                if (contains(b, id)) result[count++] = id;
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    result[count++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * @return Le nombre d'identifiants présents dans les deux ensembles, sans allouer.
+     */
+    public static int intersectionSize(long[] a, long[] b) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Les identifiants de {@code a} absents de {@code b}.
+     */
+    public static long[] difference(long[] a, long[] b) {
+        long[] result = new long[a.length];
+        int count = 0;
+        int j = 0;
+        for (long id : a) {
+            while (j < b.length && b[j] < id) j++;
+            if (j == b.length || b[j] != id) result[count++] = id;
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    // Retire les doublons des count premières valeurs triées et renvoie le nombre de valeurs distinctes
+    private static int unique(long[] sorted, int count) {
+        if (count == 0) return 0;
+        int distinct = 1;
+        for (int i = 1; i < count; i++) {
+            if (sorted[i] != sorted[distinct - 1]) sorted[distinct++] = sorted[i];
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,106 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Histogramme à seaux log-linéaires, dans l'esprit de HdrHistogram.
+ * <p>
+ * Les valeurs sont réparties dans des puissances de deux, chacune découpée en 16 seaux de même
+ * largeur : la précision relative reste d'environ 6 % de la microseconde à plusieurs heures, avec
+ * une mémoire fixe (moins de 5 Ko) et un enregistrement en temps constant, sans allocation.
+ * Les centiles renvoyés sont la borne haute du seau qui les contient.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    // Valeurs enregistrées exactement (0 à 31), puis 16 seaux par puissance de deux
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 4;
+    // Nombre de puissances de deux découpées : valeurs jusqu'à 2^41 - 1 (environ 25 jours en microsecondes)
+    private static final int MAX_SHIFT = 36;
+    private static final long MAX_VALUE = (1L << (MAX_SHIFT + SUB_BUCKET_BITS + 1)) - 1;
+
+    private final long[] counts = new long[LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Enregistre une valeur ; les valeurs négatives sont ignorées et les valeurs trop grandes plafonnées.
+     *
+     * @param value Valeur à enregistrer (par exemple une durée en microsecondes).
+     */
+    public synchronized void record(long value) {
+        if (value < 0) return;
+        long clamped = Math.min(value, MAX_VALUE);
+        counts[indexOf(clamped)]++;
+        totalCount++;
+        sum += clamped;
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+    }
+
+    /**
+     * @param percentile Centile voulu, entre 0 et 100.
+     * @return La valeur du centile, ou 0 si l'histogramme est vide.
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(highestValueOf(i), max);
+        }
+        return max;
+    }
+
+    public synchronized long getCount() {
+        return totalCount;
+    }
+
+    public synchronized long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < LINEAR_BUCKETS) return index;
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "count=" + totalCount
+                + " p50=" + getValueAtPercentile(50)
+                + " p90=" + getValueAtPercentile(90)
+                + " p99=" + getValueAtPercentile(99)
+                + " max=" + max;
+    }
+}
@@ -0,0 +1,70 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Mesure les latences récentes d'un endpoint et en déduit un délai d'attente adapté.
+ * <p>
+ * Les dernières latences sont conservées dans un tampon circulaire. Tant qu'il y a trop peu
+ * d'échantillons, le délai par défaut s'applique ; ensuite le délai vaut un multiple du 95e
+ * centile, borné : un endpoint habituellement rapide échoue vite lorsqu'il se bloque, sans
+ * couper un endpoint naturellement plus lent.
+ * </p>
+ */
+public class LatencyTracker {
+
+    private static final int MIN_SAMPLES = 10;
+    private static final double TIMEOUT_PERCENTILE = 0.95;
+    private static final int TIMEOUT_MULTIPLIER = 3;
+
+    private final long[] samples;
+    private final long defaultTimeoutMillis;
+    private final long minTimeoutMillis;
+    private final long maxTimeoutMillis;
+    private int count;
+    private int next;
+
+    /**
+     * @param windowSize Nombre de latences conservées.
+     * @param defaultTimeoutMillis Délai utilisé tant que les mesures sont insuffisantes.
+     * @param minTimeoutMillis Délai minimal.
+     * @param maxTimeoutMillis Délai maximal.
+     */
+    public LatencyTracker(int windowSize, long defaultTimeoutMillis, long minTimeoutMillis, long maxTimeoutMillis) {
+        this.samples = new long[windowSize];
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+        this.minTimeoutMillis = minTimeoutMillis;
+        this.maxTimeoutMillis = maxTimeoutMillis;
+    }
+
+    public synchronized void record(long latencyMillis) {
+        samples[next] = latencyMillis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    /**
+     * @param percentile Centile voulu, entre 0 et 1.
+     * @return La latence correspondante parmi les mesures récentes, ou -1 s'il n'y en a aucune.
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) return -1;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * @return Le délai d'attente à appliquer à la prochaine requête.
+     */
+    public synchronized long getTimeoutMillis() {
+        if (count < MIN_SAMPLES) return defaultTimeoutMillis;
+        long timeout = getPercentile(TIMEOUT_PERCENTILE) * TIMEOUT_MULTIPLIER;
+        return Math.max(minTimeoutMillis, Math.min(maxTimeoutMillis, timeout));
+    }
+
+    public synchronized int getSampleCount() {
+        return count;
+    }
+}
@@ -0,0 +1,72 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Analyse l'en-tête HTTP {@code Link} renvoyé par l'API GitHub pour les réponses paginées.
+ * <p>
+ * L'en-tête a la forme {@code <https://api.github.com/...&page=2>; rel="next", <...>; rel="last"}.
+ * L'URL de la page suivante sert à parcourir une liste complète ; celle de la dernière page donne le
+ * nombre total de pages.
+ * </p>
+ */
+public class LinkHeaderParser {
+
+    // Paramètre page de la chaîne de requête, sans confusion avec per_page
+    private static final Pattern PAGE_PARAMETER = Pattern.compile("[?&]page=(\\d+)");
+
+    private LinkHeaderParser() { }
+
+    /**
+     * Extrait l'URL associée à la relation {@code rel="next"}.
+     *
+     * @param linkHeader Valeur de l'en-tête Link, éventuellement null.
+     * @return L'URL de la page suivante, ou null s'il s'agit de la dernière page.
+     */
+    public static String parseNextUrl(String linkHeader) {
+        return parseUrl(linkHeader, "next");
+    }
+
+    /**
+     * Extrait le numéro de la dernière page, lu dans le paramètre {@code page} de l'URL {@code rel="last"}.
+     *
+     * @param linkHeader Valeur de l'en-tête Link, éventuellement null.
+     * @return Le nombre de pages de la liste, ou -1 s'il n'est pas indiqué (liste d'une seule page, ou dernière page).
+     */
+    public static int parseLastPage(String linkHeader) {
+        String url = parseUrl(linkHeader, "last");
+        if (url == null) return -1;
+        Matcher matcher = PAGE_PARAMETER.matcher(url);
+        if (!matcher.find()) return -1;
+        try {
+            return Integer.parseInt(matcher.group(1));
+        } catch (NumberFormatException ignored) {
+            return -1;
+        }
+    }
+
+    /**
+     * Extrait l'URL associée à une relation donnée.
+     *
+     * @param linkHeader Valeur de l'en-tête Link, éventuellement null.
+     * @param rel Relation recherchée (next, last, prev, first).
+     * @return L'URL correspondante, ou null si la relation est absente.
+     */
+    public static String parseUrl(String linkHeader, String rel) {
+        if (linkHeader == null) return null;
+        for (String link : linkHeader.split(",")) {
+            String[] segments = link.split(";");
+            if (segments.length < 2) continue;
+            String url = segments[0].trim();
+            if (!url.startsWith("<") || !url.endsWith(">")) continue;
+            for (int i = 1; i < segments.length; i++) {
+                String param = segments[i].trim();
+                if (param.equals("rel=\"" + rel + "\"") || param.equals("rel=" + rel)) {
+                    return url.substring(1, url.length() - 1);
+                }
+            }
+        }
+        return null;
+    }
+}
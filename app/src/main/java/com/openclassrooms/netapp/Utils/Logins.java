@@ -0,0 +1,24 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.Locale;
+
+/**
+ * Clés des identifiants GitHub.
+ * <p>
+ * GitHub ne distingue pas la casse des logins : {@code JakeWharton} et {@code jakewharton} désignent
+ * le même compte. Les caches, la base locale et les listes indexent donc les comptes par cette clé,
+ * calculée avec {@link Locale#ROOT} pour ne pas dépendre de la langue de l'appareil.
+ * </p>
+ */
+public class Logins {
+
+    private Logins() { }
+
+    /**
+     * @param login Login GitHub, tel que saisi ou renvoyé par l'API.
+     * @return La clé du compte, identique quelle que soit la casse du login.
+     */
+    public static String key(String login) {
+        return login.toLowerCase(Locale.ROOT);
+    }
+}
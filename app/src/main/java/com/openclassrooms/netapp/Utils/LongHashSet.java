@@ -0,0 +1,119 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble de {@code long} à adressage ouvert, sans objet par élément.
+ * <p>
+ * Les valeurs sont rangées directement dans un tableau de {@code long} avec sondage linéaire : un
+ * ensemble de 100 000 identifiants occupe environ 2 Mo au lieu de plusieurs Mo de {@code Long} et
+ * d'entrées de {@code HashSet}, et ni {@link #add(long)} ni {@link #contains(long)} n'allouent.
+ * La classe n'est pas thread-safe.
+ * </p>
+ */
+public class LongHashSet {
+
+    // Case vide ; la valeur 0 elle-même est suivie à part
+    private static final long EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] table;
+    private int size;
+    private boolean containsZero;
+    private int resizeThreshold;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize Nombre d'éléments prévu, pour éviter les agrandissements.
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        table = new long[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * @param value Valeur à ajouter.
+     * @return Vrai si la valeur n'était pas encore présente.
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int index = hash(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) return false;
+            index = (index + 1) & mask;
+        }
+        table[index] = value;
+        if (++size > resizeThreshold) resize();
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == EMPTY) return containsZero;
+        int mask = table.length - 1;
+        int index = hash(value) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == value) return true;
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(table, EMPTY);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * @return Les valeurs de l'ensemble triées par ordre croissant.
+     */
+    public long[] toSortedArray() {
+        long[] values = new long[size];
+        int count = 0;
+        if (containsZero) values[count++] = 0;
+        for (long value : table) {
+            if (value != EMPTY) values[count++] = value;
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    private void resize() {
+        long[] previous = table;
+        table = new long[previous.length * 2];
+        resizeThreshold = (int) (table.length * LOAD_FACTOR);
+        int mask = table.length - 1;
+        for (long value : previous) {
+            if (value == EMPTY) continue;
+            int index = hash(value) & mask;
+            while (table[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            table[index] = value;
+        }
+    }
+
+    // Mélange les bits pour que des identifiants consécutifs ne forment pas de longues séries de cases occupées
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
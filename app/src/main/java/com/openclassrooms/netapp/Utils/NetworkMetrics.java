@@ -0,0 +1,184 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+/**
+ * Instrumentation des appels du client OkHttp partagé.
+ * <p>
+ * La fabrique {@link #getEventListenerFactory()} crée un {@link EventListener} par appel, qui mesure les
+ * phases DNS, connexion, TLS, attente du premier octet et lecture du corps, ainsi que la taille de la
+ * réponse. L'issue de chaque réponse vis-à-vis du cache disque est reportée par un
+ * {@link HttpCacheStatsInterceptor} construit avec ces mesures. Les mesures sont agrégées par endpoint dans des
+ * {@link EndpointMetrics} ; l'endpoint d'un appel Retrofit est le nom de la méthode de
+ * {@link GithubService} (par exemple {@code getFollowing}), celui d'un appel direct est sa méthode HTTP
+ * suivie du premier segment du chemin.
+ * </p>
+ */
+public class NetworkMetrics {
+
+    private final ConcurrentMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final EventListener.Factory eventListenerFactory = call -> new MetricsEventListener();
+
+    /**
+     * @return La fabrique d'écouteurs à installer sur le client OkHttp.
+     */
+    public EventListener.Factory getEventListenerFactory() {
+        return eventListenerFactory;
+    }
+
+    /**
+     * Retourne les mesures d'un endpoint, créées à la première demande.
+     *
+     * @param endpoint Nom de l'endpoint, par exemple {@code getFollowing}.
+     * @return Les mesures de l'endpoint.
+     */
+    public EndpointMetrics getMetrics(String endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            EndpointMetrics created = new EndpointMetrics(endpoint);
+            metrics = endpoints.putIfAbsent(endpoint, created);
+            if (metrics == null) metrics = created;
+        }
+        return metrics;
+    }
+
+    /**
+     * @return Les noms des endpoints ayant reçu au moins un appel, triés.
+     */
+    public List<String> getEndpoints() {
+        List<String> names = new ArrayList<>(endpoints.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    public void reset() {
+        for (EndpointMetrics metrics : endpoints.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Résumé lisible de toutes les mesures, destiné aux journaux de débogage.
+     *
+     * @return Un bloc de texte avec un paragraphe par endpoint.
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder("NetworkMetrics");
+        for (String endpoint : getEndpoints()) {
+            builder.append('\n').append(endpoints.get(endpoint));
+        }
+        return builder.toString();
+    }
+
+    // Endpoint d'une requête : méthode du service Retrofit, sinon méthode HTTP et premier segment du chemin
+    static String endpointOf(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) return invocation.method().getName();
+        List<String> segments = request.url().pathSegments();
+        return request.method() + " /" + (segments.isEmpty() ? "" : segments.get(0));
+    }
+
+    private static long elapsedMicros(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+    }
+
+    // Écouteur propre à un appel : les instants de début de chaque phase ne sont pas partagés
+    private class MetricsEventListener extends EventListener {
+        private EndpointMetrics metrics;
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long requestSent;
+        private long responseBodyStart;
+
+        @Override
+        public void callStart(Call call) {
+            metrics = getMetrics(endpointOf(call.request()));
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            metrics.getDns().record(elapsedMicros(dnsStart));
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            secureConnectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            metrics.getTls().record(elapsedMicros(secureConnectStart));
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            metrics.getConnect().record(elapsedMicros(connectStart));
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            requestSent = System.nanoTime();
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            requestSent = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            metrics.getTimeToFirstByte().record(elapsedMicros(requestSent));
+        }
+
+        @Override
+        public void responseBodyStart(Call call) {
+            responseBodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            metrics.getBodyRead().record(elapsedMicros(responseBodyStart));
+            metrics.getResponseBytes().record(byteCount);
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            metrics.getTotal().record(elapsedMicros(callStart));
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            metrics.getTotal().record(elapsedMicros(callStart));
+            metrics.recordFailure();
+        }
+    }
+}
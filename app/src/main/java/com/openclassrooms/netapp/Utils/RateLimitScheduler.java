@@ -0,0 +1,244 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.BehaviorSubject;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Planificateur de requêtes qui tient compte du quota de l'API GitHub.
+ * <p>
+ * L'intercepteur réseau {@link #getInterceptor()} lit les en-têtes {@code X-RateLimit-*} de chaque
+ * réponse et met à jour le budget restant de chaque ressource (core, search, graphql). Le budget
+ * courant est observable avec {@link #observeBudget()}.
+ * </p>
+ * <p>
+ * Les requêtes de premier plan (écran de détail, première page, recherche) partent immédiatement, sauf si
+ * le quota de leur ressource est entièrement épuisé : elles échouent alors aussitôt avec une
+ * {@link RateLimitedException} plutôt que d'envoyer une requête refusée en 403 ou d'attendre la
+ * réinitialisation, qui peut être à une heure. L'appelant peut servir des données en cache ou se
+ * replier sur une autre ressource. Les requêtes de fond (préchargement, enrichissement) partent tant que le budget
+ * dépasse une réserve gardée pour le premier plan ; en dessous, elles sont différées jusqu'à la
+ * réinitialisation du quota, et les requêtes de fond identiques en attente sont fusionnées en une seule.
+ * </p>
+ */
+public class RateLimitScheduler {
+
+    /**
+     * Priorité d'une requête.
+     */
+    public enum Priority {
+        FOREGROUND,
+        BACKGROUND
+    }
+
+    // Ressource par défaut de l'API REST
+    public static final String RESOURCE_CORE = "core";
+    // Ressource de l'API de recherche, au quota beaucoup plus strict
+    public static final String RESOURCE_SEARCH = "search";
+    // Ressource de l'API GraphQL, décomptée en points plutôt qu'en requêtes
+    public static final String RESOURCE_GRAPHQL = "graphql";
+    // Nombre de requêtes gardées pour le premier plan
+    private static final int FOREGROUND_RESERVE = 10;
+
+    private final Scheduler scheduler;
+    private final CircuitBreaker.Clock clock;
+    private final Map<String, BehaviorSubject<Budget>> budgets = new HashMap<>();
+    private final RequestCoalescer pendingBackground = new RequestCoalescer();
+    private final Interceptor interceptor = new RateLimitInterceptor();
+
+    public RateLimitScheduler() {
+        this(Schedulers.computation(), System::currentTimeMillis);
+    }
+
+    /**
+     * @param scheduler Scheduler des attentes jusqu'à la réinitialisation du quota.
+     * @param clock Horloge murale, comparée à l'heure de réinitialisation annoncée par GitHub.
+     */
+    RateLimitScheduler(Scheduler scheduler, CircuitBreaker.Clock clock) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+    }
+
+    /**
+     * Retourne l'intercepteur à installer comme intercepteur réseau du client OkHttp, afin de ne lire
+     * que les en-têtes des vraies réponses du serveur (et non ceux des réponses servies par le cache).
+     *
+     * @return L'intercepteur qui met à jour les budgets.
+     */
+    public Interceptor getInterceptor() {
+        return interceptor;
+    }
+
+    /**
+     * Observe le budget de la ressource {@code core}.
+     *
+     * @return Un observable émettant le dernier budget connu puis chacune de ses mises à jour.
+     */
+    public Observable<Budget> observeBudget() {
+        return observeBudget(RESOURCE_CORE);
+    }
+
+    /**
+     * Observe le budget d'une ressource de l'API.
+     *
+     * @param resource Ressource GitHub (core, search, graphql...).
+     * @return Un observable émettant le dernier budget connu puis chacune de ses mises à jour.
+     */
+    public Observable<Budget> observeBudget(String resource) {
+        return subjectFor(resource).hide();
+    }
+
+    /**
+     * Retourne le dernier budget connu pour une ressource.
+     *
+     * @param resource Ressource GitHub.
+     * @return Le budget, ou null si aucune réponse n'a encore été reçue.
+     */
+    public Budget getBudget(String resource) {
+        return subjectFor(resource).getValue();
+    }
+
+    /**
+     * Planifie une requête sur la ressource {@code core}.
+     *
+     * @see #schedule(String, String, Priority, Observable)
+     */
+    public <T> Observable<T> schedule(String key, Priority priority, Observable<T> request) {
+        return schedule(RESOURCE_CORE, key, priority, request);
+    }
+
+    /**
+     * Planifie une requête selon sa priorité et le budget restant.
+     *
+     * @param resource Ressource GitHub consommée par la requête.
+     * @param key Clé identifiant la requête ; deux requêtes de fond de même clé sont fusionnées.
+     * @param priority Priorité de la requête.
+     * @param request Requête à exécuter.
+     * @return La requête, différée jusqu'à la réinitialisation du quota pour une requête de fond, ou en
+     * échec avec une {@link RateLimitedException} pour une requête de premier plan dont le quota est épuisé.
+     */
+    public <T> Observable<T> schedule(String resource, String key, Priority priority, Observable<T> request) {
+        if (priority == Priority.FOREGROUND) {
+            return Observable.defer(() -> {
+                long delayMillis = delayMillis(resource, 0);
+                return delayMillis > 0
+                        ? Observable.<T>error(new RateLimitedException(resource, clock.nowMillis() + delayMillis))
+                        : request;
+            });
+        }
+        return pendingBackground.coalesce(resource + ":" + key, Observable.defer(() -> {
+            long delayMillis = delayMillis(resource, FOREGROUND_RESERVE);
+            return delayMillis > 0
+                    ? request.subscribeOn(Schedulers.io()).delaySubscription(delayMillis, TimeUnit.MILLISECONDS, scheduler)
+                    : request;
+        }));
+    }
+
+    // Délai à respecter avant une requête : nul tant que le budget dépasse la réserve demandée
+    private long delayMillis(String resource, int reserve) {
+        Budget budget = getBudget(resource);
+        if (budget == null || budget.getRemaining() > reserve) return 0;
+        return Math.max(0, budget.getResetEpochMillis() - clock.nowMillis());
+    }
+
+    private synchronized BehaviorSubject<Budget> subjectFor(String resource) {
+        BehaviorSubject<Budget> subject = budgets.get(resource);
+        if (subject == null) {
+            subject = BehaviorSubject.create();
+            budgets.put(resource, subject);
+        }
+        return subject;
+    }
+
+    // Met à jour le budget à partir des en-têtes X-RateLimit d'une réponse
+    void update(Response response) {
+        String remaining = response.header("X-RateLimit-Remaining");
+        String limit = response.header("X-RateLimit-Limit");
+        String reset = response.header("X-RateLimit-Reset");
+        if (remaining == null || limit == null || reset == null) return;
+        String resource = response.header("X-RateLimit-Resource", RESOURCE_CORE);
+        try {
+            subjectFor(resource).onNext(new Budget(resource, Integer.parseInt(limit),
+                    Integer.parseInt(remaining), Long.parseLong(reset) * 1000));
+        } catch (NumberFormatException ignored) {
+            // En-têtes inattendus : le budget précédent est conservé
+        }
+    }
+
+    private class RateLimitInterceptor implements Interceptor {
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Response response = chain.proceed(chain.request());
+            update(response);
+            return response;
+        }
+    }
+
+    /**
+     * Erreur d'une requête de premier plan dont le quota est épuisé jusqu'à sa réinitialisation.
+     */
+    public static class RateLimitedException extends IOException {
+        private final String resource;
+        private final long resetEpochMillis;
+
+        public RateLimitedException(String resource, long resetEpochMillis) {
+            super("Rate limit exhausted for " + resource + " until " + resetEpochMillis);
+            this.resource = resource;
+            this.resetEpochMillis = resetEpochMillis;
+        }
+
+        public String getResource() {
+            return resource;
+        }
+
+        public long getResetEpochMillis() {
+            return resetEpochMillis;
+        }
+    }
+
+    /**
+     * Budget de requêtes d'une ressource, tel que renvoyé par les en-têtes {@code X-RateLimit-*}.
+     */
+    public static class Budget {
+        private final String resource;
+        private final int limit;
+        private final int remaining;
+        private final long resetEpochMillis;
+
+        public Budget(String resource, int limit, int remaining, long resetEpochMillis) {
+            this.resource = resource;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.resetEpochMillis = resetEpochMillis;
+        }
+
+        public String getResource() {
+            return resource;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public int getRemaining() {
+            return remaining;
+        }
+
+        public long getResetEpochMillis() {
+            return resetEpochMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Budget{" + resource + ": " + remaining + "/" + limit + ", reset=" + resetEpochMillis + "}";
+        }
+    }
+}
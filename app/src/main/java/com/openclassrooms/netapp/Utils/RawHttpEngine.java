@@ -0,0 +1,257 @@
+package com.openclassrooms.netapp.Utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Moteur de requêtes HTTP brutes, qui renvoie le corps d'une URL sans le désérialiser.
+ * <p>
+ * Il remplace l'ancien couple {@code NetworkAsyncTask} / {@code MyHttpURLConnection} :
+ * <ul>
+ *     <li>les requêtes partent du {@link OkHttpClient} partagé et réutilisent donc ses connexions keep-alive ;</li>
+ *     <li>elles s'exécutent sur un pool de threads borné au lieu de l'exécuteur série d'AsyncTask ;</li>
+ *     <li>les délais de connexion et de lecture sont configurables pour chaque requête ;</li>
+ *     <li>chaque requête renvoie un {@link Handle} annulable, qui peut suivre le cycle de vie de l'appelant ;</li>
+ *     <li>le corps est lu dans des tampons réutilisés ({@link ByteArrayPool}) ;</li>
+ *     <li>toute issue, y compris une erreur, est rendue sous forme de {@link RawHttpResult}.</li>
+ * </ul>
+ * Les rappels sont délivrés sur le thread principal, sauf si la requête a été annulée entre-temps.
+ * </p>
+ */
+public class RawHttpEngine {
+
+    /**
+     * Interface de rappel recevant le résultat d'une requête.
+     */
+    public interface Callback {
+        void onResult(RawHttpResult result);
+    }
+
+    // Nombre de requêtes brutes exécutées simultanément et nombre de requêtes en attente
+    private static final int MAX_THREADS = 4;
+    private static final int MAX_QUEUED = 32;
+    // Délais par défaut
+    public static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 10_000;
+    public static final long DEFAULT_READ_TIMEOUT_MILLIS = 15_000;
+    // Tampons de lecture
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_POOLED_BUFFERS = MAX_THREADS * 2;
+
+    private static volatile RawHttpEngine instance;
+
+    private final OkHttpClient client;
+    private final ThreadPoolExecutor executor;
+    private final Executor callbackExecutor;
+    private final ByteArrayPool bufferPool = new ByteArrayPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+
+    /**
+     * Retourne le moteur partagé, construit sur le client OkHttp de {@link GithubClient}.
+     *
+     * @return Le moteur partagé.
+     */
+    public static RawHttpEngine getInstance() {
+        RawHttpEngine result = instance;
+        if (result == null) {
+            synchronized (RawHttpEngine.class) {
+                result = instance;
+                if (result == null) {
+                    Handler mainHandler = new Handler(Looper.getMainLooper());
+                    result = new RawHttpEngine(GithubClient.getInstance().getOkHttpClient(), mainHandler::post);
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Construit un moteur dont les rappels sont délivrés par {@code callbackExecutor}. Visible dans
+     * le package pour les tests.
+     *
+     * @param client Client OkHttp dont les connexions sont réutilisées.
+     * @param callbackExecutor Exécuteur des rappels.
+     */
+    RawHttpEngine(OkHttpClient client, Executor callbackExecutor) {
+        this.client = client;
+        this.callbackExecutor = callbackExecutor;
+        this.executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED), runnable -> {
+                    Thread thread = new Thread(runnable, "raw-http");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // Les threads inactifs sont libérés : le pool ne coûte rien tant qu'il ne sert pas
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Télécharge une URL avec les délais par défaut.
+     *
+     * @see #fetch(String, long, long, Callback)
+     */
+    public Handle fetch(String url, Callback callback) {
+        return fetch(url, DEFAULT_CONNECT_TIMEOUT_MILLIS, DEFAULT_READ_TIMEOUT_MILLIS, callback);
+    }
+
+    /**
+     * Télécharge une URL en arrière-plan et délivre le résultat au rappel.
+     *
+     * @param url URL à télécharger.
+     * @param connectTimeoutMillis Délai maximal d'établissement de la connexion.
+     * @param readTimeoutMillis Délai maximal entre deux lectures.
+     * @param callback Rappel recevant le résultat ; il n'est pas appelé si la requête est annulée.
+     * @return Un handle permettant d'annuler la requête.
+     */
+    public Handle fetch(String url, long connectTimeoutMillis, long readTimeoutMillis, Callback callback) {
+        Request request;
+        try {
+            request = new Request.Builder().url(url).build();
+        } catch (IllegalArgumentException e) {
+            Handle handle = new Handle(null);
+            deliver(handle, callback, RawHttpResult.failure(RawHttpResult.Status.NETWORK_ERROR, e));
+            return handle;
+        }
+        // newBuilder() partage le pool de connexions et le dispatcher du client d'origine
+        OkHttpClient timedClient = client.newBuilder()
+                .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+        Handle handle = new Handle(timedClient.newCall(request));
+        try {
+            handle.future = executor.submit(() -> deliver(handle, callback, execute(handle.call)));
+        } catch (RejectedExecutionException e) {
+            deliver(handle, callback, RawHttpResult.failure(RawHttpResult.Status.NETWORK_ERROR, e));
+        }
+        return handle;
+    }
+
+    /**
+     * Exécute l'appel de manière synchrone sur le thread courant.
+     *
+     * @param call Appel à exécuter.
+     * @return Le résultat de l'appel.
+     */
+    RawHttpResult execute(Call call) {
+        try (Response response = call.execute()) {
+            ResponseBody body = response.body();
+            byte[] bytes = body != null ? readBody(body) : null;
+            return RawHttpResult.response(response.code(), bytes, charsetOf(body));
+        } catch (IOException e) {
+            if (call.isCanceled()) return RawHttpResult.failure(RawHttpResult.Status.CANCELLED, e);
+            if (e instanceof InterruptedIOException) return RawHttpResult.failure(RawHttpResult.Status.TIMEOUT, e);
+            return RawHttpResult.failure(RawHttpResult.Status.NETWORK_ERROR, e);
+        } catch (RuntimeException e) {
+            // Un intercepteur ou une réponse invalide ne doit pas priver l'appelant de son rappel
+            if (call.isCanceled()) return RawHttpResult.failure(RawHttpResult.Status.CANCELLED, e);
+            return RawHttpResult.failure(RawHttpResult.Status.NETWORK_ERROR, e);
+        }
+    }
+
+    // Lit le corps par blocs dans un tampon réutilisé
+    private byte[] readBody(ResponseBody body) throws IOException {
+        long length = body.contentLength();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(length > 0 && length < Integer.MAX_VALUE ? (int) length : BUFFER_SIZE);
+        byte[] buffer = bufferPool.acquire();
+        try (InputStream input = body.byteStream()) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return output.toByteArray();
+    }
+
+    private static Charset charsetOf(ResponseBody body) {
+        MediaType contentType = body != null ? body.contentType() : null;
+        return contentType != null ? contentType.charset(StandardCharsets.UTF_8) : StandardCharsets.UTF_8;
+    }
+
+    private void deliver(Handle handle, Callback callback, RawHttpResult result) {
+        if (handle.isCancelled()) return;
+        callbackExecutor.execute(() -> {
+            if (!handle.isCancelled()) callback.onResult(result);
+        });
+    }
+
+    ByteArrayPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * Requête en cours, annulable depuis n'importe quel thread.
+     */
+    public static class Handle {
+        private final Call call;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private volatile Future<?> future;
+
+        private Handle(Call call) {
+            this.call = call;
+        }
+
+        /**
+         * Annule la requête : la connexion est interrompue et le rappel ne sera pas appelé.
+         */
+        public void cancel() {
+            if (!cancelled.compareAndSet(false, true)) return;
+            if (call != null) call.cancel();
+            Future<?> pending = future;
+            if (pending != null) pending.cancel(false);
+        }
+
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        /**
+         * Annule automatiquement la requête lorsque le cycle de vie donné atteint l'état détruit,
+         * par exemple celui de la vue d'un fragment.
+         *
+         * @param lifecycle Cycle de vie de l'appelant.
+         * @return Ce handle.
+         */
+        public Handle cancelOnDestroy(Lifecycle lifecycle) {
+            if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+                cancel();
+                return this;
+            }
+            lifecycle.addObserver(new LifecycleEventObserver() {
+                @Override
+                public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+                    if (event == Lifecycle.Event.ON_DESTROY) {
+                        source.getLifecycle().removeObserver(this);
+                        cancel();
+                    }
+                }
+            });
+            return this;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Résultat typé d'une requête exécutée par le {@link RawHttpEngine}.
+ * <p>
+ * Une requête aboutit toujours à un résultat, jamais à une chaîne vide : le {@link Status}
+ * distingue un succès, une réponse HTTP en erreur, un délai dépassé, une erreur réseau et
+ * une annulation. Le corps brut est conservé pour les succès comme pour les erreurs HTTP,
+ * l'API GitHub y décrivant la cause de l'erreur.
+ * </p>
+ */
+public class RawHttpResult {
+
+    /**
+     * Issue de la requête.
+     */
+    public enum Status {
+        SUCCESS,
+        HTTP_ERROR,
+        TIMEOUT,
+        NETWORK_ERROR,
+        CANCELLED
+    }
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Status status;
+    private final int code;
+    private final byte[] body;
+    private final Charset charset;
+    private final Throwable error;
+
+    private RawHttpResult(Status status, int code, byte[] body, Charset charset, Throwable error) {
+        this.status = status;
+        this.code = code;
+        this.body = body != null ? body : EMPTY;
+        this.charset = charset != null ? charset : StandardCharsets.UTF_8;
+        this.error = error;
+    }
+
+    static RawHttpResult response(int code, byte[] body, Charset charset) {
+        Status status = code >= 200 && code < 300 ? Status.SUCCESS : Status.HTTP_ERROR;
+        return new RawHttpResult(status, code, body, charset, null);
+    }
+
+    static RawHttpResult failure(Status status, Throwable error) {
+        return new RawHttpResult(status, 0, null, null, error);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCESS;
+    }
+
+    // Code HTTP de la réponse, ou 0 si aucune réponse n'a été reçue
+    public int getCode() {
+        return code;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    // Corps décodé avec le charset annoncé par la réponse (UTF-8 par défaut)
+    public String getBodyAsString() {
+        return new String(body, charset);
+    }
+
+    // Cause de l'échec pour TIMEOUT, NETWORK_ERROR ou CANCELLED, sinon null
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "RawHttpResult{" + status + ", code=" + code + ", " + body.length + " bytes}";
+    }
+}
@@ -0,0 +1,106 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.SearchUsersResponse;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Recherche d'utilisateurs sur l'API GitHub pendant la saisie.
+ * <p>
+ * L'API de recherche n'autorise qu'une trentaine de requêtes par minute : une requête n'est envoyée que
+ * lorsque la saisie s'est arrêtée pendant {@link #DEBOUNCE_MILLIS} millisecondes. Les recherches sont
+ * enchaînées avec {@code switchMap} : une nouvelle frappe annule l'attente ou la requête en cours de la
+ * précédente. Les résultats sont gardés dans un {@link UserSearchCache} et servis sans délai, ce qui rend
+ * l'effacement de caractères instantané ; deux recherches identiques simultanées partagent un seul appel.
+ * </p>
+ * <p>
+ * Une requête absente du cache, par exemple un préfixe tapé sans pause puis retrouvé en effaçant, est servie
+ * aussitôt en filtrant les résultats du plus long préfixe en cache. Ce filtrage sur le login n'est que provisoire :
+ * GitHub cherche aussi dans les noms et les adresses, et ses résultats ne se déduisent pas de ceux d'un préfixe. La
+ * requête est donc toujours envoyée après le délai de saisie et ses résultats remplacent la liste filtrée.
+ * </p>
+ */
+public class RemoteUserSearch {
+
+    // Temps de pause dans la saisie avant d'envoyer une requête
+    public static final long DEBOUNCE_MILLIS = 300;
+    // Nombre de résultats demandés : la première page suffit pour une recherche pendant la saisie
+    public static final int PAGE_SIZE = 30;
+
+    private final GithubClient client;
+    private final UserSearchCache cache;
+    private final Scheduler scheduler;
+    private final RequestCoalescer inFlight = new RequestCoalescer();
+    private final GithubUserRegistry registry = GithubUserRegistry.getInstance();
+
+    public RemoteUserSearch() {
+        this(GithubClient.getInstance(), new UserSearchCache(50, 10, TimeUnit.MINUTES), Schedulers.computation());
+    }
+
+    RemoteUserSearch(GithubClient client, UserSearchCache cache, Scheduler scheduler) {
+        this.client = client;
+        this.cache = cache;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Recherche des utilisateurs, après le délai de saisie sauf si les résultats sont en cache.
+     *
+     * @param query Texte recherché ; une requête vide donne une liste vide sans appel réseau.
+     * @return Un observable émettant les utilisateurs trouvés, sur un thread de fond.
+     */
+    public Observable<List<GithubUser>> search(String query) {
+        final String key = UserSearchCache.keyOf(query);
+        if (key.isEmpty()) return Observable.just(Collections.<GithubUser>emptyList());
+        return Observable.defer(() -> {
+            List<GithubUser> cached = cache.get(key);
+            if (cached != null) return Observable.just(cached);
+            Observable<List<GithubUser>> remote = Observable.timer(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS, scheduler)
+                    .concatMap(tick -> fetch(key));
+            List<GithubUser> provisional = cache.findPrefix(key);
+            return provisional != null ? Observable.just(provisional).concatWith(remote) : remote;
+        });
+    }
+
+    /**
+     * Recherche des utilisateurs pour chaque requête saisie ; seuls les résultats de la dernière sont émis.
+     *
+     * @param queries Textes saisis, par exemple à chaque frappe.
+     * @return Un observable émettant les résultats de la requête courante.
+     */
+    public Observable<List<GithubUser>> search(Observable<String> queries) {
+        return queries.map(UserSearchCache::keyOf)
+                .distinctUntilChanged()
+                .switchMap(this::search);
+    }
+
+    public UserSearchCache getCache() {
+        return cache;
+    }
+
+    // Envoie la requête sur la ressource search du quota, ou rejoint celle déjà en cours pour la même clé
+    private Observable<List<GithubUser>> fetch(String key) {
+        return inFlight.coalesce(key, client.getRateLimitScheduler()
+                .schedule(RateLimitScheduler.RESOURCE_SEARCH, "search/" + key, RateLimitScheduler.Priority.FOREGROUND,
+                        client.getGithubService().searchUsers(key, PAGE_SIZE))
+                .subscribeOn(Schedulers.io())
+                .map(response -> {
+                    List<GithubUser> users = toUsers(response);
+                    cache.put(key, users);
+                    return users;
+                }));
+    }
+
+    private List<GithubUser> toUsers(SearchUsersResponse response) {
+        return response.getItems() != null
+                ? registry.canonicalizeAll(response.getItems())
+                : Collections.<GithubUser>emptyList();
+    }
+}
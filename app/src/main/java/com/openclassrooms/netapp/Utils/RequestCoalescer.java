@@ -0,0 +1,55 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Observable;
+
+/**
+ * Partage une seule requête en cours entre tous les abonnés d'une même clé.
+ * <p>
+ * Tant qu'une requête est en cours pour une clé, les nouveaux abonnés s'y rattachent au lieu
+ * d'en lancer une autre, et reçoivent la dernière valeur déjà émise. La requête n'est annulée
+ * que lorsque son dernier abonné se désabonne, et la clé est libérée dès qu'elle se termine, avant
+ * que la fin ne soit transmise aux abonnés : l'appel suivant relance alors une nouvelle requête, même
+ * depuis le rappel de fin de la précédente. Une requête terminée ne libère que sa propre entrée, jamais
+ * une requête plus récente enregistrée sous la même clé.
+ * </p>
+ */
+public class RequestCoalescer {
+
+    private final Map<String, Observable<?>> inFlight = new HashMap<>();
+
+    /**
+     * Retourne la requête en cours pour cette clé, ou partage {@code request} sous cette clé.
+     *
+     * @param key Clé identifiant la requête (endpoint et paramètres).
+     * @param request Requête à lancer si aucune n'est en cours ; elle n'est souscrite qu'une fois.
+     * @return Un observable partagé par tous les abonnés de la clé.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Observable<T> coalesce(final String key, Observable<T> request) {
+        Observable<T> pending = (Observable<T>) inFlight.get(key);
+        if (pending == null) {
+            final AtomicReference<Observable<T>> self = new AtomicReference<>();
+            pending = request
+                    .doOnTerminate(() -> remove(key, self.get()))
+                    .doOnDispose(() -> remove(key, self.get()))
+                    .replay(1)
+                    .refCount();
+            self.set(pending);
+            inFlight.put(key, pending);
+        }
+        return pending;
+    }
+
+    // Nombre de requêtes actuellement partagées
+    public synchronized int size() {
+        return inFlight.size();
+    }
+
+    private synchronized void remove(String key, Observable<?> pending) {
+        inFlight.remove(key, pending);
+    }
+}
@@ -0,0 +1,153 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Action;
+import io.reactivex.schedulers.Schedulers;
+import retrofit2.HttpException;
+
+/**
+ * Couche de résilience appliquée aux appels de {@link GithubService}.
+ * <p>
+ * Pour chaque endpoint, elle combine :
+ * <ul>
+ *     <li>un délai d'attente par tentative, adapté aux latences observées ({@link LatencyTracker}) ;</li>
+ *     <li>de nouvelles tentatives avec backoff exponentiel et gigue pour les erreurs transitoires ({@link RetryPolicy}) ;</li>
+ *     <li>un disjoncteur ({@link CircuitBreaker}) qui, lorsque GitHub est dégradé, fait échouer les requêtes
+ *     immédiatement et sert les données en cache fournies par l'appelant.</li>
+ * </ul>
+ * Elle ne s'applique qu'aux requêtes GET, que l'on peut rejouer sans effet de bord.
+ * </p>
+ */
+public class Resilience {
+
+    // Paramètres par défaut des disjoncteurs et des délais d'attente
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long OPEN_DURATION_MILLIS = 30_000;
+    private static final int LATENCY_WINDOW = 50;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 10_000;
+    private static final long MIN_TIMEOUT_MILLIS = 2_000;
+    private static final long MAX_TIMEOUT_MILLIS = 15_000;
+
+    private final RetryPolicy retryPolicy;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+    private final CircuitBreaker.Clock clock;
+    private final Scheduler timeoutScheduler;
+    private final Map<String, CircuitBreaker> breakers = new HashMap<>();
+    private final Map<String, LatencyTracker> latencies = new HashMap<>();
+
+    public static Resilience createDefault() {
+        return new Resilience(RetryPolicy.createDefault(), FAILURE_THRESHOLD, OPEN_DURATION_MILLIS,
+                () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()), Schedulers.computation());
+    }
+
+    /**
+     * @param retryPolicy Politique de nouvelle tentative.
+     * @param failureThreshold Nombre d'échecs consécutifs qui ouvre le disjoncteur d'un endpoint.
+     * @param openDurationMillis Durée d'ouverture d'un disjoncteur.
+     * @param clock Horloge des disjoncteurs et des mesures de latence.
+     * @param timeoutScheduler Scheduler des délais d'attente.
+     */
+    public Resilience(RetryPolicy retryPolicy, int failureThreshold, long openDurationMillis,
+                      CircuitBreaker.Clock clock, Scheduler timeoutScheduler) {
+        this.retryPolicy = retryPolicy;
+        this.failureThreshold = failureThreshold;
+        this.openDurationMillis = openDurationMillis;
+        this.clock = clock;
+        this.timeoutScheduler = timeoutScheduler;
+    }
+
+    /**
+     * Exécute une requête sans solution de repli.
+     *
+     * @see #execute(String, Observable, Observable)
+     */
+    public <T> Observable<T> execute(String endpoint, Observable<T> request) {
+        return execute(endpoint, request, null);
+    }
+
+    /**
+     * Exécute une requête GET avec délai adaptatif, nouvelles tentatives et disjoncteur.
+     *
+     * @param endpoint Nom de l'endpoint (par exemple {@code "users/following"}), qui regroupe les mesures.
+     * @param request Requête à exécuter ; elle est souscrite de nouveau à chaque tentative.
+     * @param fallback Données en cache à servir si l'endpoint est indisponible (disjoncteur ouvert, quota
+     *                 épuisé ou tentatives épuisées sur une erreur transitoire), ou null. S'il se termine sans
+     *                 valeur, l'erreur d'origine est émise.
+     * @return La requête protégée.
+     */
+    public <T> Observable<T> execute(String endpoint, Observable<T> request, Observable<T> fallback) {
+        CircuitBreaker breaker = getCircuitBreaker(endpoint);
+        LatencyTracker latency = getLatencyTracker(endpoint);
+        Observable<T> attempt = Observable.defer(() -> {
+            if (!breaker.allowRequest()) {
+                return Observable.<T>error(new CircuitBreaker.OpenException(endpoint));
+            }
+            long startMillis = clock.nowMillis();
+            // Le succès est compté à la première réponse : l'abonné peut se désabonner avant la fin du flux.
+            // Chaque tentative rend un seul verdict au disjoncteur, ou libère sa place d'essai si elle est abandonnée
+            boolean[] settled = {false};
+            Action onResponse = () -> {
+                if (settled[0]) return;
+                settled[0] = true;
+                latency.record(clock.nowMillis() - startMillis);
+                breaker.recordSuccess();
+            };
+            return request
+                    .timeout(latency.getTimeoutMillis(), TimeUnit.MILLISECONDS, timeoutScheduler)
+                    .doOnNext(value -> onResponse.run())
+                    .doOnComplete(onResponse)
+                    .doOnError(error -> {
+                        if (settled[0]) return;
+                        settled[0] = true;
+                        if (error instanceof RateLimitScheduler.RateLimitedException) {
+                            // Refusée avant tout appel réseau : ni succès ni échec de l'endpoint
+                            breaker.releaseTrial();
+                        } else if (error instanceof HttpException && !RetryPolicy.isRetryable(error)) {
+                            // Une erreur 4xx est une réponse normale du serveur : il est disponible
+                            latency.record(clock.nowMillis() - startMillis);
+                            breaker.recordSuccess();
+                        } else {
+                            breaker.recordFailure();
+                        }
+                    })
+                    .doOnDispose(() -> {
+                        if (!settled[0]) breaker.releaseTrial();
+                    });
+        });
+        Observable<T> resilient = attempt.retryWhen(retryPolicy);
+        if (fallback == null) return resilient;
+        return resilient.onErrorResumeNext((Throwable error) -> isUnavailable(error)
+                ? fallback.switchIfEmpty(Observable.<T>error(error))
+                : Observable.<T>error(error));
+    }
+
+    public synchronized CircuitBreaker getCircuitBreaker(String endpoint) {
+        CircuitBreaker breaker = breakers.get(endpoint);
+        if (breaker == null) {
+            breaker = new CircuitBreaker(failureThreshold, openDurationMillis, clock);
+            breakers.put(endpoint, breaker);
+        }
+        return breaker;
+    }
+
+    public synchronized LatencyTracker getLatencyTracker(String endpoint) {
+        LatencyTracker tracker = latencies.get(endpoint);
+        if (tracker == null) {
+            tracker = new LatencyTracker(LATENCY_WINDOW, DEFAULT_TIMEOUT_MILLIS, MIN_TIMEOUT_MILLIS, MAX_TIMEOUT_MILLIS);
+            latencies.put(endpoint, tracker);
+        }
+        return tracker;
+    }
+
+    // L'endpoint est indisponible : disjoncteur ouvert, quota épuisé ou erreur transitoire persistante
+    private static boolean isUnavailable(Throwable error) {
+        return error instanceof CircuitBreaker.OpenException || error instanceof RateLimitScheduler.RateLimitedException
+                || RetryPolicy.isRetryable(error);
+    }
+}
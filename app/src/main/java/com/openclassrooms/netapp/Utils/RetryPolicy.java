@@ -0,0 +1,124 @@
+package com.openclassrooms.netapp.Utils;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableSource;
+import io.reactivex.Scheduler;
+import io.reactivex.functions.Function;
+import io.reactivex.schedulers.Schedulers;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * Politique de nouvelle tentative pour les requêtes GET idempotentes, à utiliser avec {@code retryWhen}.
+ * <p>
+ * Seules les erreurs transitoires sont retentées : erreurs réseau, délais dépassés, réponses 5xx et
+ * 429 (trop de requêtes). Une erreur 4xx est une réponse définitive et remonte immédiatement. Le délai
+ * avant la tentative {@code n} est tiré au hasard entre 0 et {@code base * 2^n}, plafonné à
+ * {@code maxDelay} (backoff exponentiel avec gigue complète) : des clients qui échouent en même temps
+ * ne reviennent pas tous au même instant. Un en-tête {@code Retry-After} est respecté tel quel s'il est
+ * plus long, sans plafond ; s'il dépasse le budget d'attente de la politique, la requête échoue aussitôt
+ * plutôt que de repartir trop tôt.
+ * </p>
+ */
+public class RetryPolicy implements Function<Observable<Throwable>, ObservableSource<?>> {
+
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long retryBudgetMillis;
+    private final Scheduler scheduler;
+    private final Random random;
+
+    /**
+     * Politique par défaut : 3 nouvelles tentatives, à partir de 500 ms et jusqu'à 8 s.
+     */
+    public static RetryPolicy createDefault() {
+        return new RetryPolicy(3, 500, 8_000, Schedulers.computation(), new Random());
+    }
+
+    /**
+     * Politique dont le budget d'attente vaut {@code maxRetries * maxDelayMillis}.
+     *
+     * @see #RetryPolicy(int, long, long, long, Scheduler, Random)
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis, Scheduler scheduler, Random random) {
+        this(maxRetries, baseDelayMillis, maxDelayMillis, maxRetries * maxDelayMillis, scheduler, random);
+    }
+
+    /**
+     * @param maxRetries Nombre maximal de nouvelles tentatives après le premier échec.
+     * @param baseDelayMillis Délai de base du backoff.
+     * @param maxDelayMillis Délai maximal entre deux tentatives calculé par le backoff.
+     * @param retryBudgetMillis Attente maximale acceptée pour un {@code Retry-After} ; au-delà, la requête échoue.
+     * @param scheduler Scheduler des attentes entre tentatives.
+     * @param random Source de la gigue.
+     */
+    public RetryPolicy(int maxRetries, long baseDelayMillis, long maxDelayMillis, long retryBudgetMillis,
+                       Scheduler scheduler, Random random) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.retryBudgetMillis = retryBudgetMillis;
+        this.scheduler = scheduler;
+        this.random = random;
+    }
+
+    @Override
+    public ObservableSource<?> apply(Observable<Throwable> errors) {
+        // Appelée une fois par souscription : le compteur de tentatives est propre à chaque requête
+        int[] attempt = {0};
+        return errors.flatMap(error -> {
+            if (!isRetryable(error) || attempt[0] >= maxRetries) {
+                return Observable.error(error);
+            }
+            long delay = delayMillis(attempt[0]++, error);
+            if (delay > retryBudgetMillis) {
+                // Le serveur demande d'attendre plus longtemps que ce que l'appelant peut patienter
+                return Observable.error(error);
+            }
+            return Observable.timer(delay, TimeUnit.MILLISECONDS, scheduler);
+        });
+    }
+
+    // Délai avant la tentative suivante, avec gigue complète ; un Retry-After plus long l'emporte sans plafond
+    long delayMillis(int attempt, Throwable error) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt, 20));
+        long delay = (long) (random.nextDouble() * ceiling);
+        return Math.max(delay, retryAfterMillis(error));
+    }
+
+    /**
+     * Indique si une erreur est transitoire et peut justifier une nouvelle tentative.
+     *
+     * @param error Erreur reçue.
+     * @return true pour une erreur réseau, un délai dépassé, une réponse 5xx ou 429.
+     */
+    public static boolean isRetryable(Throwable error) {
+        if (error instanceof CircuitBreaker.OpenException) return false;
+        // Le quota ne revient qu'à sa réinitialisation : une nouvelle tentative échouerait de même
+        if (error instanceof RateLimitScheduler.RateLimitedException) return false;
+        if (error instanceof HttpException) {
+            int code = ((HttpException) error).code();
+            return code >= 500 || code == 429;
+        }
+        return error instanceof IOException || error instanceof TimeoutException;
+    }
+
+    private static long retryAfterMillis(Throwable error) {
+        if (!(error instanceof HttpException)) return 0;
+        Response<?> response = ((HttpException) error).response();
+        String retryAfter = response != null ? response.headers().get("Retry-After") : null;
+        if (retryAfter == null) return 0;
+        try {
+            return Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException ignored) {
+            // Date HTTP non prise en charge : le backoff seul s'applique
+            return 0;
+        }
+    }
+}
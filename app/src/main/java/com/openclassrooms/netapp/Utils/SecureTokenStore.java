@@ -0,0 +1,84 @@
+package com.openclassrooms.netapp.Utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.security.crypto.EncryptedSharedPreferences;
+import androidx.security.crypto.MasterKeys;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+
+/**
+ * Stockage chiffré du jeton d'accès GitHub.
+ * <p>
+ * Le jeton est enregistré dans des {@link EncryptedSharedPreferences} dont la clé maître est
+ * conservée dans l'Android Keystore. Il est gardé en mémoire après la première lecture, car
+ * l'{@link AuthInterceptor} le demande à chaque requête.
+ * </p>
+ */
+public class SecureTokenStore implements AuthInterceptor.TokenProvider {
+
+    private static final String PREFERENCES_NAME = "github_auth";
+    private static final String KEY_TOKEN = "token";
+
+    private final SharedPreferences preferences;
+    private volatile String token;
+
+    /**
+     * Ouvre le stockage chiffré.
+     *
+     * @param context Contexte de l'application.
+     * @throws GeneralSecurityException Si la clé maître ne peut pas être créée ou lue.
+     * @throws IOException Si le fichier de préférences ne peut pas être ouvert.
+     */
+    public SecureTokenStore(Context context) throws GeneralSecurityException, IOException {
+        String masterKeyAlias = MasterKeys.getOrCreate(MasterKeys.AES256_GCM_SPEC);
+        this.preferences = EncryptedSharedPreferences.create(
+                PREFERENCES_NAME,
+                masterKeyAlias,
+                context.getApplicationContext(),
+                EncryptedSharedPreferences.PrefKeyEncryptionScheme.AES256_SIV,
+                EncryptedSharedPreferences.PrefValueEncryptionScheme.AES256_GCM);
+        this.token = preferences.getString(KEY_TOKEN, null);
+    }
+
+    /**
+     * Ouvre le stockage chiffré, ou renvoie null si le Keystore n'est pas utilisable sur cet appareil.
+     *
+     * @param context Contexte de l'application.
+     * @return Le stockage, ou null (l'application fonctionne alors en mode anonyme).
+     */
+    public static SecureTokenStore openOrNull(Context context) {
+        try {
+            return new SecureTokenStore(context);
+        } catch (GeneralSecurityException | IOException e) {
+            Log.w("SecureTokenStore", "Encrypted token storage unavailable", e);
+            return null;
+        }
+    }
+
+    @Override
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Enregistre un jeton d'accès personnel ou OAuth ; il est utilisé dès la requête suivante.
+     *
+     * @param token Jeton à enregistrer.
+     */
+    public void saveToken(String token) {
+        this.token = token;
+        preferences.edit().putString(KEY_TOKEN, token).apply();
+    }
+
+    /**
+     * Supprime le jeton enregistré ; les requêtes suivantes sont anonymes.
+     */
+    public void clearToken() {
+        this.token = null;
+        preferences.edit().remove(KEY_TOKEN).apply();
+    }
+}
@@ -0,0 +1,147 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Cache mémoire LRU des informations détaillées des utilisateurs GitHub, indexé par login.
+ * <p>
+ * Le cache est borné en taille et chaque entrée a une durée de validité. Une entrée valide est
+ * servie immédiatement ; une entrée expirée est servie immédiatement elle aussi, puis la valeur
+ * rafraîchie est émise dès son arrivée (stale-while-revalidate). Les demandes simultanées pour
+ * un même login partagent un seul appel réseau.
+ * </p>
+ * <p>
+ * Toutes les méthodes sont thread-safe : les lectures et écritures sont synchronisées sur
+ * l'instance, car plusieurs threads de {@code Schedulers.io()} peuvent demander le même login.
+ * </p>
+ */
+public class UserInfoCache {
+
+    /**
+     * Source des informations utilisateur, appelée lorsqu'une entrée est absente ou expirée.
+     */
+    public interface Fetcher {
+        Observable<GithubUserInfo> fetch(String login);
+    }
+
+    private final Fetcher fetcher;
+    private final long ttlMillis;
+    private final CircuitBreaker.Clock clock;
+    private final Map<String, Entry> entries;
+    private final RequestCoalescer inFlight = new RequestCoalescer();
+
+    /**
+     * @param fetcher Source réseau des informations utilisateur.
+     * @param maxSize Nombre maximal d'utilisateurs conservés.
+     * @param ttl Durée de validité d'une entrée.
+     * @param unit Unité de la durée de validité.
+     */
+    public UserInfoCache(Fetcher fetcher, int maxSize, long ttl, TimeUnit unit) {
+        this(fetcher, maxSize, ttl, unit, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    /**
+     * @param clock Horloge monotone des échéances, remplaçable dans les tests.
+     */
+    UserInfoCache(Fetcher fetcher, final int maxSize, long ttl, TimeUnit unit, CircuitBreaker.Clock clock) {
+        this.fetcher = fetcher;
+        this.ttlMillis = unit.toMillis(ttl);
+        this.clock = clock;
+        // LinkedHashMap en ordre d'accès : l'entrée la moins récemment utilisée est évincée en premier
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Retourne les informations de l'utilisateur.
+     * <p>
+     * Si une valeur valide est en cache, elle est émise seule. Si elle a expiré, elle est émise
+     * puis suivie de la valeur rafraîchie (une erreur de rafraîchissement est ignorée). Sinon,
+     * l'appel réseau est lancé ou rejoint s'il est déjà en cours.
+     * </p>
+     *
+     * @param login Login GitHub de l'utilisateur.
+     * @return Un observable émettant une ou deux valeurs.
+     */
+    public Observable<GithubUserInfo> get(String login) {
+        String key = Logins.key(login);
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return load(key, login);
+        }
+        if (!entry.isExpired(clock.nowMillis())) {
+            return Observable.just(entry.value);
+        }
+        return Observable.just(entry.value)
+                .concatWith(load(key, login).onErrorResumeNext(Observable.<GithubUserInfo>empty()));
+    }
+
+    /**
+     * Retourne la valeur en cache, même expirée, sans déclencher d'appel réseau.
+     *
+     * @param login Login GitHub de l'utilisateur.
+     * @return Les informations en cache, ou null.
+     */
+    public synchronized GithubUserInfo peek(String login) {
+        Entry entry = entries.get(Logins.key(login));
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Ajoute ou remplace les informations d'un utilisateur, par exemple lorsqu'elles ont été
+     * obtenues par un autre appel.
+     *
+     * @param info Informations de l'utilisateur.
+     */
+    public synchronized void put(GithubUserInfo info) {
+        if (info == null || info.getLogin() == null) return;
+        entries.put(Logins.key(info.getLogin()), new Entry(info, clock.nowMillis() + ttlMillis));
+    }
+
+    public synchronized void invalidate(String login) {
+        entries.remove(Logins.key(login));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Lance l'appel réseau pour ce login, ou renvoie celui déjà en cours
+    private Observable<GithubUserInfo> load(final String key, final String login) {
+        return inFlight.coalesce(key, Observable.defer(() -> fetcher.fetch(login))
+                .subscribeOn(Schedulers.io())
+                .doOnNext(this::put));
+    }
+
+    private static final class Entry {
+        final GithubUserInfo value;
+        final long expiresAtMillis;
+
+        Entry(GithubUserInfo value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis - expiresAtMillis > 0;
+        }
+    }
+}
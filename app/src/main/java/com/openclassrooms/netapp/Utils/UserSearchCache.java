@@ -0,0 +1,116 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache mémoire LRU des résultats de recherche d'utilisateurs, indexé par requête.
+ * <p>
+ * Pendant la saisie, chaque préfixe tapé donne lieu à une recherche ; en les gardant en cache, effacer
+ * des caractères réaffiche immédiatement les résultats précédents sans consommer le quota de l'API de
+ * recherche. Les entrées expirent après une durée fixe, car les résultats de recherche changent peu.
+ * </p>
+ * <p>
+ * Seules les requêtes envoyées sont en cache : les préfixes tapés pendant l'attente de fin de saisie n'y sont
+ * pas. {@link #findPrefix(String)} les approche en filtrant les résultats du plus long préfixe en cache.
+ * Toutes les méthodes sont thread-safe.
+ * </p>
+ */
+public class UserSearchCache {
+
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    /**
+     * @param maxSize Nombre maximal de requêtes conservées.
+     * @param ttl Durée de validité d'une entrée.
+     * @param unit Unité de la durée de validité.
+     */
+    public UserSearchCache(final int maxSize, long ttl, TimeUnit unit) {
+        this.ttlNanos = unit.toNanos(ttl);
+        // LinkedHashMap en ordre d'accès : la requête la moins récemment utilisée est évincée en premier
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param query Requête saisie.
+     * @return Les résultats en cache pour cette requête, ou null s'ils sont absents ou expirés.
+     */
+    public synchronized List<GithubUser> get(String query) {
+        String key = keyOf(query);
+        Entry entry = entries.get(key);
+        if (entry == null) return null;
+        if (System.nanoTime() - entry.expiresAtNanos > 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.users;
+    }
+
+    public synchronized void put(String query, List<GithubUser> users) {
+        entries.put(keyOf(query), new Entry(users, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Cherche le plus long préfixe de la requête dont les résultats sont en cache et les filtre : seuls les
+     * utilisateurs dont le login contient chaque mot de la requête sont gardés. C'est une approximation : GitHub
+     * cherche aussi dans les noms et les adresses : le résultat est provisoire, en attendant celui de la requête.
+     *
+     * @param query Requête saisie.
+     * @return Les résultats filtrés, ou null si aucun préfixe n'est en cache.
+     */
+    public synchronized List<GithubUser> findPrefix(String query) {
+        String key = keyOf(query);
+        for (int length = key.length() - 1; length > 0; length--) {
+            Entry entry = entries.get(key.substring(0, length));
+            if (entry == null || System.nanoTime() - entry.expiresAtNanos > 0) continue;
+            String[] terms = key.split(" ");
+            List<GithubUser> matches = new ArrayList<>();
+            for (GithubUser user : entry.users) {
+                if (user.getLogin() != null && containsAll(Logins.key(user.getLogin()), terms)) matches.add(user);
+            }
+            return matches;
+        }
+        return null;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static boolean containsAll(String login, String[] terms) {
+        for (String term : terms) {
+            if (!login.contains(term)) return false;
+        }
+        return true;
+    }
+
+    // La recherche GitHub ne tient compte ni de la casse ni des espaces superflus
+    static String keyOf(String query) {
+        return Logins.key(query.trim().replaceAll("\\s+", " "));
+    }
+
+    private static final class Entry {
+        final List<GithubUser> users;
+        final long expiresAtNanos;
+
+        Entry(List<GithubUser> users, long expiresAtNanos) {
+            this.users = users;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
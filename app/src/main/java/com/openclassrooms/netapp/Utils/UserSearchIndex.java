@@ -0,0 +1,225 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de recherche locale sur les utilisateurs chargés : login, nom, entreprise et localisation.
+ * <p>
+ * Chaque champ est découpé en mots (lettres et chiffres) ; un {@link TreeMap} associe chaque mot à la liste
+ * des utilisateurs qui le contiennent. Une recherche prend chaque mot de la requête comme préfixe : les mots
+ * de l'index qui commencent par ce préfixe forment une plage contiguë du {@code TreeMap}, dont les
+ * utilisateurs sont réunis dans un {@link BitSet}, puis les {@code BitSet} des différents mots sont
+ * intersectés. Ainsi « jake lond » trouve un utilisateur nommé Jake qui habite à Londres.
+ * </p>
+ * <p>
+ * L'index est mis à jour au fil de l'eau ({@link #add(GithubUser)}, {@link #update(GithubUserInfo)}) sans
+ * jamais être reconstruit. Il est thread-safe : les recherches, faites sur un thread de fond, peuvent avoir
+ * lieu pendant que le thread principal ajoute une page.
+ * </p>
+ */
+public class UserSearchIndex {
+
+    // Mot -> numéros des documents qui le contiennent
+    private final TreeMap<String, IntList> postings = new TreeMap<>();
+    // Identifiant GitHub -> numéro de document, attribué à la première indexation
+    private final Map<Integer, Integer> documents = new HashMap<>();
+    // Mots actuellement indexés pour chaque document, pour retirer ceux qui disparaissent
+    private final List<Set<String>> documentTokens = new ArrayList<>();
+    // Champs indexés de chaque document : login, nom, entreprise, localisation
+    private final List<String[]> documentFields = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexe le login d'un utilisateur ; sans effet si l'utilisateur est déjà indexé avec le même login.
+     *
+     * @param user Utilisateur à indexer.
+     */
+    public void add(GithubUser user) {
+        if (user.getId() == null || user.getLogin() == null) return;
+        lock.writeLock().lock();
+        try {
+            String[] fields = fieldsOf(user.getId());
+            fields[0] = user.getLogin();
+            reindex(user.getId(), fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(List<GithubUser> users) {
+        for (GithubUser user : users) {
+            add(user);
+        }
+    }
+
+    /**
+     * Indexe le nom, l'entreprise et la localisation d'un utilisateur dès que ses informations détaillées arrivent.
+     *
+     * @param info Informations détaillées de l'utilisateur.
+     */
+    public void update(GithubUserInfo info) {
+        if (info.getId() == null || info.getLogin() == null) return;
+        lock.writeLock().lock();
+        try {
+            String[] fields = fieldsOf(info.getId());
+            fields[0] = info.getLogin();
+            fields[1] = info.getName();
+            fields[2] = info.getCompany();
+            fields[3] = info.getLocation();
+            reindex(info.getId(), fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filtre une liste d'utilisateurs selon une requête.
+     *
+     * @param users Liste à filtrer, dont l'ordre est conservé.
+     * @param query Mots recherchés, pris comme préfixes ; une requête vide conserve toute la liste.
+     * @return Les utilisateurs dont les champs contiennent, pour chaque mot de la requête, un mot qui commence par lui.
+     */
+    public List<GithubUser> filter(List<GithubUser> users, String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) return users;
+        List<GithubUser> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            BitSet matches = search(terms);
+            if (matches.isEmpty()) return result;
+            for (GithubUser user : users) {
+                Integer document = user.getId() != null ? documents.get(user.getId()) : null;
+                if (document != null && matches.get(document)) result.add(user);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Intersection, sur tous les termes, des documents contenant un mot qui commence par le terme
+    private BitSet search(List<String> terms) {
+        BitSet result = null;
+        for (String term : terms) {
+            BitSet termMatches = new BitSet(documentTokens.size());
+            NavigableMap<String, IntList> range = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+            for (IntList list : range.values()) {
+                for (int i = 0; i < list.size; i++) {
+                    termMatches.set(list.values[i]);
+                }
+            }
+            if (result == null) {
+                result = termMatches;
+            } else {
+                result.and(termMatches);
+            }
+            if (result.isEmpty()) break;
+        }
+        return result;
+    }
+
+    private String[] fieldsOf(int id) {
+        Integer document = documents.get(id);
+        return document != null ? documentFields.get(document).clone() : new String[4];
+    }
+
+    // Met à jour les listes des seuls mots ajoutés ou retirés
+    private void reindex(int id, String[] fields) {
+        Integer document = documents.get(id);
+        if (document != null && Arrays.equals(documentFields.get(document), fields)) return;
+        if (document == null) {
+            document = documentTokens.size();
+            documents.put(id, document);
+            documentTokens.add(new HashSet<>());
+            documentFields.add(fields);
+        } else {
+            documentFields.set(document, fields);
+        }
+
+        Set<String> previous = documentTokens.get(document);
+        Set<String> current = new HashSet<>();
+        for (String field : fields) {
+            current.addAll(tokenize(field));
+        }
+        for (String token : previous) {
+            if (current.contains(token)) continue;
+            IntList list = postings.get(token);
+            list.remove(document);
+            if (list.size == 0) postings.remove(token);
+        }
+        for (String token : current) {
+            if (previous.contains(token)) continue;
+            IntList list = postings.get(token);
+            if (list == null) {
+                list = new IntList();
+                postings.put(token, list);
+            }
+            list.add(document);
+        }
+        documentTokens.set(document, current);
+    }
+
+    // Découpe un texte en mots en minuscules ; un login comme "jake-wharton" donne aussi le mot entier
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        String whole = lower.trim();
+        if (tokens.size() > 1 && whole.indexOf(' ') < 0) tokens.add(whole);
+        return tokens;
+    }
+
+    // Liste d'entiers sans objet par élément
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
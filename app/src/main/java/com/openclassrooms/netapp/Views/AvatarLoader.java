@@ -0,0 +1,128 @@
+package com.openclassrooms.netapp.Views;
+
+import android.graphics.drawable.Drawable;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.openclassrooms.netapp.Utils.AvatarCacheStats;
+import com.openclassrooms.netapp.Utils.AvatarUrls;
+
+/**
+ * Point unique de construction des requêtes Glide d'avatars, partagé par la liste et l'écran de détail.
+ * <p>
+ * Glide identifie une image en cache par son URL, sa taille et ses transformations. En construisant
+ * toutes les requêtes ici, une même taille produit toujours la même clé : la vignette affichée dans la
+ * liste est retrouvée telle quelle dans le cache mémoire par l'écran de détail, qui l'affiche
+ * immédiatement avant de la remplacer par la version haute résolution.
+ * </p>
+ * <p>
+ * Chaque image affichée met à jour les compteurs de {@link #getStats()} selon son origine. Les requêtes de
+ * préchargement ({@link #preload}) n'y sont pas comptées : elles rempliraient les compteurs de chargements
+ * réseau et l'affichage qui suit, servi par le cache, compterait une seconde fois le même avatar.
+ * </p>
+ */
+public final class AvatarLoader {
+
+    private static final AvatarCacheStats stats = new AvatarCacheStats();
+
+    private static final RequestListener<Drawable> STATS_LISTENER = new RequestListener<Drawable>() {
+        @Override
+        public boolean onLoadFailed(@Nullable GlideException e, @Nullable Object model,
+                                    @NonNull Target<Drawable> target, boolean isFirstResource) {
+            stats.recordFailure();
+            return false;
+        }
+
+        @Override
+        public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model, Target<Drawable> target,
+                                       @NonNull DataSource dataSource, boolean isFirstResource) {
+            switch (dataSource) {
+                case MEMORY_CACHE:
+                    stats.recordMemoryHit();
+                    break;
+                case RESOURCE_DISK_CACHE:
+                case DATA_DISK_CACHE:
+                    stats.recordDiskHit();
+                    break;
+                default:
+                    stats.recordNetworkLoad();
+            }
+            return false;
+        }
+    };
+
+    private AvatarLoader() { }
+
+    /**
+     * Construit la requête d'un avatar à une taille donnée.
+     * <p>
+     * La vignette est demandée au serveur à cette taille, découpée en cercle, et c'est l'image déjà
+     * transformée qui est mise en cache disque : un nouvel affichage ne demande ni décodage pleine
+     * taille ni transformation.
+     * </p>
+     *
+     * @param glide Gestionnaire de requêtes de l'écran appelant.
+     * @param avatarUrl URL de l'avatar renvoyée par l'API.
+     * @param sizePx Taille de la vue en pixels.
+     * @return La requête, à terminer par {@code into()}.
+     */
+    public static RequestBuilder<Drawable> load(RequestManager glide, String avatarUrl, int sizePx) {
+        return request(glide, avatarUrl, sizePx).listener(STATS_LISTENER);
+    }
+
+    /**
+     * Construit la requête de préchargement d'un avatar : mêmes options, donc même clé de cache, que
+     * {@link #load}, mais sans compter le chargement dans les statistiques.
+     *
+     * @param glide Gestionnaire de requêtes de l'écran appelant.
+     * @param avatarUrl URL de l'avatar renvoyée par l'API.
+     * @param sizePx Taille de la vue en pixels.
+     * @return La requête, à passer au préchargement.
+     */
+    public static RequestBuilder<Drawable> preload(RequestManager glide, String avatarUrl, int sizePx) {
+        return request(glide, avatarUrl, sizePx);
+    }
+
+    /**
+     * Construit la requête d'un avatar en grand format, précédé de sa vignette si elle est déjà en cache.
+     * <p>
+     * La vignette est cherchée avec exactement les options de la liste et uniquement dans les caches ;
+     * si elle n'y est pas, seule la version grand format est chargée. Seule la version grand format
+     * est comptée dans les statistiques.
+     * </p>
+     *
+     * @param glide Gestionnaire de requêtes de l'écran appelant.
+     * @param avatarUrl URL de l'avatar renvoyée par l'API.
+     * @param thumbnailSizePx Taille de la vignette de la liste en pixels.
+     * @param sizePx Taille de la vue en pixels.
+     * @return La requête, à terminer par {@code into()}.
+     */
+    public static RequestBuilder<Drawable> loadWithThumbnail(RequestManager glide, String avatarUrl,
+                                                             int thumbnailSizePx, int sizePx) {
+        return load(glide, avatarUrl, sizePx)
+                .thumbnail(request(glide, avatarUrl, thumbnailSizePx).onlyRetrieveFromCache(true));
+    }
+
+    // Options communes à toutes les requêtes d'avatars : elles déterminent la clé de cache
+    private static RequestBuilder<Drawable> request(RequestManager glide, String avatarUrl, int sizePx) {
+        return glide.load(AvatarUrls.sized(avatarUrl, sizePx))
+                .override(sizePx)
+                .circleCrop()
+                .diskCacheStrategy(DiskCacheStrategy.RESOURCE);
+    }
+
+    /**
+     * @return Les compteurs d'origine des avatars chargés depuis le démarrage.
+     */
+    public static AvatarCacheStats getStats() {
+        return stats;
+    }
+}
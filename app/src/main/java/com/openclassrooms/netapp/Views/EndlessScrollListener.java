@@ -0,0 +1,38 @@
+package com.openclassrooms.netapp.Views;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Écouteur de défilement qui demande la page suivante avant que l'utilisateur n'atteigne la fin de la liste.
+ *
+ * Dès que le nombre d'éléments restant sous le dernier élément visible passe sous le seuil donné,
+ * `onLoadMore()` est appelée. Le seuil permet de précharger la page suivante pendant le défilement.
+ */
+public abstract class EndlessScrollListener extends RecyclerView.OnScrollListener {
+
+    //`visibleThreshold`: Nombre d'éléments restants à partir duquel la page suivante est demandée.
+    private final int visibleThreshold;
+
+    public EndlessScrollListener(int visibleThreshold) {
+        this.visibleThreshold = visibleThreshold;
+    }
+
+    //`onScrolled`: Vérifie, à chaque défilement vers le bas, s'il faut précharger la page suivante.
+    @Override
+    public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+        if (dy <= 0) return;
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (!(layoutManager instanceof LinearLayoutManager)) return;
+
+        int lastVisible = ((LinearLayoutManager) layoutManager).findLastVisibleItemPosition();
+        int itemCount = layoutManager.getItemCount();
+        if (itemCount > 0 && lastVisible >= itemCount - 1 - visibleThreshold) {
+            onLoadMore();
+        }
+    }
+
+    //`onLoadMore`: Appelée lorsque la fin de la liste approche.
+    public abstract void onLoadMore();
+}
@@ -1,45 +1,93 @@
 package com.openclassrooms.netapp.Views;
 
 import android.content.Context;
+import android.graphics.drawable.Drawable;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
 import com.bumptech.glide.RequestManager;
 import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.openclassrooms.netapp.Utils.GithubStreams;
+import com.openclassrooms.netapp.Utils.IdSets;
+import com.openclassrooms.netapp.Utils.Logins;
 import com.openclassrooms.netapp.databinding.FragmentMainItemBinding;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Adaptateur pour la gestion et l'affichage d'une liste d'utilisateurs GitHub dans un RecyclerView.
  *
  * Cet adaptateur est utilisé pour afficher les données des utilisateurs GitHub dans une liste (RecyclerView).
  * Il prend en charge la liaison des données (GithubUser) aux vues correspondantes (ViewHolder) dans chaque élément de la liste.
+ *
+ * Les nouvelles listes sont transmises avec `submitList` : la différence avec la liste affichée est calculée sur un
+ * thread de fond (AsyncListDiffer), en identifiant les utilisateurs par leur `id`, et seuls les insertions, déplacements,
+ * suppressions et modifications réels sont notifiés au RecyclerView.
+ *
+ * L'adaptateur fournit aussi les requêtes d'avatars des lignes à venir au `RecyclerViewPreloader`, avec la même taille
+ * et les mêmes options que l'affichage, pour que les images préchargées soient servies par le cache.
  */
 
-public class GithubUserAdapter extends RecyclerView.Adapter<GithubUserViewHolder> {
+public class GithubUserAdapter extends ListAdapter<GithubUser, GithubUserViewHolder>
+        implements ListPreloader.PreloadModelProvider<GithubUser> {
 
     // `Listener`: Une interface pour gérer les interactions, comme le clic sur le bouton de suppression d'un élément.
     public interface Listener {
         void onClickDeleteButton(int position);
     }
 
+    //`PAYLOAD_USER_INFO`: Indique qu'une ligne doit seulement mettre à jour ses compteurs, sans recharger l'avatar.
+    private static final Object PAYLOAD_USER_INFO = new Object();
+    //`PAYLOAD_FOLLOWS_BACK`: Indique qu'une ligne doit seulement mettre à jour son badge d'abonnement en retour.
+    private static final Object PAYLOAD_FOLLOWS_BACK = new Object();
+
+    //`DIFF_CALLBACK`: Compare deux utilisateurs par `id`, puis par les champs affichés dans la ligne.
+    private static final DiffUtil.ItemCallback<GithubUser> DIFF_CALLBACK = new DiffUtil.ItemCallback<GithubUser>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull GithubUser oldUser, @NonNull GithubUser newUser) {
+            return oldUser.getId() != null && oldUser.getId().equals(newUser.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull GithubUser oldUser, @NonNull GithubUser newUser) {
+            return equals(oldUser.getLogin(), newUser.getLogin())
+                    && equals(oldUser.getAvatarUrl(), newUser.getAvatarUrl())
+                    && equals(oldUser.getHtmlUrl(), newUser.getHtmlUrl());
+        }
+
+        private boolean equals(Object a, Object b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    };
+
     // FOR COMMUNICATION
     //`callback`: Un objet implémentant l'interface `Listener` permettant de notifier l'activité ou le fragment lorsque le bouton de suppression est cliqué.
     private final Listener callback;
     // FOR DATA
-    //`githubUsers`: Une liste d'utilisateurs GitHub à afficher dans le RecyclerView.
-    private List<GithubUser> githubUsers;
     //`glide`: Un objet `RequestManager` de la bibliothèque Glide utilisé pour charger les images (avatars des utilisateurs).
     private RequestManager glide;
+    //`avatarSizePx`: Taille en pixels des avatars affichés, utilisée pour demander la vignette au serveur.
+    private final int avatarSizePx;
+    //`followerIds`: Identifiants triés des abonnés du compte affiché (voir `IdSets`), vide tant qu'ils ne sont pas connus.
+    private long[] followerIds = new long[0];
+    //`positions`: Position de chaque login (en minuscules) dans la liste affichée, reconstruite à chaque nouvelle liste.
+    private final Map<String, Integer> positions = new HashMap<>();
 
     // CONSTRUCTOR
-    public GithubUserAdapter(List<GithubUser> githubUsers, RequestManager glide, Listener callback) {
-        this.githubUsers = githubUsers;
+    public GithubUserAdapter(RequestManager glide, int avatarSizePx, Listener callback) {
+        super(DIFF_CALLBACK);
         this.glide = glide;
+        this.avatarSizePx = avatarSizePx;
         this.callback = callback;
     }
 
@@ -58,17 +106,71 @@ public class GithubUserAdapter extends RecyclerView.Adapter<GithubUserViewHolder
     //`onBindViewHolder`: Lie les données de l'utilisateur GitHub à l'élément du RecyclerView en position donnée.
     @Override
     public void onBindViewHolder(@NonNull GithubUserViewHolder viewHolder, int position) {
-        viewHolder.updateWithGithubUser(this.githubUsers.get(position), this.glide, this.callback);
+        GithubUser user = getItem(position);
+        viewHolder.updateWithGithubUser(user, getUserInfo(user), this.glide, this.avatarSizePx, this.callback);
+        viewHolder.updateWithFollowsBack(followsBack(user));
+    }
+
+    //`onBindViewHolder` (payloads): Met à jour uniquement les compteurs ou le badge lorsque seuls ceux-ci ont changé.
+    @Override
+    public void onBindViewHolder(@NonNull GithubUserViewHolder viewHolder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.isEmpty()) {
+            if (payloads.contains(PAYLOAD_USER_INFO)) viewHolder.updateWithGithubUserInfo(getUserInfo(getItem(position)));
+            if (payloads.contains(PAYLOAD_FOLLOWS_BACK)) viewHolder.updateWithFollowsBack(followsBack(getItem(position)));
+        } else {
+            super.onBindViewHolder(viewHolder, position, payloads);
+        }
+    }
+
+    //`getPreloadItems`: Renvoie l'utilisateur dont l'avatar doit être préchargé pour la position donnée.
+    @NonNull
+    @Override
+    public List<GithubUser> getPreloadItems(int position) {
+        if (position < 0 || position >= getItemCount()) return Collections.emptyList();
+        return Collections.singletonList(getItem(position));
     }
 
-    //`getItemCount`: Retourne le nombre total d'utilisateurs dans la liste.
+    //`getPreloadRequestBuilder`: Renvoie la requête de préchargement de l'avatar, identique à celle de l'affichage.
     @Override
-    public int getItemCount() {
-        return this.githubUsers.size();
+    public RequestBuilder<Drawable> getPreloadRequestBuilder(@NonNull GithubUser user) {
+        return AvatarLoader.preload(glide, user.getAvatarUrl(), avatarSizePx);
     }
 
     //`getUser`: Renvoie un utilisateur spécifique en fonction de sa position dans la liste.
     public GithubUser getUser(int position) {
-        return this.githubUsers.get(position);
+        return getItem(position);
+    }
+
+    //`onCurrentListChanged`: Reconstruit l'index des positions lorsqu'une liste transmise à `submitList` est affichée.
+    @Override
+    public void onCurrentListChanged(@NonNull List<GithubUser> previousList, @NonNull List<GithubUser> currentList) {
+        positions.clear();
+        for (int i = 0; i < currentList.size(); i++) {
+            String login = currentList.get(i).getLogin();
+            if (login != null) positions.putIfAbsent(Logins.key(login), i);
+        }
+    }
+
+    //`notifyUserInfoChanged`: Rafraîchit uniquement les compteurs de la ligne dont les informations détaillées viennent d'arriver.
+    public void notifyUserInfoChanged(GithubUserInfo info) {
+        if (info.getLogin() == null) return;
+        Integer position = positions.get(Logins.key(info.getLogin()));
+        if (position != null) notifyItemChanged(position, PAYLOAD_USER_INFO);
+    }
+
+    //`setFollowerIds`: Transmet les identifiants triés des abonnés du compte affiché et rafraîchit les badges des lignes.
+    public void setFollowerIds(long[] followerIds) {
+        this.followerIds = followerIds;
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_FOLLOWS_BACK);
+    }
+
+    //`followsBack`: Indique si l'utilisateur fait partie des abonnés du compte affiché (recherche dichotomique, sans allocation).
+    private boolean followsBack(GithubUser user) {
+        return user.getId() != null && IdSets.contains(followerIds, user.getId());
+    }
+
+    //`getUserInfo`: Renvoie les informations détaillées déjà en mémoire pour cet utilisateur, ou null.
+    private GithubUserInfo getUserInfo(GithubUser user) {
+        return user.getLogin() != null ? GithubStreams.getUserInfoCache().peek(user.getLogin()) : null;
     }
 }
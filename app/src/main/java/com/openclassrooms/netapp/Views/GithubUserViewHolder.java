@@ -1,12 +1,15 @@
 package com.openclassrooms.netapp.Views;
 
+import android.graphics.drawable.Drawable;
 import android.view.View;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.RequestBuilder;
 import com.bumptech.glide.RequestManager;
-import com.bumptech.glide.request.RequestOptions;
 import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.openclassrooms.netapp.R;
 import com.openclassrooms.netapp.databinding.FragmentMainItemBinding;
 
 import java.lang.ref.WeakReference;
@@ -33,16 +36,42 @@ public class GithubUserViewHolder extends RecyclerView.ViewHolder implements Vie
 
     /** `updateWithGithubUser`: Met à jour les vues de l'interface utilisateur avec les informations de l'utilisateur GitHub,
      * comme le nom, l'URL du profil, et l'avatar, tout en utilisant Glide pour le chargement de l'image.
+     * Les compteurs de followers et de dépôts sont affichés dès que les informations détaillées sont disponibles.
      */
-    public void updateWithGithubUser(GithubUser githubUser, RequestManager glide, GithubUserAdapter.Listener callback) {
+    public void updateWithGithubUser(GithubUser githubUser, GithubUserInfo githubUserInfo, RequestManager glide,
+                                     int avatarSizePx, GithubUserAdapter.Listener callback) {
         binding.fragmentMainItemTitle.setText(githubUser.getLogin());
         binding.fragmentMainItemWebsite.setText(githubUser.getHtmlUrl());
-        glide.load(githubUser.getAvatarUrl())
-                .apply(RequestOptions.circleCropTransform())
-                .into(binding.fragmentMainItemImage);
+        updateWithGithubUserInfo(githubUserInfo);
+        avatarRequest(glide, githubUser, avatarSizePx).into(binding.fragmentMainItemImage);
         this.callbackWeakRef = new WeakReference<>(callback);
     }
 
+    /** `avatarRequest`: Construit la requête Glide de l'avatar d'une ligne avec l'`AvatarLoader` partagé. Le
+     * préchargement utilise `AvatarLoader.preload`, aux mêmes options, pour que les clés de cache correspondent.
+     */
+    static RequestBuilder<Drawable> avatarRequest(RequestManager glide, GithubUser githubUser, int avatarSizePx) {
+        return AvatarLoader.load(glide, githubUser.getAvatarUrl(), avatarSizePx);
+    }
+
+    /** `updateWithGithubUserInfo`: Affiche le nombre de followers et de dépôts publics, ou vide le champ si les
+     * informations détaillées ne sont pas encore connues.
+     */
+    public void updateWithGithubUserInfo(GithubUserInfo githubUserInfo) {
+        if (githubUserInfo != null && githubUserInfo.getFollowers() != null && githubUserInfo.getPublicRepos() != null) {
+            binding.fragmentMainItemStats.setText(itemView.getContext().getString(R.string.user_stats,
+                    githubUserInfo.getFollowers(), githubUserInfo.getPublicRepos()));
+        } else {
+            binding.fragmentMainItemStats.setText(null);
+        }
+    }
+
+    /** `updateWithFollowsBack`: Affiche le badge lorsque l'utilisateur suit le compte affiché en retour.
+     */
+    public void updateWithFollowsBack(boolean followsBack) {
+        binding.fragmentMainItemFollowsBack.setVisibility(followsBack ? View.VISIBLE : View.GONE);
+    }
+
     /** `onClick`: Méthode appelée lorsqu'une vue est cliquée. Elle utilise le callback pour notifier
      * l'activité ou le fragment associé lorsqu'un bouton de suppression est cliqué.
      */
@@ -0,0 +1,71 @@
+package com.openclassrooms.netapp.Database;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie le calcul de la différence entre la liste stockée et la première page reçue.
+ */
+public class FollowingDeltaTest {
+
+    @Test
+    public void samePage_isEmpty() {
+        FollowingDelta delta = FollowingDelta.compute(users(1, 2, 3), users(1, 2, 3), true);
+
+        assertTrue(delta.isEmpty());
+    }
+
+    @Test
+    public void insertionAtTop_keepsTheUserPushedToTheNextPage() {
+        FollowingDelta delta = FollowingDelta.compute(users(1, 2, 3, 4), users(9, 1, 2), false);
+
+        assertEquals(Arrays.asList(9, 1, 2, 3, 4), ids(delta.getFollowing()));
+        assertEquals(1, delta.getAdded().size());
+        assertTrue(delta.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void userMissingFromThePage_isRemoved() {
+        FollowingDelta delta = FollowingDelta.compute(users(1, 2, 3, 4), users(1, 3, 4), false);
+
+        assertEquals(Arrays.asList(1, 3, 4), ids(delta.getFollowing()));
+        assertEquals(2, (int) delta.getRemoved().get(0).getId());
+    }
+
+    @Test
+    public void changedAvatar_isUpdated() {
+        List<GithubUser> page = users(1, 2);
+        page.get(1).setAvatarUrl("https://avatars.githubusercontent.com/u/2?v=5");
+
+        FollowingDelta delta = FollowingDelta.compute(users(1, 2), page, true);
+
+        assertFalse(delta.isReordered());
+        assertEquals(1, delta.getUpdated().size());
+    }
+
+    private static List<GithubUser> users(int... ids) {
+        List<GithubUser> users = new ArrayList<>();
+        for (int id : ids) {
+            GithubUser user = new GithubUser();
+            user.setId(id);
+            user.setLogin("user" + id);
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static List<Integer> ids(List<GithubUser> users) {
+        List<Integer> ids = new ArrayList<>();
+        for (GithubUser user : users) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+}
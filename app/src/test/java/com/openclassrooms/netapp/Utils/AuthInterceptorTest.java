@@ -0,0 +1,58 @@
+package com.openclassrooms.netapp.Utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie que le jeton d'accès est ajouté aux appels de l'API servis par un serveur local.
+ */
+public class AuthInterceptorTest {
+
+    private MockWebServer server;
+    private String token;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void token_isSentOnEveryEndpoint() throws Exception {
+        token = "ghp_test";
+        GithubClient client = new GithubClient(server.url("/").toString(), null, () -> token);
+        server.enqueue(new MockResponse().setBody("[]"));
+        server.enqueue(new MockResponse().setBody("{\"login\":\"octocat\",\"id\":1}"));
+
+        client.getGithubService().getFollowing("octocat").blockingFirst();
+        client.getGithubService().getUserInfos("octocat").execute();
+
+        assertEquals("Bearer ghp_test", server.takeRequest().getHeader("Authorization"));
+        RecordedRequest details = server.takeRequest();
+        assertEquals("/users/octocat", details.getPath());
+        assertEquals("Bearer ghp_test", details.getHeader("Authorization"));
+    }
+
+    @Test
+    public void noToken_keepsRequestAnonymous() throws Exception {
+        token = null;
+        GithubClient client = new GithubClient(server.url("/").toString(), null, () -> token);
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        client.getGithubService().getFollowing("octocat").blockingFirst();
+
+        assertNull(server.takeRequest().getHeader("Authorization"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.openclassrooms.netapp.Utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie la réécriture des URL d'avatars avec le paramètre de taille {@code s}.
+ */
+public class AvatarUrlsTest {
+
+    private static final String AVATAR = "https://avatars.githubusercontent.com/u/66577";
+
+    @Test
+    public void urlWithoutQuery_getsTheSizeParameter() {
+        assertEquals(AVATAR + "?s=96", AvatarUrls.sized(AVATAR, 96));
+        assertEquals(AVATAR + "?s=96", AvatarUrls.sized(AVATAR + "?", 96));
+    }
+
+    @Test
+    public void existingSize_isReplaced() {
+        assertEquals(AVATAR + "?s=96", AvatarUrls.sized(AVATAR + "?s=460", 96));
+        assertEquals(AVATAR + "?s=96", AvatarUrls.sized(AVATAR + "?s", 96));
+    }
+
+    @Test
+    public void otherParameters_areKeptInOrder() {
+        assertEquals(AVATAR + "?v=4&s=96", AvatarUrls.sized(AVATAR + "?v=4", 96));
+        assertEquals(AVATAR + "?v=4&ss=1&s=96", AvatarUrls.sized(AVATAR + "?s=40&v=4&&ss=1", 96));
+    }
+
+    @Test
+    public void fragment_isDropped() {
+        assertEquals(AVATAR + "?v=4&s=96", AvatarUrls.sized(AVATAR + "?v=4#top", 96));
+        assertEquals(AVATAR + "?s=96", AvatarUrls.sized(AVATAR + "#s=10", 96));
+    }
+
+    @Test
+    public void nullUrlOrInvalidSize_isReturnedUnchanged() {
+        assertNull(AvatarUrls.sized(null, 96));
+        assertEquals(AVATAR + "?v=4", AvatarUrls.sized(AVATAR + "?v=4", 0));
+        assertEquals(AVATAR + "?v=4", AvatarUrls.sized(AVATAR + "?v=4", -1));
+    }
+
+    @Test
+    public void oversizeValue_isCappedToTheLargestServedSize() {
+        assertEquals(AVATAR + "?v=4&s=460", AvatarUrls.sized(AVATAR + "?v=4", 2048));
+        assertEquals(AVATAR + "?s=460", AvatarUrls.sized(AVATAR, 460));
+    }
+}
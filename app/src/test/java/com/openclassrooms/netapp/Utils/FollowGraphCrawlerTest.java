@@ -0,0 +1,197 @@
+package com.openclassrooms.netapp.Utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.observers.TestObserver;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.HttpException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie le parcours du graphe des abonnements contre un serveur local servant un graphe synthétique :
+ * le compte {@code uI} suit {@code u(3I+1)}, {@code u(3I+2)} et {@code u(3I+3)} modulo {@link #USERS}. La
+ * liste de {@code u0} est découpée en deux pages.
+ */
+public class FollowGraphCrawlerTest {
+
+    private static final int USERS = 60;
+
+    private MockWebServer server;
+    // Comptes dont la liste d'abonnements répond en erreur
+    private final Set<String> failing = Collections.synchronizedSet(new HashSet<>());
+    private GithubClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new GraphDispatcher());
+        server.start();
+        client = new GithubClient(server.url("/").toString(), null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void crawl_emitsEachUserOnceUpToTheMaximumDepth() {
+        FollowGraphCrawler crawler = new FollowGraphCrawler(client, 3, 4, 1000);
+
+        TestObserver<FollowGraphCrawler.Discovery> observer = crawler.crawl("u0").test();
+
+        assertTrue(observer.awaitTerminalEvent(10, TimeUnit.SECONDS));
+        observer.assertNoErrors();
+        assertEquals(expectedLogins(3), logins(observer.values()));
+        assertEquals(observer.valueCount(), crawler.getVisitedCount());
+        // u0 (deux pages) + les comptes des niveaux 1 et 2
+        assertEquals(1 + 1 + 3 + 9, crawler.getRequestCount());
+        assertTrue(crawler.checkpoint().isComplete());
+    }
+
+    @Test
+    public void exhaustedBudget_canBeResumedFromTheCheckpoint() {
+        FollowGraphCrawler first = new FollowGraphCrawler(client, 3, 2, 5);
+        TestObserver<FollowGraphCrawler.Discovery> partial = first.crawl("u0").test();
+        assertTrue(partial.awaitTerminalEvent(10, TimeUnit.SECONDS));
+        FollowGraphCrawler.Checkpoint checkpoint = first.checkpoint();
+
+        assertEquals(5, first.getRequestCount());
+        assertFalse(checkpoint.isComplete());
+
+        FollowGraphCrawler second = new FollowGraphCrawler(client, 3, 2, 1000);
+        TestObserver<FollowGraphCrawler.Discovery> rest = second.crawl(checkpoint).test();
+        assertTrue(rest.awaitTerminalEvent(10, TimeUnit.SECONDS));
+
+        Set<String> all = logins(partial.values());
+        for (String login : logins(rest.values())) {
+            assertTrue("déjà émis : " + login, all.add(login));
+        }
+        assertEquals(expectedLogins(3), all);
+    }
+
+    @Test
+    public void pausedCrawl_waitsForResume() throws Exception {
+        FollowGraphCrawler crawler = new FollowGraphCrawler(client, 2, 4, 1000);
+        crawler.pause();
+
+        TestObserver<FollowGraphCrawler.Discovery> observer = crawler.crawl("u0").test();
+        Thread.sleep(200);
+        assertEquals(0, server.getRequestCount());
+
+        crawler.resume();
+        assertTrue(observer.awaitTerminalEvent(10, TimeUnit.SECONDS));
+        assertEquals(expectedLogins(2), logins(observer.values()));
+    }
+
+    @Test
+    public void failedAccount_isCountedAndKeptForResume() {
+        failing.add("u2");
+        FollowGraphCrawler crawler = new FollowGraphCrawler(client, 2, 4, 1000);
+
+        TestObserver<FollowGraphCrawler.Discovery> observer = crawler.crawl("u0").test();
+
+        assertTrue(observer.awaitTerminalEvent(10, TimeUnit.SECONDS));
+        observer.assertNoErrors();
+        assertEquals(1, crawler.getFailedCount());
+        assertTrue(crawler.getLastError() instanceof HttpException);
+        FollowGraphCrawler.Checkpoint checkpoint = crawler.checkpoint();
+        assertEquals(1, checkpoint.getFailedCount());
+        assertEquals(Collections.singletonList(new FollowGraphCrawler.Node("u2", 1)), checkpoint.getPending());
+    }
+
+    @Test
+    public void resumedCrawl_keepsTheFailureCount() {
+        failing.add("u2");
+        FollowGraphCrawler first = new FollowGraphCrawler(client, 2, 4, 1000);
+        assertTrue(first.crawl("u0").test().awaitTerminalEvent(10, TimeUnit.SECONDS));
+        failing.clear();
+
+        FollowGraphCrawler second = new FollowGraphCrawler(client, 2, 4, 1000);
+        assertTrue(second.crawl(first.checkpoint()).test().awaitTerminalEvent(10, TimeUnit.SECONDS));
+
+        assertEquals(1, second.getFailedCount());
+        assertEquals(first.getRequestCount() + 1, second.getRequestCount());
+        assertTrue(second.checkpoint().isComplete());
+    }
+
+    @Test
+    public void exhaustedBudget_isNotAFailure() {
+        FollowGraphCrawler crawler = new FollowGraphCrawler(client, 3, 2, 3);
+
+        assertTrue(crawler.crawl("u0").test().awaitTerminalEvent(10, TimeUnit.SECONDS));
+
+        assertEquals(0, crawler.getFailedCount());
+        assertFalse(crawler.checkpoint().isComplete());
+    }
+
+    // Logins atteignables depuis u0 en au plus maxDepth sauts, sans u0
+    private static Set<String> expectedLogins(int maxDepth) {
+        Set<Integer> seen = new HashSet<>();
+        seen.add(0);
+        Deque<int[]> queue = new ArrayDeque<>();
+        queue.add(new int[]{0, 0});
+        Set<String> logins = new HashSet<>();
+        while (!queue.isEmpty()) {
+            int[] node = queue.poll();
+            if (node[1] == maxDepth) continue;
+            for (int k = 1; k <= 3; k++) {
+                int next = (node[0] * 3 + k) % USERS;
+                if (seen.add(next)) {
+                    logins.add("u" + next);
+                    queue.add(new int[]{next, node[1] + 1});
+                }
+            }
+        }
+        return logins;
+    }
+
+    private static Set<String> logins(List<FollowGraphCrawler.Discovery> discoveries) {
+        Set<String> logins = new HashSet<>();
+        for (FollowGraphCrawler.Discovery discovery : discoveries) {
+            assertTrue("doublon : " + discovery.getUser().getLogin(), logins.add(discovery.getUser().getLogin()));
+        }
+        return logins;
+    }
+
+    private class GraphDispatcher extends Dispatcher {
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath();
+            if (path == null || !path.startsWith("/users/u") || !path.contains("/following")) {
+                return new MockResponse().setResponseCode(404);
+            }
+            int user = Integer.parseInt(path.substring("/users/u".length(), path.indexOf("/following")));
+            if (failing.contains("u" + user)) return new MockResponse().setResponseCode(500);
+            int[] followed = {(user * 3 + 1) % USERS, (user * 3 + 2) % USERS, (user * 3 + 3) % USERS};
+            if (user != 0) return new MockResponse().setBody(json(followed, 0, 3));
+            if (path.contains("page=2")) return new MockResponse().setBody(json(followed, 2, 3));
+            return new MockResponse()
+                    .setHeader("Link", "<" + server.url("/users/u0/following?page=2") + ">; rel=\"next\"")
+                    .setBody(json(followed, 0, 2));
+        }
+
+        private String json(int[] ids, int from, int to) {
+            StringBuilder builder = new StringBuilder("[");
+            for (int i = from; i < to; i++) {
+                if (i > from) builder.append(',');
+                builder.append("{\"login\":\"u").append(ids[i]).append("\",\"id\":").append(ids[i] + 1).append('}');
+            }
+            return builder.append(']').toString();
+        }
+    }
+}
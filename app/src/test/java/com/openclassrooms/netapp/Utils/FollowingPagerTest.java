@@ -0,0 +1,159 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserPage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie l'enchaînement des pages, le chargement unique et la transmission d'une première page reçue en
+ * plusieurs fois, avec une source de pages pilotée par le test.
+ */
+public class FollowingPagerTest {
+
+    private static final String PAGE_2 = "https://api.github.com/user/1/following?per_page=100&page=2";
+
+    private final GithubUser a = user("a");
+    private final GithubUser b = user("b");
+    private final GithubUser c = user("c");
+
+    private final List<PublishSubject<GithubUserPage>> requests = new ArrayList<>();
+    private final List<String> requestedUrls = new ArrayList<>();
+    private final List<List<GithubUser>> loaded = new ArrayList<>();
+    private final List<Boolean> firstPages = new ArrayList<>();
+    private final List<Throwable> errors = new ArrayList<>();
+    private FollowingPager pager;
+
+    @Before
+    public void setUp() {
+        pager = new FollowingPager("jake", new FollowingPager.Listener() {
+            @Override
+            public void onPageLoaded(List<GithubUser> users, boolean firstPage) {
+                loaded.add(users);
+                firstPages.add(firstPage);
+            }
+
+            @Override
+            public void onPageError(Throwable error) {
+                errors.add(error);
+            }
+        }, new FollowingPager.PageSource() {
+            @Override
+            public Observable<GithubUserPage> firstPage(String username) {
+                return request(null);
+            }
+
+            @Override
+            public Observable<GithubUserPage> pageAt(String username, String pageUrl) {
+                return request(pageUrl);
+            }
+        });
+    }
+
+    @Test
+    public void nextPage_followsTheUrlOfThePreviousPage() {
+        pager.refresh();
+        complete(0, new GithubUserPage(Arrays.asList(a, b), PAGE_2));
+        pager.loadNextPage();
+        complete(1, new GithubUserPage(Collections.singletonList(c), null));
+
+        assertEquals(Arrays.asList(null, PAGE_2), requestedUrls);
+        assertEquals(Arrays.asList(Arrays.asList(a, b), Collections.singletonList(c)), loaded);
+        assertEquals(Arrays.asList(true, false), firstPages);
+        assertFalse(pager.hasMore());
+
+        pager.loadNextPage();
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void nextPage_isNotRequestedWhileLoading() {
+        pager.refresh();
+        requests.get(0).onNext(new GithubUserPage(Arrays.asList(a, b), PAGE_2));
+
+        assertTrue(pager.isLoading());
+        pager.loadNextPage();
+        assertEquals(1, requests.size());
+
+        requests.get(0).onComplete();
+        pager.loadNextPage();
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void growingFirstPage_onlyForwardsNewUsers() {
+        pager.refresh();
+        requests.get(0).onNext(new GithubUserPage(Collections.singletonList(a), PAGE_2));
+        requests.get(0).onNext(new GithubUserPage(Arrays.asList(a, b), PAGE_2));
+        requests.get(0).onNext(new GithubUserPage(Arrays.asList(a, b), PAGE_2));
+
+        assertEquals(Arrays.asList(Collections.singletonList(a), Collections.singletonList(b)), loaded);
+        assertEquals(Arrays.asList(true, false), firstPages);
+    }
+
+    @Test
+    public void differentFirstPage_replacesTheList() {
+        pager.refresh();
+        requests.get(0).onNext(new GithubUserPage(Arrays.asList(a, b), PAGE_2));
+        // Par exemple la liste stockée, servie après l'échec d'une nouvelle tentative
+        requests.get(0).onNext(new GithubUserPage(Arrays.asList(c, a), null));
+
+        assertEquals(Arrays.asList(true, true), firstPages);
+        assertEquals(Arrays.asList(c, a), loaded.get(1));
+    }
+
+    @Test
+    public void error_isReportedAndEndsLoading() {
+        pager.refresh();
+        requests.get(0).onError(new IOException("offline"));
+
+        assertEquals(1, errors.size());
+        assertFalse(pager.isLoading());
+        assertTrue(loaded.isEmpty());
+    }
+
+    @Test
+    public void refresh_restartsFromTheFirstPageAndDropsThePreviousLoad() {
+        pager.refresh();
+        complete(0, new GithubUserPage(Arrays.asList(a, b), PAGE_2));
+        pager.loadNextPage();
+
+        pager.refresh();
+
+        assertFalse(requests.get(1).hasObservers());
+        assertNull(requestedUrls.get(2));
+        complete(2, new GithubUserPage(Collections.singletonList(a), null));
+        assertEquals(Collections.singletonList(a), loaded.get(1));
+        assertTrue(firstPages.get(1));
+    }
+
+    private Observable<GithubUserPage> request(String url) {
+        PublishSubject<GithubUserPage> request = PublishSubject.create();
+        requests.add(request);
+        requestedUrls.add(url);
+        return request;
+    }
+
+    private void complete(int index, GithubUserPage page) {
+        requests.get(index).onNext(page);
+        requests.get(index).onComplete();
+    }
+
+    private static GithubUser user(String login) {
+        GithubUser user = new GithubUser();
+        user.setLogin(login);
+        return user;
+    }
+}
@@ -0,0 +1,100 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Database.FollowingDelta;
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie la synchronisation conditionnelle de la liste des abonnements contre un serveur local.
+ */
+public class FollowingSyncEngineTest {
+
+    private static final String FIRST = "[{\"login\":\"octocat\",\"id\":1},{\"login\":\"hubot\",\"id\":2}]";
+    private static final String SECOND = "[{\"login\":\"octocat\",\"id\":1},{\"login\":\"monalisa\",\"id\":3}]";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private TestScheduler scheduler;
+    private FollowingSyncEngine engine;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        scheduler = new TestScheduler();
+        GithubClient client = new GithubClient(server.url("/").toString(), temporaryFolder.newFolder("http_cache"));
+        engine = new FollowingSyncEngine("JakeWharton", client, new MemoryStore(), scheduler);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        engine.stop();
+        server.shutdown();
+    }
+
+    @Test
+    public void unchangedList_costsA304AndBacksOff() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setHeader("Cache-Control", "max-age=60").setBody(FIRST));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setHeader("Cache-Control", "max-age=60").setBody(SECOND));
+        TestObserver<List<GithubUser>> changes = engine.observeChanges().test();
+
+        engine.start();
+        scheduler.advanceTimeBy(60, TimeUnit.SECONDS);
+        assertEquals(1, changes.valueCount());
+        assertEquals(FollowingSyncEngine.MIN_INTERVAL_MILLIS, engine.getIntervalMillis());
+
+        scheduler.advanceTimeBy(60, TimeUnit.SECONDS);
+        assertEquals(1, changes.valueCount());
+        assertEquals(2 * FollowingSyncEngine.MIN_INTERVAL_MILLIS, engine.getIntervalMillis());
+
+        scheduler.advanceTimeBy(120, TimeUnit.SECONDS);
+        assertEquals(2, changes.valueCount());
+        assertEquals("monalisa", changes.values().get(1).get(1).getLogin());
+        assertEquals(FollowingSyncEngine.MIN_INTERVAL_MILLIS, engine.getIntervalMillis());
+
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void stop_cancelsFurtherPolls() {
+        engine.start();
+        engine.stop();
+        scheduler.advanceTimeBy(1, TimeUnit.HOURS);
+
+        assertFalse(engine.isStarted());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    // Liste stockée en mémoire, à la place de la base locale
+    private static final class MemoryStore implements FollowingSyncEngine.Store {
+        private List<GithubUser> following = Collections.emptyList();
+
+        @Override
+        public synchronized FollowingDelta applyFirstPage(String owner, List<GithubUser> firstPage, boolean complete) {
+            FollowingDelta delta = FollowingDelta.compute(following, firstPage, complete);
+            following = delta.getFollowing();
+            return delta;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.List;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie le cache disque du client partagé contre un serveur local.
+ */
+public class GithubClientCacheTest {
+
+    private static final String BODY = "[{\"login\":\"octocat\",\"id\":1}]";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private GithubClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new GithubClient(server.url("/").toString(), temporaryFolder.newFolder("http_cache"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void staleResponse_isRevalidatedWithETag() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader("ETag", "\"abc\"")
+                .setHeader("Cache-Control", "max-age=0")
+                .setBody(BODY));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        client.getGithubService().getFollowing("JakeWharton").blockingFirst();
+        List<GithubUser> users = client.getGithubService().getFollowing("JakeWharton").blockingFirst();
+
+        assertEquals("octocat", users.get(0).getLogin());
+        server.takeRequest();
+        RecordedRequest conditional = server.takeRequest();
+        assertEquals("\"abc\"", conditional.getHeader("If-None-Match"));
+        assertEquals(1, client.getCacheStats().getMissCount());
+        assertEquals(1, client.getCacheStats().getRevalidatedCount());
+        EndpointMetrics metrics = client.getNetworkMetrics().getMetrics("getFollowing");
+        assertEquals(1, metrics.getNetworkCount());
+        assertEquals(1, metrics.getConditionalHitCount());
+    }
+
+    @Test
+    public void freshResponse_isServedFromCache() {
+        server.enqueue(new MockResponse()
+                .setHeader("Cache-Control", "max-age=60")
+                .setBody(BODY));
+
+        client.getGithubService().getFollowing("JakeWharton").blockingFirst();
+        client.getGithubService().getFollowing("JakeWharton").blockingFirst();
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, client.getCacheStats().getHitCount());
+        assertEquals(1, client.getNetworkMetrics().getMetrics("getFollowing").getCacheHitCount());
+    }
+}
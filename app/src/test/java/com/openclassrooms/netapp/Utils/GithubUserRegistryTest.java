@@ -0,0 +1,44 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie la déduplication des utilisateurs par la table d'identité.
+ */
+public class GithubUserRegistryTest {
+
+    private final GithubUserRegistry registry = new GithubUserRegistry();
+
+    @Test
+    public void sameContent_returnsKnownInstance() {
+        GithubUser first = registry.canonicalize(user(1, "octocat", "https://avatars/1"));
+        GithubUser second = registry.canonicalize(user(1, "octocat", "https://avatars/1"));
+
+        assertSame(first, second);
+    }
+
+    @Test
+    public void changedContent_registersNewInstanceAndReusesStrings() {
+        GithubUser first = registry.canonicalize(user(1, "octocat", "https://avatars/1"));
+        GithubUser updated = registry.canonicalize(user(1, new String("octocat"), "https://avatars/1?v=2"));
+
+        assertNotSame(first, updated);
+        assertSame(first.getLogin(), updated.getLogin());
+        assertSame(updated, registry.getUser(1));
+        // L'ancienne instance n'est pas modifiée, pour que DiffUtil voie le changement
+        assertEquals("https://avatars/1", first.getAvatarUrl());
+    }
+
+    private static GithubUser user(int id, String login, String avatarUrl) {
+        GithubUser user = new GithubUser();
+        user.setId(id);
+        user.setLogin(login);
+        user.setAvatarUrl(avatarUrl);
+        user.setType("User");
+        return user;
+    }
+}
@@ -0,0 +1,56 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import org.junit.Test;
+
+import io.reactivex.subscribers.TestSubscriber;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie le décodage progressif d'un tableau d'utilisateurs.
+ */
+public class GithubUserStreamDecoderTest {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    @Test
+    public void users_areEmittedOnDemand() {
+        ResponseBody body = ResponseBody.create("[{\"login\":\"a\",\"id\":1},{\"login\":\"b\",\"id\":2},{\"login\":\"c\",\"id\":3}]", JSON);
+
+        TestSubscriber<GithubUser> subscriber = GithubUserStreamDecoder.decode(() -> body).test(0);
+        subscriber.assertNoValues();
+
+        subscriber.request(1);
+        subscriber.assertValueCount(1);
+        assertEquals("a", subscriber.values().get(0).getLogin());
+
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.assertValueCount(3).assertComplete();
+    }
+
+    @Test
+    public void firstUser_isDecodedBeforeTheBodyIsComplete() {
+        // Le tableau n'est pas refermé : seul le début de la réponse est disponible
+        Buffer partial = new Buffer().writeUtf8("[{\"login\":\"a\",\"id\":1},");
+        ResponseBody body = ResponseBody.create(partial, JSON, -1);
+
+        TestSubscriber<GithubUser> subscriber = GithubUserStreamDecoder.decode(() -> body).test(1);
+
+        subscriber.assertValueCount(1);
+        assertEquals(Integer.valueOf(1), subscriber.values().get(0).getId());
+    }
+
+    @Test
+    public void emptyArray_completesWithoutValues() {
+        ResponseBody body = ResponseBody.create("[]", JSON);
+
+        GithubUserStreamDecoder.decode(() -> body).test()
+                .assertNoValues()
+                .assertComplete();
+    }
+}
@@ -0,0 +1,125 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.openclassrooms.netapp.Models.GithubUserPage;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie la source GraphQL contre un serveur local qui rejoue des réponses enregistrées
+ * (fichiers {@code graphql/*.json} des ressources de test).
+ */
+public class GraphQLFollowingSourceTest {
+
+    private MockWebServer server;
+    private String token = "secret";
+    private UserInfoCache userInfoCache;
+    private GraphQLFollowingSource source;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        // Choisit la réponse selon le login et le curseur présents dans les variables de la requête
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = request.getBody().clone().readUtf8();
+                if (!"/graphql".equals(request.getPath())) return new MockResponse().setResponseCode(404);
+                if (body.contains("\"nobody\"")) return fixture("graphql/following_error.json");
+                if (body.contains("\"after\"")) return fixture("graphql/following_page2.json");
+                return fixture("graphql/following_page1.json");
+            }
+        });
+        server.start();
+        GithubClient client = new GithubClient(server.url("/").toString(), null, () -> token);
+        userInfoCache = new UserInfoCache(login -> Observable.<GithubUserInfo>error(new AssertionError("REST call for " + login)),
+                10, 5, TimeUnit.MINUTES);
+        source = new GraphQLFollowingSource(client, userInfoCache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void firstPage_mapsUsersAndPrimesInfoCacheInOneRequest() throws Exception {
+        GithubUserPage page = source.fetchFirstPage("JakeWharton").blockingFirst();
+
+        assertEquals(2, page.getUsers().size());
+        assertEquals("swankjesse", page.getUsers().get(0).getLogin());
+        assertEquals(Integer.valueOf(133019), page.getUsers().get(0).getId());
+        assertEquals("User", page.getUsers().get(0).getType());
+        GithubUserInfo info = userInfoCache.get("octocat").blockingFirst();
+        assertEquals("The Octocat", info.getName());
+        assertEquals(Integer.valueOf(17000), info.getFollowers());
+        assertEquals(Integer.valueOf(9), info.getFollowing());
+        assertEquals(Integer.valueOf(8), info.getPublicRepos());
+        assertEquals(server.url("/users/JakeWharton/following?per_page=100&page=2").toString(), page.getNextUrl());
+
+        assertEquals(1, server.getRequestCount());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("Bearer secret", request.getHeader("Authorization"));
+        String body = request.getBody().readUtf8();
+        assertTrue(body.contains("databaseId"));
+        assertTrue(body.contains("\"login\":\"JakeWharton\""));
+    }
+
+    @Test
+    public void nextPage_continuesWithTheCursor() throws Exception {
+        String nextUrl = source.fetchFirstPage("JakeWharton").blockingFirst().getNextUrl();
+        server.takeRequest();
+
+        assertTrue(source.canContinue(nextUrl));
+        GithubUserPage page = source.fetchPageAt("JakeWharton", nextUrl).blockingFirst();
+
+        assertEquals("hubot", page.getUsers().get(0).getLogin());
+        assertFalse(page.hasNext());
+        assertTrue(server.takeRequest().getBody().readUtf8().contains("\"after\":\"Y3Vyc29yOnYyOpHOAAEs\""));
+    }
+
+    @Test
+    public void graphQLErrors_areReportedAsErrors() {
+        source.fetchFirstPage("nobody").test()
+                .awaitDone(5, TimeUnit.SECONDS)
+                .assertError(GraphQLFollowingSource.GraphQLException.class);
+    }
+
+    @Test
+    public void withoutToken_sourceIsNotAvailable() {
+        assertTrue(source.isAvailable());
+        token = null;
+
+        assertFalse(source.isAvailable());
+        assertFalse(source.canContinue(server.url("/users/JakeWharton/following?per_page=100&page=2").toString()));
+    }
+
+    private static MockResponse fixture(String path) {
+        try (InputStream stream = GraphQLFollowingSourceTest.class.getClassLoader().getResourceAsStream(path)) {
+            Buffer body = new Buffer();
+            body.writeAll(Okio.source(stream));
+            return new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(body);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie les opérations sur les ensembles triés d'identifiants et l'ensemble de {@code long}.
+ */
+public class IdSetsTest {
+
+    @Test
+    public void of_sortsAndRemovesDuplicates() {
+        List<GithubUser> users = new ArrayList<>();
+        for (int id : new int[]{5, 1, 5, 3}) {
+            GithubUser user = new GithubUser();
+            user.setId(id);
+            users.add(user);
+        }
+        users.add(new GithubUser());
+
+        assertArrayEquals(new long[]{1, 3, 5}, IdSets.of(users));
+    }
+
+    @Test
+    public void intersectionAndDifference_matchJavaSets() {
+        Random random = new Random(42);
+        long[] following = randomSet(random, 20_000, 100_000);
+        long[] followers = randomSet(random, 50_000, 100_000);
+        long[] small = randomSet(random, 100, 100_000);
+
+        assertEquals(reference(following, followers, true), toSet(IdSets.intersection(following, followers)));
+        assertEquals(reference(following, followers, false), toSet(IdSets.difference(following, followers)));
+        assertEquals(reference(small, followers, true), toSet(IdSets.intersection(followers, small)));
+        assertEquals(IdSets.intersection(following, followers).length, IdSets.intersectionSize(following, followers));
+    }
+
+    @Test
+    public void longHashSet_growsAndHandlesZero() {
+        LongHashSet set = new LongHashSet(2);
+        for (long id = 0; id < 1000; id++) {
+            assertTrue(set.add(id * 7));
+        }
+
+        assertFalse(set.add(0));
+        assertFalse(set.add(700));
+        assertTrue(set.contains(0));
+        assertFalse(set.contains(701));
+        assertEquals(1000, set.size());
+        assertEquals(6993, set.toSortedArray()[999]);
+    }
+
+    private static long[] randomSet(Random random, int size, int bound) {
+        LongHashSet set = new LongHashSet(size);
+        while (set.size() < size) {
+            set.add(1 + random.nextInt(bound));
+        }
+        return set.toSortedArray();
+    }
+
+    private static Set<Long> reference(long[] a, long[] b, boolean intersection) {
+        Set<Long> result = toSet(a);
+        if (intersection) {
+            result.retainAll(toSet(b));
+        } else {
+            result.removeAll(toSet(b));
+        }
+        return result;
+    }
+
+    private static Set<Long> toSet(long[] values) {
+        Set<Long> set = new HashSet<>();
+        for (long value : values) set.add(value);
+        assertEquals("valeurs triées et uniques", set.size(), values.length);
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, values);
+        return set;
+    }
+}
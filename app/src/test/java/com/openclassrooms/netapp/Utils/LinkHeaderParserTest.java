@@ -0,0 +1,65 @@
+package com.openclassrooms.netapp.Utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie la lecture de l'en-tête {@code Link} des réponses paginées de GitHub.
+ */
+public class LinkHeaderParserTest {
+
+    private static final String MIDDLE_PAGE =
+            "<https://api.github.com/user/66577/followers?per_page=100&page=3>; rel=\"next\", "
+            + "<https://api.github.com/user/66577/followers?per_page=100&page=1240>; rel=\"last\", "
+            + "<https://api.github.com/user/66577/followers?per_page=100&page=1>; rel=\"first\", "
+            + "<https://api.github.com/user/66577/followers?per_page=100&page=1>; rel=\"prev\"";
+
+    @Test
+    public void nextUrl_isReadAmongOtherRelations() {
+        assertEquals("https://api.github.com/user/66577/followers?per_page=100&page=3",
+                LinkHeaderParser.parseNextUrl(MIDDLE_PAGE));
+    }
+
+    @Test
+    public void nextUrl_isAbsentOnTheLastPage() {
+        assertNull(LinkHeaderParser.parseNextUrl(null));
+        assertNull(LinkHeaderParser.parseNextUrl(
+                "<https://api.github.com/x?page=1>; rel=\"first\", <https://api.github.com/x?page=2>; rel=\"prev\""));
+    }
+
+    @Test
+    public void url_acceptsUnquotedRelationsAndExtraParameters() {
+        assertEquals("https://api.github.com/x?page=2",
+                LinkHeaderParser.parseUrl("<https://api.github.com/x?page=2>; type=\"json\"; rel=next", "next"));
+    }
+
+    @Test
+    public void url_ignoresMalformedLinks() {
+        assertNull(LinkHeaderParser.parseUrl("https://api.github.com/x?page=2; rel=\"next\"", "next"));
+        assertNull(LinkHeaderParser.parseUrl("<https://api.github.com/x?page=2>", "next"));
+        assertEquals("https://api.github.com/x?page=3", LinkHeaderParser.parseUrl(
+                "garbage, <https://api.github.com/x?page=3>; rel=\"next\"", "next"));
+    }
+
+    @Test
+    public void url_doesNotMatchARelationPrefix() {
+        assertNull(LinkHeaderParser.parseUrl("<https://api.github.com/x?page=2>; rel=\"nextpage\"", "next"));
+    }
+
+    @Test
+    public void lastPage_isReadFromThePageParameter() {
+        assertEquals(1240, LinkHeaderParser.parseLastPage(MIDDLE_PAGE));
+    }
+
+    @Test
+    public void lastPage_ignoresPerPage() {
+        assertEquals(7, LinkHeaderParser.parseLastPage("<https://api.github.com/x?page=7&per_page=100>; rel=\"last\""));
+    }
+
+    @Test
+    public void lastPage_isUnknownWithoutLastRelation() {
+        assertEquals(-1, LinkHeaderParser.parseLastPage(null));
+        assertEquals(-1, LinkHeaderParser.parseLastPage("<https://api.github.com/x?page=1>; rel=\"prev\""));
+    }
+}
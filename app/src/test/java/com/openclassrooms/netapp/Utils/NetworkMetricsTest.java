@@ -0,0 +1,86 @@
+package com.openclassrooms.netapp.Utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie les mesures réseau du client partagé contre un serveur local.
+ */
+public class NetworkMetricsTest {
+
+    private static final String BODY = "[{\"login\":\"octocat\",\"id\":1}]";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private GithubClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new GithubClient(server.url("/").toString(), temporaryFolder.newFolder("http_cache"));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void calls_areRecordedUnderTheServiceMethod() {
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "max-age=60").setBody(BODY));
+
+        client.getGithubService().getFollowing("JakeWharton").blockingFirst();
+        client.getGithubService().getFollowing("JakeWharton").blockingFirst();
+
+        EndpointMetrics metrics = client.getNetworkMetrics().getMetrics("getFollowing");
+        assertEquals(2, metrics.getTotal().getCount());
+        assertEquals(1, metrics.getNetworkCount());
+        assertEquals(1, metrics.getCacheHitCount());
+        assertEquals(1, metrics.getConnect().getCount());
+        assertEquals(1, metrics.getTimeToFirstByte().getCount());
+        assertEquals(BODY.length(), metrics.getResponseBytes().getMax());
+        assertTrue(client.getNetworkMetrics().getEndpoints().contains("getFollowing"));
+        assertTrue(client.getNetworkMetrics().dump().contains("getFollowing"));
+    }
+
+    @Test
+    public void failedCall_isCounted() throws Exception {
+        server.shutdown();
+
+        try {
+            client.getGithubService().getUserInfos("octocat").execute();
+            fail("Le serveur est arrêté");
+        } catch (IOException expected) {
+            // Connexion refusée
+        }
+
+        EndpointMetrics metrics = client.getNetworkMetrics().getMetrics("getUserInfos");
+        assertEquals(1, metrics.getFailureCount());
+    }
+
+    @Test
+    public void histogram_percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 * 0.07);
+        assertEquals(990_000, histogram.getValueAtPercentile(99), 990_000 * 0.07);
+        assertEquals(1_000_000, histogram.getMax());
+    }
+}
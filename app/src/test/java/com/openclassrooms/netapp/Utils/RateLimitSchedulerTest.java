@@ -0,0 +1,128 @@
+package com.openclassrooms.netapp.Utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie le report des requêtes de fond lorsque le budget de l'API atteint la réserve du premier plan, et l'échec
+ * immédiat des requêtes de premier plan lorsqu'il est épuisé.
+ */
+public class RateLimitSchedulerTest {
+
+    private static final long NOW_MILLIS = 1_700_000_000_000L;
+
+    private TestScheduler scheduler;
+    private RateLimitScheduler rateLimitScheduler;
+    private AtomicInteger subscriptions;
+
+    @Before
+    public void setUp() {
+        scheduler = new TestScheduler();
+        rateLimitScheduler = new RateLimitScheduler(scheduler, () -> NOW_MILLIS);
+        subscriptions = new AtomicInteger();
+    }
+
+    @Test
+    public void background_aboveReserve_startsImmediately() {
+        rateLimitScheduler.update(response(50, 60));
+
+        TestObserver<Integer> observer = rateLimitScheduler
+                .schedule("users/octocat", RateLimitScheduler.Priority.BACKGROUND, request()).test();
+
+        observer.assertValue(1);
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void background_atReserve_isDeferredUntilResetThenRuns() {
+        rateLimitScheduler.update(response(3, 60));
+
+        TestObserver<Integer> observer = rateLimitScheduler
+                .schedule("users/octocat", RateLimitScheduler.Priority.BACKGROUND, request()).test();
+        scheduler.advanceTimeBy(59, TimeUnit.SECONDS);
+        assertEquals(0, subscriptions.get());
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        observer.awaitDone(5, TimeUnit.SECONDS).assertValue(1).assertComplete();
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void background_identicalDeferredRequests_runOnce() {
+        rateLimitScheduler.update(response(0, 60));
+
+        TestObserver<Integer> first = rateLimitScheduler
+                .schedule("users/octocat", RateLimitScheduler.Priority.BACKGROUND, request()).test();
+        TestObserver<Integer> second = rateLimitScheduler
+                .schedule("users/octocat", RateLimitScheduler.Priority.BACKGROUND, request()).test();
+        scheduler.advanceTimeBy(60, TimeUnit.SECONDS);
+
+        first.awaitDone(5, TimeUnit.SECONDS).assertValue(1);
+        second.awaitDone(5, TimeUnit.SECONDS).assertValue(1);
+        assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    public void foreground_withBudgetLeft_startsImmediately() {
+        rateLimitScheduler.update(response(1, 60));
+
+        rateLimitScheduler.schedule("users/octocat", RateLimitScheduler.Priority.FOREGROUND, request()).test()
+                .assertValue(1);
+    }
+
+    @Test
+    public void foreground_exhausted_failsFastUntilReset() {
+        rateLimitScheduler.update(response(0, 3600, RateLimitScheduler.RESOURCE_GRAPHQL));
+
+        TestObserver<Integer> observer = rateLimitScheduler.schedule(RateLimitScheduler.RESOURCE_GRAPHQL,
+                "graphql/following", RateLimitScheduler.Priority.FOREGROUND, request()).test();
+
+        observer.assertError(error -> error instanceof RateLimitScheduler.RateLimitedException
+                && ((RateLimitScheduler.RateLimitedException) error).getResetEpochMillis() == NOW_MILLIS + 3_600_000);
+        assertEquals(0, subscriptions.get());
+    }
+
+    @Test
+    public void budgetOfAnotherResource_doesNotDeferCore() {
+        rateLimitScheduler.update(response(0, 60, RateLimitScheduler.RESOURCE_SEARCH));
+
+        rateLimitScheduler.schedule("users/octocat", RateLimitScheduler.Priority.BACKGROUND, request()).test()
+                .assertValue(1);
+    }
+
+    private Observable<Integer> request() {
+        return Observable.fromCallable(() -> {
+            subscriptions.incrementAndGet();
+            return 1;
+        });
+    }
+
+    private static Response response(int remaining, long resetInSeconds) {
+        return response(remaining, resetInSeconds, RateLimitScheduler.RESOURCE_CORE);
+    }
+
+    private static Response response(int remaining, long resetInSeconds, String resource) {
+        return new Response.Builder()
+                .request(new Request.Builder().url("https://api.github.com/users/octocat").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .header("X-RateLimit-Limit", "60")
+                .header("X-RateLimit-Remaining", String.valueOf(remaining))
+                .header("X-RateLimit-Reset", String.valueOf(NOW_MILLIS / 1000 + resetInSeconds))
+                .header("X-RateLimit-Resource", resource)
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.openclassrooms.netapp.Utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie les résultats typés du moteur de requêtes brutes contre un serveur local.
+ */
+public class RawHttpEngineTest {
+
+    private MockWebServer server;
+    private RawHttpEngine engine;
+    private final BlockingQueue<RawHttpResult> results = new ArrayBlockingQueue<>(4);
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        // Les rappels sont exécutés directement sur le thread du pool
+        engine = new RawHttpEngine(new OkHttpClient(), Runnable::run);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void success_returnsBodyAndReleasesBuffer() throws Exception {
+        server.enqueue(new MockResponse().setBody("[{\"login\":\"octocat\"}]"));
+
+        engine.fetch(server.url("/users").toString(), results::add);
+        RawHttpResult result = results.poll(5, TimeUnit.SECONDS);
+
+        assertEquals(RawHttpResult.Status.SUCCESS, result.getStatus());
+        assertEquals("[{\"login\":\"octocat\"}]", result.getBodyAsString());
+        assertEquals(1, engine.getBufferPool().size());
+    }
+
+    @Test
+    public void httpError_keepsCodeAndBody() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("{\"message\":\"Not Found\"}"));
+
+        engine.fetch(server.url("/users/nobody").toString(), results::add);
+        RawHttpResult result = results.poll(5, TimeUnit.SECONDS);
+
+        assertEquals(RawHttpResult.Status.HTTP_ERROR, result.getStatus());
+        assertEquals(404, result.getCode());
+        assertEquals("{\"message\":\"Not Found\"}", result.getBodyAsString());
+    }
+
+    @Test
+    public void slowResponse_isReportedAsTimeout() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        engine.fetch(server.url("/slow").toString(), 1000, 200, results::add);
+        RawHttpResult result = results.poll(5, TimeUnit.SECONDS);
+
+        assertEquals(RawHttpResult.Status.TIMEOUT, result.getStatus());
+    }
+
+    @Test
+    public void runtimeFailure_isReportedAsNetworkError() throws Exception {
+        RawHttpEngine failing = new RawHttpEngine(new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    throw new IllegalStateException("boom");
+                })
+                .build(), Runnable::run);
+
+        failing.fetch(server.url("/users").toString(), results::add);
+        RawHttpResult result = results.poll(5, TimeUnit.SECONDS);
+
+        assertNotNull(result);
+        assertEquals(RawHttpResult.Status.NETWORK_ERROR, result.getStatus());
+        assertTrue(result.getError() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void cancelledRequest_neverCallsBack() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        RawHttpEngine.Handle handle = engine.fetch(server.url("/slow").toString(), results::add);
+        handle.cancel();
+
+        assertTrue(handle.isCancelled());
+        assertNull(results.poll(500, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,123 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie l'attente de fin de saisie, l'annulation, le cache et le filtrage des préfixes en cache de la recherche
+ * distante contre un serveur local.
+ */
+public class RemoteUserSearchTest {
+
+    private static final String RESULTS = "{\"total_count\":2,\"incomplete_results\":false,"
+            + "\"items\":[{\"login\":\"JakeWharton\",\"id\":66577},{\"login\":\"jakeb\",\"id\":12}]}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private TestScheduler scheduler;
+    private RemoteUserSearch search;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        scheduler = new TestScheduler();
+        GithubClient client = new GithubClient(server.url("/").toString(), temporaryFolder.newFolder("http_cache"));
+        search = new RemoteUserSearch(client, new UserSearchCache(10, 1, TimeUnit.MINUTES), scheduler);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void typing_onlySearchesTheLastQueryAfterAPause() throws Exception {
+        server.enqueue(new MockResponse().setBody(RESULTS));
+        PublishSubject<String> queries = PublishSubject.create();
+        TestObserver<List<GithubUser>> results = search.search(queries).test();
+
+        queries.onNext("j");
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        queries.onNext("ja");
+        scheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS);
+        queries.onNext("Jake ");
+        scheduler.advanceTimeBy(RemoteUserSearch.DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+
+        results.awaitCount(1);
+        assertEquals("JakeWharton", results.values().get(0).get(0).getLogin());
+        assertEquals(1, server.getRequestCount());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/search/users?q=jake&per_page=" + RemoteUserSearch.PAGE_SIZE, request.getPath());
+    }
+
+    @Test
+    public void backspacing_servesCachedResultsWithoutRequest() {
+        server.enqueue(new MockResponse().setBody(RESULTS));
+        PublishSubject<String> queries = PublishSubject.create();
+        TestObserver<List<GithubUser>> results = search.search(queries).test();
+
+        queries.onNext("jake");
+        scheduler.advanceTimeBy(RemoteUserSearch.DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        results.awaitCount(1);
+        queries.onNext("jakew");
+        queries.onNext("JAKE");
+
+        assertEquals(3, results.valueCount());
+        assertSame(results.values().get(0), results.values().get(2));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void uncachedQuery_isFilteredFromACachedPrefixThenFetched() {
+        server.enqueue(new MockResponse().setBody(RESULTS));
+        search.getCache().put("ja", users("JakeWharton", "jane"));
+
+        TestObserver<List<GithubUser>> results = search.search("jak").test();
+        results.assertValueCount(1);
+        assertEquals(1, results.values().get(0).size());
+
+        scheduler.advanceTimeBy(RemoteUserSearch.DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        results.awaitCount(2);
+        assertEquals(2, results.values().get(1).size());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void emptyQuery_givesEmptyListWithoutRequest() {
+        TestObserver<List<GithubUser>> results = search.search("   ").test();
+
+        results.assertValue(List::isEmpty);
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private static List<GithubUser> users(String... logins) {
+        List<GithubUser> users = new ArrayList<>();
+        for (String login : logins) {
+            GithubUser user = new GithubUser();
+            user.setLogin(login);
+            users.add(user);
+        }
+        return users;
+    }
+}
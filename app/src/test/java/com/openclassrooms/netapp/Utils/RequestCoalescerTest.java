@@ -0,0 +1,75 @@
+package com.openclassrooms.netapp.Utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie le partage des requêtes en cours par clé.
+ */
+public class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final PublishSubject<String> response = PublishSubject.create();
+
+    private Observable<String> request() {
+        return response.doOnSubscribe(d -> subscriptions.incrementAndGet()).take(1);
+    }
+
+    @Test
+    public void sameKey_sharesOneInFlightRequest() {
+        TestObserver<String> first = coalescer.coalesce("following/jake", request()).test();
+        TestObserver<String> second = coalescer.coalesce("following/jake", request()).test();
+
+        response.onNext("page");
+
+        assertEquals(1, subscriptions.get());
+        first.assertValue("page").assertComplete();
+        second.assertValue("page").assertComplete();
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    public void supersededSubscriber_keepsRequestForOthers() {
+        TestObserver<String> first = coalescer.coalesce("following/jake", request()).test();
+        TestObserver<String> second = coalescer.coalesce("following/jake", request()).test();
+        first.dispose();
+
+        assertTrue(response.hasObservers());
+        response.onNext("page");
+        second.assertValue("page");
+    }
+
+    @Test
+    public void lastSubscriberDisposed_cancelsRequest() {
+        TestObserver<String> only = coalescer.coalesce("following/jake", request()).test();
+        only.dispose();
+
+        assertFalse(response.hasObservers());
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    public void callDuringCompletion_startsANewRequestThatStaysRegistered() {
+        PublishSubject<String> next = PublishSubject.create();
+        AtomicReference<Observable<String>> retried = new AtomicReference<>();
+        coalescer.coalesce("following/jake", request())
+                .subscribe(value -> { }, error -> { }, () -> retried.set(coalescer.coalesce("following/jake", next)));
+
+        response.onNext("v1");
+        TestObserver<String> later = retried.get().test();
+
+        later.assertNoValues().assertNotComplete();
+        assertEquals(1, coalescer.size());
+        next.onNext("v2");
+        later.assertValue("v2");
+    }
+}
@@ -0,0 +1,191 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.TestScheduler;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.HttpException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie les nouvelles tentatives et le disjoncteur contre un serveur local qui injecte des pannes.
+ */
+public class ResilienceTest {
+
+    private static final String BODY = "[{\"login\":\"octocat\",\"id\":1}]";
+
+    private MockWebServer server;
+    private GithubService service;
+    private long nowMillis;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        service = new GithubClient(server.url("/").toString(), null).getGithubService();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    private Resilience resilience(int maxRetries, int failureThreshold) {
+        RetryPolicy retryPolicy = new RetryPolicy(maxRetries, 1, 5, Schedulers.computation(), new Random(0));
+        return new Resilience(retryPolicy, failureThreshold, 60_000, () -> nowMillis, Schedulers.computation());
+    }
+
+    @Test
+    public void transientFailures_areRetried() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        server.enqueue(new MockResponse().setBody(BODY));
+
+        List<GithubUser> users = resilience(3, 5).execute("users/following", service.getFollowing("jake")).blockingFirst();
+
+        assertEquals("octocat", users.get(0).getLogin());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void exhaustedQuota_servesFallbackWithoutRetryNorFailure() {
+        int[] attempts = {0};
+        Observable<List<GithubUser>> request = Observable.defer(() -> {
+            attempts[0]++;
+            return Observable.error(new RateLimitScheduler.RateLimitedException(RateLimitScheduler.RESOURCE_GRAPHQL, 0));
+        });
+        Resilience resilience = resilience(3, 1);
+
+        List<GithubUser> users = resilience.execute("graphql", request, Observable.just(Collections.<GithubUser>emptyList()))
+                .blockingFirst();
+
+        assertTrue(users.isEmpty());
+        assertEquals(1, attempts[0]);
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker("graphql").getState());
+    }
+
+    @Test
+    public void clientError_isNotRetried() {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        Resilience resilience = resilience(3, 5);
+
+        try {
+            resilience.execute("users/following", service.getFollowing("nobody")).blockingFirst();
+            fail();
+        } catch (HttpException e) {
+            assertEquals(404, e.code());
+        }
+        assertEquals(1, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker("users/following").getState());
+    }
+
+    @Test
+    public void openCircuit_failsFastAndServesFallback() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        Resilience resilience = resilience(0, 2);
+        Observable<List<GithubUser>> cached = Observable.just(Collections.<GithubUser>emptyList());
+
+        resilience.execute("users/following", service.getFollowing("jake"), cached).blockingFirst();
+        resilience.execute("users/following", service.getFollowing("jake"), cached).blockingFirst();
+        List<GithubUser> served = resilience.execute("users/following", service.getFollowing("jake"), cached).blockingFirst();
+
+        assertTrue(served.isEmpty());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker("users/following").getState());
+    }
+
+    @Test
+    public void halfOpenTrial_closesCircuitOnSuccess() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody(BODY));
+        Resilience resilience = resilience(0, 1);
+        Observable<List<GithubUser>> cached = Observable.just(Collections.<GithubUser>emptyList());
+
+        resilience.execute("users/following", service.getFollowing("jake"), cached).blockingFirst();
+        nowMillis += 60_000;
+        List<GithubUser> users = resilience.execute("users/following", service.getFollowing("jake")).blockingFirst();
+
+        assertEquals(1, users.size());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker("users/following").getState());
+    }
+
+    @Test
+    public void disposedHalfOpenTrial_releasesTheTrialSlot() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody(BODY).setBodyDelay(5, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody(BODY));
+        Resilience resilience = resilience(0, 1);
+        resilience.execute("users/following", service.getFollowing("jake"), cached()).blockingFirst();
+        nowMillis += 60_000;
+
+        resilience.execute("users/following", service.getFollowing("jake")).test().dispose();
+        List<GithubUser> users = resilience.execute("users/following", service.getFollowing("jake")).blockingFirst();
+
+        assertEquals(1, users.size());
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getCircuitBreaker("users/following").getState());
+    }
+
+    @Test
+    public void unreadableTrialResponse_reopensCircuit() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("{\"message\":\"not a list\"}"));
+        Resilience resilience = resilience(0, 1);
+        resilience.execute("users/following", service.getFollowing("jake"), cached()).blockingFirst();
+        nowMillis += 60_000;
+
+        resilience.execute("users/following", service.getFollowing("jake")).test()
+                .awaitDone(5, TimeUnit.SECONDS)
+                .assertError(IllegalStateException.class);
+
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getCircuitBreaker("users/following").getState());
+        nowMillis += 60_000;
+        assertTrue(resilience.getCircuitBreaker("users/following").allowRequest());
+    }
+
+    @Test
+    public void retryAfter_isHonouredBeyondTheBackoffCeiling() {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "60"));
+        server.enqueue(new MockResponse().setBody(BODY));
+        TestScheduler scheduler = new TestScheduler();
+        RetryPolicy retryPolicy = new RetryPolicy(1, 1, 5, 120_000, scheduler, new Random(0));
+
+        TestObserver<List<GithubUser>> observer = service.getFollowing("jake").retryWhen(retryPolicy).test();
+        scheduler.advanceTimeBy(59, TimeUnit.SECONDS);
+        assertEquals(1, server.getRequestCount());
+
+        scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+        observer.awaitDone(5, TimeUnit.SECONDS).assertValueCount(1);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void retryAfterLongerThanBudget_givesUp() {
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "3600"));
+        RetryPolicy retryPolicy = new RetryPolicy(3, 1, 5, 60_000, new TestScheduler(), new Random(0));
+
+        service.getFollowing("jake").retryWhen(retryPolicy).test()
+                .awaitDone(5, TimeUnit.SECONDS)
+                .assertError(HttpException.class);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private static Observable<List<GithubUser>> cached() {
+        return Observable.just(Collections.<GithubUser>emptyList());
+    }
+}
@@ -0,0 +1,135 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.reactivex.Observable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie l'expiration (valeur périmée puis rafraîchie), l'éviction LRU et le partage des appels en cours du
+ * cache des informations utilisateur, avec une horloge contrôlée par le test.
+ */
+public class UserInfoCacheTest {
+
+    private long nowMillis;
+    private AtomicInteger fetches;
+    // Réponse du prochain appel ; null pour renvoyer une information numérotée par appel
+    private Observable<GithubUserInfo> nextResponse;
+
+    @Before
+    public void setUp() {
+        nowMillis = 1_000;
+        fetches = new AtomicInteger();
+        nextResponse = null;
+    }
+
+    private UserInfoCache cache(int maxSize) {
+        return new UserInfoCache(login -> {
+            int call = fetches.incrementAndGet();
+            return nextResponse != null ? nextResponse : Observable.just(info(login, call));
+        }, maxSize, 5, TimeUnit.MINUTES, () -> nowMillis);
+    }
+
+    @Test
+    public void freshEntry_isServedWithoutFetching() {
+        UserInfoCache cache = cache(10);
+        cache.get("octocat").test().awaitDone(5, TimeUnit.SECONDS);
+
+        nowMillis += TimeUnit.MINUTES.toMillis(4);
+        TestObserver<GithubUserInfo> observer = cache.get("OctoCat").test();
+
+        observer.assertValueCount(1).assertComplete();
+        assertEquals(1, (int) observer.values().get(0).getFollowers());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void expiredEntry_emitsStaleThenFresh() {
+        UserInfoCache cache = cache(10);
+        cache.get("octocat").test().awaitDone(5, TimeUnit.SECONDS);
+
+        nowMillis += TimeUnit.MINUTES.toMillis(5) + 1;
+        TestObserver<GithubUserInfo> observer = cache.get("octocat").test().awaitDone(5, TimeUnit.SECONDS);
+
+        observer.assertValueCount(2).assertComplete();
+        assertEquals(1, (int) observer.values().get(0).getFollowers());
+        assertEquals(2, (int) observer.values().get(1).getFollowers());
+        assertEquals(2, (int) cache.peek("octocat").getFollowers());
+        // La valeur rafraîchie repart pour une durée de validité complète
+        cache.get("octocat").test().assertValueCount(1);
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void failedRefresh_keepsTheStaleValue() {
+        UserInfoCache cache = cache(10);
+        cache.get("octocat").test().awaitDone(5, TimeUnit.SECONDS);
+
+        nowMillis += TimeUnit.MINUTES.toMillis(6);
+        nextResponse = Observable.error(new IOException("offline"));
+        TestObserver<GithubUserInfo> observer = cache.get("octocat").test().awaitDone(5, TimeUnit.SECONDS);
+
+        observer.assertNoErrors().assertValueCount(1).assertComplete();
+        assertEquals(1, (int) cache.peek("octocat").getFollowers());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntry_isEvicted() {
+        UserInfoCache cache = cache(2);
+        cache.put(info("a", 1));
+        cache.put(info("b", 1));
+        // a devient la plus récemment utilisée : b est évincée à l'ajout de c
+        cache.get("a").test().assertValueCount(1);
+        cache.put(info("c", 1));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.peek("a"));
+        assertNull(cache.peek("b"));
+        assertNotNull(cache.peek("c"));
+    }
+
+    @Test
+    public void concurrentRequests_shareOneFetch() {
+        PublishSubject<GithubUserInfo> response = PublishSubject.create();
+        nextResponse = response;
+        UserInfoCache cache = cache(10);
+
+        TestObserver<GithubUserInfo> first = cache.get("octocat").test();
+        TestObserver<GithubUserInfo> second = cache.get("OctoCat").test();
+        awaitSubscribers(response);
+        response.onNext(info("octocat", 7));
+        response.onComplete();
+
+        first.awaitDone(5, TimeUnit.SECONDS).assertValueCount(1);
+        second.awaitDone(5, TimeUnit.SECONDS).assertValueCount(1);
+        assertSame(first.values().get(0), second.values().get(0));
+        assertEquals(1, fetches.get());
+        assertEquals(7, (int) cache.peek("octocat").getFollowers());
+    }
+
+    // L'appel est souscrit sur Schedulers.io() : attend qu'il le soit avant d'émettre la réponse
+    private static void awaitSubscribers(PublishSubject<?> subject) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!subject.hasObservers() && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertTrue(subject.hasObservers());
+    }
+
+    private static GithubUserInfo info(String login, int followers) {
+        GithubUserInfo info = new GithubUserInfo();
+        info.setLogin(login);
+        info.setFollowers(followers);
+        return info;
+    }
+}
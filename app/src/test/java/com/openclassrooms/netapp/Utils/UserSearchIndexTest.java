@@ -0,0 +1,109 @@
+package com.openclassrooms.netapp.Utils;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Vérifie l'index de recherche locale sur les utilisateurs chargés.
+ */
+public class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+    private List<GithubUser> users;
+
+    @Before
+    public void setUp() {
+        index = new UserSearchIndex();
+        users = new ArrayList<>();
+        users.add(user(1, "JakeWharton"));
+        users.add(user(2, "swankjesse"));
+        users.add(user(3, "square-bot"));
+        index.addAll(users);
+    }
+
+    @Test
+    public void query_matchesLoginPrefixes() {
+        assertEquals(logins("JakeWharton"), logins(index.filter(users, "jake")));
+        assertEquals(logins("square-bot"), logins(index.filter(users, "BOT")));
+        assertEquals(logins("square-bot"), logins(index.filter(users, "square-b")));
+        assertTrue(index.filter(users, "wharton").isEmpty());
+        assertSame(users, index.filter(users, "  "));
+    }
+
+    @Test
+    public void userInfo_isIndexedIncrementally() {
+        index.update(info(2, "swankjesse", "Jesse Wilson", "Block", "Waterloo"));
+
+        assertEquals(logins("swankjesse"), logins(index.filter(users, "wils")));
+        assertEquals(logins("swankjesse"), logins(index.filter(users, "jes water")));
+        assertTrue(index.filter(users, "jes london").isEmpty());
+
+        index.update(info(2, "swankjesse", "Jesse Wilson", "Block", "Toronto"));
+        assertTrue(index.filter(users, "water").isEmpty());
+        assertEquals(logins("swankjesse"), logins(index.filter(users, "tor")));
+        assertEquals(3, index.size());
+    }
+
+    // Le temps de recherche sur une grande liste est mesuré par SearchIndexBenchmark (module benchmarks)
+    @Test
+    public void queryOnManyUsers_keepsListOrderAndMatchesEveryWord() {
+        String[] cities = {"London", "Paris", "Berlin", "Tokyo", "Lyon", "Lisbon", "Toronto", "Seattle"};
+        List<GithubUser> many = new ArrayList<>();
+        UserSearchIndex large = new UserSearchIndex();
+        for (int id = 1; id <= 5_000; id++) {
+            GithubUser user = user(id, "user" + Integer.toString(id, 36) + "-dev");
+            many.add(user);
+            large.add(user);
+            large.update(info(id, user.getLogin(), "Name " + id, "Company" + (id % 500), cities[id % cities.length]));
+        }
+
+        List<GithubUser> london = large.filter(many, "lond");
+        assertEquals(5_000 / cities.length, london.size());
+        for (int i = 1; i < london.size(); i++) {
+            assertTrue(london.get(i - 1).getId() < london.get(i).getId());
+        }
+        List<GithubUser> companyInParis = large.filter(many, "company4 par");
+        assertFalse(companyInParis.isEmpty());
+        for (GithubUser user : companyInParis) {
+            assertEquals(1, user.getId() % cities.length);
+            assertTrue(String.valueOf(user.getId() % 500).startsWith("4"));
+        }
+    }
+
+    private static GithubUser user(int id, String login) {
+        GithubUser user = new GithubUser();
+        user.setId(id);
+        user.setLogin(login);
+        return user;
+    }
+
+    private static GithubUserInfo info(int id, String login, String name, String company, String location) {
+        GithubUserInfo info = new GithubUserInfo();
+        info.setId(id);
+        info.setLogin(login);
+        info.setName(name);
+        info.setCompany(company);
+        info.setLocation(location);
+        return info;
+    }
+
+    private static List<String> logins(String... logins) {
+        List<String> result = new ArrayList<>();
+        for (String login : logins) result.add(login);
+        return result;
+    }
+
+    private static List<String> logins(List<GithubUser> users) {
+        List<String> result = new ArrayList<>();
+        for (GithubUser user : users) result.add(user.getLogin());
+        return result;
+    }
+}
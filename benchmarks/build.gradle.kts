@@ -0,0 +1,34 @@
+// Microbenchmarks JMH du parsing JSON et de la recherche locale, exécutés sur la JVM : ./gradlew :benchmarks:jmh
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+sourceSets {
+    main {
+        // Les modèles de l'application sont des POJO sans dépendance Android : on les compile tels quels
+        java.srcDir("../app/src/main/java")
+        java.include("com/openclassrooms/netapp/Models/**")
+        // Index de recherche locale, sans dépendance Android non plus
+        java.include("com/openclassrooms/netapp/Utils/UserSearchIndex.java")
+    }
+}
+
+dependencies {
+    implementation(libs.gson)
+    implementation(libs.moshi)
+}
+
+jmh {
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // Le profileur GC rapporte les octets alloués par opération (gc.alloc.rate.norm)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
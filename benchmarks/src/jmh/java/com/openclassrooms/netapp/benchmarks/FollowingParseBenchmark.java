@@ -0,0 +1,87 @@
+package com.openclassrooms.netapp.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.Moshi;
+import com.squareup.moshi.Types;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okio.Buffer;
+
+/**
+ * Mesure le coût de désérialisation d'une page {@code users/{login}/following} en {@code List<GithubUser>}.
+ * <p>
+ * Trois convertisseurs sont comparés sur 30, 100 et 1000 utilisateurs : Gson par réflexion (le
+ * {@code GsonConverterFactory} actuel), Gson avec un TypeAdapter sans réflexion, et Moshi avec un
+ * adaptateur de type codegen. Lancer avec {@code ./gradlew :benchmarks:jmh} ; le profileur GC
+ * fournit les octets alloués par opération ({@code gc.alloc.rate.norm}).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FollowingParseBenchmark {
+
+    private static final Type USER_LIST = new TypeToken<List<GithubUser>>() { }.getType();
+
+    @Param({"30", "100", "1000"})
+    public int size;
+
+    private byte[] body;
+    private Gson reflectiveGson;
+    private Gson adapterGson;
+    private JsonAdapter<List<GithubUser>> moshiAdapter;
+
+    @Setup
+    public void setUp() {
+        body = Payloads.following(size);
+        reflectiveGson = new Gson();
+        adapterGson = new GsonBuilder()
+                .registerTypeAdapter(GithubUser.class, new GsonAdapters.GithubUserAdapter())
+                .create();
+        Moshi moshi = new Moshi.Builder()
+                .add(GithubUser.class, new MoshiAdapters.GithubUserAdapter())
+                .build();
+        moshiAdapter = moshi.adapter(Types.newParameterizedType(List.class, GithubUser.class));
+    }
+
+    @Benchmark
+    public List<GithubUser> gsonReflection() {
+        return reflectiveGson.fromJson(reader(), USER_LIST);
+    }
+
+    @Benchmark
+    public List<GithubUser> gsonTypeAdapter() {
+        return adapterGson.fromJson(reader(), USER_LIST);
+    }
+
+    @Benchmark
+    public List<GithubUser> moshiCodegen() throws IOException {
+        return moshiAdapter.fromJson(JsonReader.of(new Buffer().write(body)));
+    }
+
+    // Gson lit un flux de caractères décodé depuis les octets, comme le fait GsonConverterFactory
+    private InputStreamReader reader() {
+        return new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,155 @@
+package com.openclassrooms.netapp.benchmarks;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+
+import java.io.IOException;
+
+/**
+ * TypeAdapters Gson écrits sans réflexion, équivalents à ceux qu'un générateur de code produirait.
+ * <p>
+ * Ils lisent les champs par nom avec un {@code switch} et appellent directement les setters,
+ * ce qui évite la réflexion de {@code ReflectiveTypeAdapterFactory}. Seule la lecture est mesurée, mais
+ * l'écriture produit le même JSON que l'adaptateur par réflexion, pour un aller-retour complet.
+ * </p>
+ */
+final class GsonAdapters {
+
+    private GsonAdapters() { }
+
+    static final class GithubUserAdapter extends TypeAdapter<GithubUser> {
+        @Override
+        public void write(JsonWriter out, GithubUser value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("login").value(value.getLogin());
+            out.name("id").value(value.getId());
+            out.name("avatar_url").value(value.getAvatarUrl());
+            out.name("type").value(value.getType());
+            out.endObject();
+        }
+
+        @Override
+        public GithubUser read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            GithubUser user = new GithubUser();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "login":
+                        user.setLogin(nextString(in));
+                        break;
+                    case "id":
+                        user.setId(nextInteger(in));
+                        break;
+                    case "avatar_url":
+                        user.setAvatarUrl(nextString(in));
+                        break;
+                    case "type":
+                        user.setType(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return user;
+        }
+    }
+
+    static final class GithubUserInfoAdapter extends TypeAdapter<GithubUserInfo> {
+        @Override
+        public void write(JsonWriter out, GithubUserInfo value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("login").value(value.getLogin());
+            out.name("id").value(value.getId());
+            out.name("avatar_url").value(value.getAvatarUrl());
+            out.name("type").value(value.getType());
+            out.name("name").value(value.getName());
+            out.name("company").value(value.getCompany());
+            out.name("location").value(value.getLocation());
+            out.name("public_repos").value(value.getPublicRepos());
+            out.name("followers").value(value.getFollowers());
+            out.name("following").value(value.getFollowing());
+            out.endObject();
+        }
+
+        @Override
+        public GithubUserInfo read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            GithubUserInfo info = new GithubUserInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "login":
+                        info.setLogin(nextString(in));
+                        break;
+                    case "id":
+                        info.setId(nextInteger(in));
+                        break;
+                    case "avatar_url":
+                        info.setAvatarUrl(nextString(in));
+                        break;
+                    case "type":
+                        info.setType(nextString(in));
+                        break;
+                    case "name":
+                        info.setName(nextString(in));
+                        break;
+                    case "company":
+                        info.setCompany(nextString(in));
+                        break;
+                    case "location":
+                        info.setLocation(nextString(in));
+                        break;
+                    case "public_repos":
+                        info.setPublicRepos(nextInteger(in));
+                        break;
+                    case "followers":
+                        info.setFollowers(nextInteger(in));
+                        break;
+                    case "following":
+                        info.setFollowing(nextInteger(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return info;
+        }
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static Integer nextInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+}
@@ -0,0 +1,153 @@
+package com.openclassrooms.netapp.benchmarks;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * JsonAdapters Moshi équivalents à ceux générés par moshi-kotlin-codegen.
+ * <p>
+ * Le générateur de Moshi ne traite que les classes Kotlin ; pour les modèles Java de l'application,
+ * ces adaptateurs reproduisent le code qu'il produirait : noms de champs pré-encodés dans un
+ * {@link JsonReader.Options} et lecture par index avec {@code selectName}.
+ * </p>
+ */
+final class MoshiAdapters {
+
+    private MoshiAdapters() { }
+
+    static final class GithubUserAdapter extends JsonAdapter<GithubUser> {
+        private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+                "login", "id", "avatar_url", "type");
+
+        @Override
+        public GithubUser fromJson(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonReader.Token.NULL) {
+                return reader.nextNull();
+            }
+            GithubUser user = new GithubUser();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.selectName(OPTIONS)) {
+                    case 0:
+                        user.setLogin(nextString(reader));
+                        break;
+                    case 1:
+                        user.setId(nextInteger(reader));
+                        break;
+                    case 2:
+                        user.setAvatarUrl(nextString(reader));
+                        break;
+                    case 3:
+                        user.setType(nextString(reader));
+                        break;
+                    default:
+                        reader.skipName();
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return user;
+        }
+
+        @Override
+        public void toJson(JsonWriter writer, GithubUser value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+            writer.beginObject();
+            writer.name("login").value(value.getLogin());
+            writer.name("id").value(value.getId());
+            writer.name("avatar_url").value(value.getAvatarUrl());
+            writer.name("type").value(value.getType());
+            writer.endObject();
+        }
+    }
+
+    static final class GithubUserInfoAdapter extends JsonAdapter<GithubUserInfo> {
+        private static final JsonReader.Options OPTIONS = JsonReader.Options.of(
+                "login", "id", "avatar_url", "type", "name", "company", "location",
+                "public_repos", "followers", "following");
+
+        @Override
+        public GithubUserInfo fromJson(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonReader.Token.NULL) {
+                return reader.nextNull();
+            }
+            GithubUserInfo info = new GithubUserInfo();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.selectName(OPTIONS)) {
+                    case 0:
+                        info.setLogin(nextString(reader));
+                        break;
+                    case 1:
+                        info.setId(nextInteger(reader));
+                        break;
+                    case 2:
+                        info.setAvatarUrl(nextString(reader));
+                        break;
+                    case 3:
+                        info.setType(nextString(reader));
+                        break;
+                    case 4:
+                        info.setName(nextString(reader));
+                        break;
+                    case 5:
+                        info.setCompany(nextString(reader));
+                        break;
+                    case 6:
+                        info.setLocation(nextString(reader));
+                        break;
+                    case 7:
+                        info.setPublicRepos(nextInteger(reader));
+                        break;
+                    case 8:
+                        info.setFollowers(nextInteger(reader));
+                        break;
+                    case 9:
+                        info.setFollowing(nextInteger(reader));
+                        break;
+                    default:
+                        reader.skipName();
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return info;
+        }
+
+        @Override
+        public void toJson(JsonWriter writer, GithubUserInfo value) throws IOException {
+            if (value == null) {
+                writer.nullValue();
+                return;
+            }
+            writer.beginObject();
+            writer.name("login").value(value.getLogin());
+            writer.name("id").value(value.getId());
+            writer.name("avatar_url").value(value.getAvatarUrl());
+            writer.name("type").value(value.getType());
+            writer.name("name").value(value.getName());
+            writer.name("company").value(value.getCompany());
+            writer.name("location").value(value.getLocation());
+            writer.name("public_repos").value(value.getPublicRepos());
+            writer.name("followers").value(value.getFollowers());
+            writer.name("following").value(value.getFollowing());
+            writer.endObject();
+        }
+    }
+
+    private static String nextString(JsonReader reader) throws IOException {
+        return reader.peek() == JsonReader.Token.NULL ? reader.<String>nextNull() : reader.nextString();
+    }
+
+    private static Integer nextInteger(JsonReader reader) throws IOException {
+        return reader.peek() == JsonReader.Token.NULL ? reader.<Integer>nextNull() : reader.nextInt();
+    }
+}
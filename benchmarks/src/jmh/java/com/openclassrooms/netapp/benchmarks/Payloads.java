@@ -0,0 +1,79 @@
+package com.openclassrooms.netapp.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Génère des réponses JSON réalistes des endpoints {@code users/{login}/following} et {@code users/{login}}.
+ * <p>
+ * Les objets reprennent tous les champs renvoyés par l'API GitHub, URL templatées comprises, afin que
+ * le coût mesuré corresponde à celui des vraies réponses.
+ * </p>
+ */
+final class Payloads {
+
+    private static final String API = "https://api.github.com/users/";
+
+    private Payloads() { }
+
+    /**
+     * @param size Nombre d'utilisateurs dans la liste.
+     * @return Le corps UTF-8 d'une page {@code following} de {@code size} utilisateurs.
+     */
+    static byte[] following(int size) {
+        StringBuilder json = new StringBuilder(size * 1200);
+        json.append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) json.append(',');
+            appendUser(json, "user" + i, 1000 + i);
+            json.append('}');
+        }
+        json.append(']');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return Le corps UTF-8 d'une réponse {@code users/{login}}.
+     */
+    static byte[] userInfo() {
+        StringBuilder json = new StringBuilder(2048);
+        appendUser(json, "JakeWharton", 66577);
+        json.append(",\"name\":\"Jake Wharton\"")
+                .append(",\"company\":null")
+                .append(",\"blog\":\"https://jakewharton.com\"")
+                .append(",\"location\":\"Pittsburgh, PA, USA\"")
+                .append(",\"email\":null")
+                .append(",\"hireable\":null")
+                .append(",\"bio\":null")
+                .append(",\"twitter_username\":null")
+                .append(",\"public_repos\":110")
+                .append(",\"public_gists\":54")
+                .append(",\"followers\":66000")
+                .append(",\"following\":10")
+                .append(",\"created_at\":\"2010-03-24T03:45:43Z\"")
+                .append(",\"updated_at\":\"2024-05-01T12:00:00Z\"}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Champs communs à GithubUser et GithubUserInfo, sans l'accolade fermante
+    private static void appendUser(StringBuilder json, String login, int id) {
+        String url = API + login;
+        json.append("{\"login\":\"").append(login).append('"')
+                .append(",\"id\":").append(id)
+                .append(",\"node_id\":\"MDQ6VXNlcj").append(id).append('"')
+                .append(",\"avatar_url\":\"https://avatars.githubusercontent.com/u/").append(id).append("?v=4\"")
+                .append(",\"gravatar_id\":\"\"")
+                .append(",\"url\":\"").append(url).append('"')
+                .append(",\"html_url\":\"https://github.com/").append(login).append('"')
+                .append(",\"followers_url\":\"").append(url).append("/followers\"")
+                .append(",\"following_url\":\"").append(url).append("/following{/other_user}\"")
+                .append(",\"gists_url\":\"").append(url).append("/gists{/gist_id}\"")
+                .append(",\"starred_url\":\"").append(url).append("/starred{/owner}{/repo}\"")
+                .append(",\"subscriptions_url\":\"").append(url).append("/subscriptions\"")
+                .append(",\"organizations_url\":\"").append(url).append("/orgs\"")
+                .append(",\"repos_url\":\"").append(url).append("/repos\"")
+                .append(",\"events_url\":\"").append(url).append("/events{/privacy}\"")
+                .append(",\"received_events_url\":\"").append(url).append("/received_events\"")
+                .append(",\"type\":\"User\"")
+                .append(",\"site_admin\":false");
+    }
+}
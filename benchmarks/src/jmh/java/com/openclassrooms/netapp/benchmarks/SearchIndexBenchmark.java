@@ -0,0 +1,64 @@
+package com.openclassrooms.netapp.benchmarks;
+
+import com.openclassrooms.netapp.Models.GithubUser;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.openclassrooms.netapp.Utils.UserSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure le temps d'une recherche locale ({@link UserSearchIndex#filter}) sur une liste de 50 000
+ * utilisateurs dont les informations détaillées sont indexées. L'objectif est de rester sous quelques
+ * millisecondes par frappe, y compris pour les préfixes d'une lettre qui couvrent une grande plage de mots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchIndexBenchmark {
+
+    private static final int USER_COUNT = 50_000;
+    private static final String[] CITIES = {"London", "Paris", "Berlin", "Tokyo", "Lyon", "Lisbon", "Toronto", "Seattle"};
+
+    @Param({"l", "lon", "user1", "company4 par", "name 12"})
+    public String query;
+
+    private List<GithubUser> users;
+    private UserSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        users = new ArrayList<>(USER_COUNT);
+        index = new UserSearchIndex();
+        for (int id = 1; id <= USER_COUNT; id++) {
+            GithubUser user = new GithubUser();
+            user.setId(id);
+            user.setLogin("user" + Integer.toString(id, 36) + "-dev");
+            users.add(user);
+            index.add(user);
+
+            GithubUserInfo info = new GithubUserInfo();
+            info.setId(id);
+            info.setLogin(user.getLogin());
+            info.setName("Name " + id);
+            info.setCompany("Company" + (id % 500));
+            info.setLocation(CITIES[id % CITIES.length]);
+            index.update(info);
+        }
+    }
+
+    @Benchmark
+    public List<GithubUser> filter() {
+        return index.filter(users, query);
+    }
+}
@@ -0,0 +1,72 @@
+package com.openclassrooms.netapp.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.openclassrooms.netapp.Models.GithubUserInfo;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.Moshi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import okio.Buffer;
+
+/**
+ * Mesure le coût de désérialisation d'une réponse {@code users/{login}} en {@link GithubUserInfo}.
+ *
+ * @see FollowingParseBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UserInfoParseBenchmark {
+
+    private byte[] body;
+    private Gson reflectiveGson;
+    private Gson adapterGson;
+    private JsonAdapter<GithubUserInfo> moshiAdapter;
+
+    @Setup
+    public void setUp() {
+        body = Payloads.userInfo();
+        reflectiveGson = new Gson();
+        adapterGson = new GsonBuilder()
+                .registerTypeAdapter(GithubUserInfo.class, new GsonAdapters.GithubUserInfoAdapter())
+                .create();
+        moshiAdapter = new Moshi.Builder()
+                .add(GithubUserInfo.class, new MoshiAdapters.GithubUserInfoAdapter())
+                .build()
+                .adapter(GithubUserInfo.class);
+    }
+
+    @Benchmark
+    public GithubUserInfo gsonReflection() {
+        return reflectiveGson.fromJson(reader(), GithubUserInfo.class);
+    }
+
+    @Benchmark
+    public GithubUserInfo gsonTypeAdapter() {
+        return adapterGson.fromJson(reader(), GithubUserInfo.class);
+    }
+
+    @Benchmark
+    public GithubUserInfo moshiCodegen() throws IOException {
+        return moshiAdapter.fromJson(JsonReader.of(new Buffer().write(body)));
+    }
+
+    private InputStreamReader reader() {
+        return new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+    }
+}
@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "NetApp"
 include(":app")
+include(":benchmarks")